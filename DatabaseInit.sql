@@ -1,6 +1,8 @@
 USE ecommerce_db;
 
 SET FOREIGN_KEY_CHECKS = 0;
+DROP TABLE IF EXISTS refresh_tokens;
+DROP TABLE IF EXISTS payment_webhook_inbox;
 DROP TABLE IF EXISTS payment_webhook_events;
 DROP TABLE IF EXISTS payment_transactions;
 DROP TABLE IF EXISTS checkout_order_items;
@@ -72,6 +74,7 @@ CREATE TABLE carts (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL UNIQUE,
     version BIGINT NOT NULL DEFAULT 0,
+    flushed_version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
@@ -151,6 +154,8 @@ CREATE TABLE payment_transactions (
 );
 CREATE INDEX idx_payment_transactions_session ON payment_transactions(provider_session_id);
 CREATE INDEX idx_payment_transactions_intent ON payment_transactions(payment_intent_id);
+CREATE INDEX idx_payment_transactions_status_created ON payment_transactions(status, created_at);
+CREATE INDEX idx_payment_transactions_status_expires ON payment_transactions(status, expires_at);
 
 CREATE TABLE payment_webhook_events (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -159,6 +164,38 @@ CREATE TABLE payment_webhook_events (
     processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE TABLE payment_webhook_inbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(255) NOT NULL UNIQUE,
+    provider VARCHAR(16) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    partition_key VARCHAR(255) NOT NULL,
+    provider_reference_id VARCHAR(255),
+    payment_reference_id VARCHAR(255),
+    payment_status VARCHAR(16),
+    message VARCHAR(512),
+    payload MEDIUMTEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error VARCHAR(512),
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL
+);
+CREATE INDEX idx_payment_webhook_inbox_due ON payment_webhook_inbox(status, next_attempt_at, id);
+CREATE INDEX idx_payment_webhook_inbox_partition ON payment_webhook_inbox(partition_key, status, id);
+
+CREATE TABLE refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens(user_id);
+
 INSERT INTO roles (name) VALUES
 ('ROLE_USER'),
 ('ROLE_ADMIN'),
@@ -47,6 +47,13 @@ SET @sql := IF(
 );
 PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
 
+SET @sql := IF(
+    EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = @db AND table_name = 'carts' AND column_name = 'flushed_version'),
+    'SELECT 1',
+    'ALTER TABLE carts ADD COLUMN flushed_version BIGINT NOT NULL DEFAULT 0'
+);
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
 SET @sql := IF(
     EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = @db AND table_name = 'cart_items' AND column_name = 'version'),
     'SELECT 1',
@@ -176,6 +183,35 @@ CREATE TABLE IF NOT EXISTS payment_webhook_events (
     processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE TABLE IF NOT EXISTS payment_webhook_inbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(255) NOT NULL UNIQUE,
+    provider VARCHAR(16) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    partition_key VARCHAR(255) NOT NULL,
+    provider_reference_id VARCHAR(255),
+    payment_reference_id VARCHAR(255),
+    payment_status VARCHAR(16),
+    message VARCHAR(512),
+    payload MEDIUMTEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error VARCHAR(512),
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 SET @sql := IF(
     EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = @db AND table_name = 'checkout_orders' AND index_name = 'idx_checkout_orders_user_created'),
     'SELECT 1',
@@ -204,6 +240,41 @@ SET @sql := IF(
 );
 PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
 
+SET @sql := IF(
+    EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = @db AND table_name = 'payment_transactions' AND index_name = 'idx_payment_transactions_status_created'),
+    'SELECT 1',
+    'CREATE INDEX idx_payment_transactions_status_created ON payment_transactions(status, created_at)'
+);
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @sql := IF(
+    EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = @db AND table_name = 'payment_transactions' AND index_name = 'idx_payment_transactions_status_expires'),
+    'SELECT 1',
+    'CREATE INDEX idx_payment_transactions_status_expires ON payment_transactions(status, expires_at)'
+);
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @sql := IF(
+    EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = @db AND table_name = 'refresh_tokens' AND index_name = 'idx_refresh_tokens_user'),
+    'SELECT 1',
+    'CREATE INDEX idx_refresh_tokens_user ON refresh_tokens(user_id)'
+);
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @sql := IF(
+    EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = @db AND table_name = 'payment_webhook_inbox' AND index_name = 'idx_payment_webhook_inbox_due'),
+    'SELECT 1',
+    'CREATE INDEX idx_payment_webhook_inbox_due ON payment_webhook_inbox(status, next_attempt_at, id)'
+);
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @sql := IF(
+    EXISTS (SELECT 1 FROM information_schema.statistics WHERE table_schema = @db AND table_name = 'payment_webhook_inbox' AND index_name = 'idx_payment_webhook_inbox_partition'),
+    'SELECT 1',
+    'CREATE INDEX idx_payment_webhook_inbox_partition ON payment_webhook_inbox(partition_key, status, id)'
+);
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
 -- Ensure ROLE_EMPLOYEE exists
 INSERT INTO roles (name)
 SELECT 'ROLE_EMPLOYEE'
@@ -1,6 +1,7 @@
 package com.ecommerce.platform.common.dto;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.function.Function;
@@ -23,4 +24,26 @@ public record PageResponse<T>(
                 page.hasNext()
         );
     }
+
+    /**
+     * Builds a page from a count-free slice and a maintained (possibly approximate) total. The
+     * total is clamped to what the slice proves: exact on the last page, and never smaller than
+     * the rows already seen plus one when another page exists.
+     */
+    public static <T, R> PageResponse<R> from(Slice<T> slice, long approximateTotal, Function<T, R> mapper) {
+        long seen = (long) slice.getNumber() * slice.getSize() + slice.getNumberOfElements();
+        long totalItems = slice.hasNext() ? Math.max(approximateTotal, seen + 1) : seen;
+        if (slice.getNumberOfElements() == 0 && slice.getNumber() > 0) {
+            totalItems = Math.min(approximateTotal, (long) slice.getNumber() * slice.getSize());
+        }
+        int totalPages = slice.getSize() == 0 ? 0 : (int) ((totalItems + slice.getSize() - 1) / slice.getSize());
+        return new PageResponse<>(
+                slice.getContent().stream().map(mapper).toList(),
+                slice.getNumber(),
+                slice.getSize(),
+                totalItems,
+                totalPages,
+                slice.hasNext()
+        );
+    }
 }
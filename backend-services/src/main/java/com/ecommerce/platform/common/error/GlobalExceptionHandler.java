@@ -35,7 +35,7 @@ public class GlobalExceptionHandler {
                 request.getRequestURI(),
                 null
         );
-        return ResponseEntity.status(status).body(error);
+        return ResponseEntity.status(status).headers(ex.getHeaders()).body(error);
     }
 
     @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
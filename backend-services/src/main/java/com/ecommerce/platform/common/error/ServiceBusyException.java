@@ -0,0 +1,32 @@
+package com.ecommerce.platform.common.error;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Load-shedding rejection: 503 with a {@code Retry-After} header telling the client when to try
+ * again.
+ */
+public class ServiceBusyException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public ServiceBusyException(String reason, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1L, retryAfter.toSeconds())));
+        return headers;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.platform.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Cached value plus the metadata probabilistic early refresh needs: when the entry expires in
+ * Redis and how long the value took to compute. Records are final, so default typing would not
+ * write a type id for the root object; the explicit {@link JsonTypeInfo} keeps it readable.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "@class")
+public record CacheEnvelope(
+        Object value,
+        long expiresAtEpochMillis,
+        long computeMillis
+) {
+}
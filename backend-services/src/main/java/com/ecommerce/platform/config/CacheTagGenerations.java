@@ -0,0 +1,115 @@
+package com.ecommerce.platform.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generation counters for tag-based cache invalidation. Callers fold the current generation of
+ * every tag an entry depends on into its cache key; bumping a tag makes those keys unreachable
+ * and the orphaned entries age out through their TTL, so no key scan is needed. Generations live
+ * in Redis and are memoized per node for a short refresh interval.
+ *
+ * <p>A bump that fails in Redis is queued and retried every refresh interval instead of being
+ * applied to the local memo only, which would let this node drift from the others and reach old
+ * entries again once the memo refreshed. Until the retry succeeds every node keeps serving the
+ * entries of the current generation.
+ */
+@Component
+public class CacheTagGenerations {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheTagGenerations.class);
+    private static final String KEY_PREFIX = "cache:tag-generation:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long refreshNanos;
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+    private final Set<String> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    public CacheTagGenerations(StringRedisTemplate redisTemplate,
+                               @Value("${app.cache.tag-generation-refresh-ms:1000}") long refreshMillis) {
+        this.redisTemplate = redisTemplate;
+        this.refreshNanos = refreshMillis * 1_000_000L;
+    }
+
+    public long current(String tag) {
+        long now = System.nanoTime();
+        Generation memo = generations.get(tag);
+        if (memo != null && now - memo.loadedAtNanos() < refreshNanos) {
+            return memo.value();
+        }
+
+        long value = memo != null ? memo.value() : 0L;
+        try {
+            String stored = redisTemplate.opsForValue().get(KEY_PREFIX + tag);
+            value = stored != null ? Long.parseLong(stored) : 0L;
+        } catch (RuntimeException ex) {
+            log.warn("Cache tag generation read failed for tag={}: {}", tag, ex.getMessage());
+        }
+        generations.put(tag, new Generation(value, now));
+        return value;
+    }
+
+    public void bumpAfterCommit(Collection<String> tags) {
+        List<String> distinctTags = tags.stream().distinct().toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(distinctTags);
+                }
+            });
+        } else {
+            bump(distinctTags);
+        }
+    }
+
+    /**
+     * Retries queued bumps. One increment per tag is enough however many bumps were queued, since
+     * it already makes every key built before it unreachable.
+     */
+    @Scheduled(
+            initialDelayString = "${app.cache.tag-generation-refresh-ms:1000}",
+            fixedDelayString = "${app.cache.tag-generation-refresh-ms:1000}"
+    )
+    public void retryPendingBumps() {
+        for (String tag : List.copyOf(pendingBumps)) {
+            pendingBumps.remove(tag);
+            if (!increment(tag)) {
+                return;
+            }
+        }
+    }
+
+    private void bump(List<String> tags) {
+        for (String tag : tags) {
+            increment(tag);
+        }
+    }
+
+    private boolean increment(String tag) {
+        try {
+            Long value = redisTemplate.opsForValue().increment(KEY_PREFIX + tag);
+            generations.put(tag, new Generation(value != null ? value : 0L, System.nanoTime()));
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Cache tag generation bump failed for tag={}, queued for retry: {}", tag, ex.getMessage());
+            pendingBumps.add(tag);
+            return false;
+        }
+    }
+
+    private record Generation(long value, long loadedAtNanos) {
+    }
+}
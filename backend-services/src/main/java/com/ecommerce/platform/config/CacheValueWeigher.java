@@ -0,0 +1,71 @@
+package com.ecommerce.platform.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximates the in-heap cost of cached DTOs as one unit per value plus one unit per element
+ * of every collection it holds, so a 100-item product page weighs far more than a single product.
+ */
+final class CacheValueWeigher implements Weigher<String, Object> {
+
+    private static final Map<Class<?>, List<RecordComponent>> COLLECTION_COMPONENTS = new ConcurrentHashMap<>();
+
+    @Override
+    public int weigh(String key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, weightOf(value));
+    }
+
+    static long weightOf(Object value) {
+        if (value == null) {
+            return 1;
+        }
+        if (value instanceof CacheEnvelope envelope) {
+            return weightOf(envelope.value());
+        }
+        if (value instanceof Collection<?> collection) {
+            return 1L + collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return 1L + map.size();
+        }
+        if (!value.getClass().isRecord()) {
+            return 1;
+        }
+
+        long weight = 1;
+        for (RecordComponent component : collectionComponents(value.getClass())) {
+            try {
+                Object nested = component.getAccessor().invoke(value);
+                if (nested instanceof Collection<?> collection) {
+                    weight += collection.size();
+                } else if (nested instanceof Map<?, ?> map) {
+                    weight += map.size();
+                }
+            } catch (ReflectiveOperationException ex) {
+                return weight;
+            }
+        }
+        return weight;
+    }
+
+    private static List<RecordComponent> collectionComponents(Class<?> recordType) {
+        return COLLECTION_COMPONENTS.computeIfAbsent(recordType, type -> {
+            List<RecordComponent> components = new ArrayList<>();
+            for (RecordComponent component : type.getRecordComponents()) {
+                if (Collection.class.isAssignableFrom(component.getType())
+                        || Map.class.isAssignableFrom(component.getType())) {
+                    component.getAccessor().setAccessible(true);
+                    components.add(component);
+                }
+            }
+            return List.copyOf(components);
+        });
+    }
+}
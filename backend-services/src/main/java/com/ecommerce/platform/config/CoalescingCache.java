@@ -0,0 +1,247 @@
+package com.ecommerce.platform.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outermost cache decorator. Concurrent misses for the same key on one node share a single loader
+ * call, and a hit may be recomputed ahead of its TTL with a probability that rises as expiry nears
+ * and with how long the value took to compute. Only the caller that wins the refresh pays for it;
+ * everyone else keeps reading the current value. Loaded values are stored through the near tier's
+ * non-broadcasting fill path, so a refresh does not flush other nodes' L1 copies. A caller waiting
+ * on another caller's load gives up after {@code loadWaitTimeout} and loads for itself. Values are
+ * stored wrapped in a {@link CacheEnvelope}; entries written before the envelope existed are still
+ * returned as-is.
+ */
+final class CoalescingCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingCache.class);
+
+    private final Cache delegate;
+    private final Duration ttl;
+    private final double earlyRefreshBeta;
+    private final Duration loadWaitTimeout;
+    private final Clock clock;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedWaiters;
+    private final Counter earlyRefreshes;
+    private final Counter loadWaitTimeouts;
+
+    CoalescingCache(Cache delegate,
+                    Duration ttl,
+                    double earlyRefreshBeta,
+                    Duration loadWaitTimeout,
+                    Clock clock,
+                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.loadWaitTimeout = loadWaitTimeout;
+        this.clock = clock;
+        this.coalescedWaiters = Counter.builder("cache.coalesced.waiters")
+                .description("Callers that waited on another caller's in-flight load instead of loading themselves")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("cache.early.refreshes")
+                .description("Entries recomputed ahead of their TTL")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.loadWaitTimeouts = Counter.builder("cache.coalesced.timeouts")
+                .description("Callers that stopped waiting on another caller's load and loaded themselves")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        return wrapper.get() instanceof CacheEnvelope envelope ? new SimpleValueWrapper(envelope.value()) : wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = readQuietly(key);
+        if (cached != null && cached.get() != null) {
+            Object stored = cached.get();
+            if (!(stored instanceof CacheEnvelope envelope)) {
+                return (T) stored;
+            }
+            if (!shouldRefreshEarly(envelope)) {
+                return (T) envelope.value();
+            }
+            CompletableFuture<Object> refresh = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key, refresh) != null) {
+                return (T) envelope.value();
+            }
+            earlyRefreshes.increment();
+            return (T) load(key, valueLoader, refresh);
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalescedWaiters.increment();
+            return (T) await(key, valueLoader, existing);
+        }
+        return (T) load(key, valueLoader, load);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, envelope(value, 0L));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, envelope(value, 0L));
+        if (existing != null && existing.get() instanceof CacheEnvelope envelope) {
+            return new SimpleValueWrapper(envelope.value());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    boolean shouldRefreshEarly(CacheEnvelope envelope) {
+        if (earlyRefreshBeta <= 0 || envelope.computeMillis() <= 0) {
+            return false;
+        }
+        // XFetch: refresh when now - delta * beta * ln(U) passes expiry, with U uniform in (0, 1].
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = -envelope.computeMillis() * earlyRefreshBeta * Math.log(random);
+        return clock.millis() + gap >= envelope.expiresAtEpochMillis();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            long startedAt = System.nanoTime();
+            Object value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception ex) {
+                future.completeExceptionally(ex);
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            long computeMillis = Math.max(1L, Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+            if (value != null) {
+                try {
+                    fill(key, envelope(value, computeMillis));
+                } catch (RuntimeException ex) {
+                    log.warn("Cache put failed for cache={} key={}: {}", getName(), key, ex.getMessage());
+                }
+            }
+            future.complete(value);
+            return value;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> future) {
+        try {
+            return future.get(loadWaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            loadWaitTimeouts.increment();
+            log.debug("Load of cache={} key={} still running after {}, loading directly", getName(), key, loadWaitTimeout);
+            try {
+                return valueLoader.call();
+            } catch (Exception loadFailure) {
+                throw new ValueRetrievalException(key, valueLoader, loadFailure);
+            }
+        } catch (ExecutionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    private void fill(Object key, Object envelope) {
+        if (delegate instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.fill(key, envelope);
+        } else {
+            delegate.put(key, envelope);
+        }
+    }
+
+    private ValueWrapper readQuietly(Object key) {
+        // A Redis outage is exactly when a stampede hurts most, so a failed read counts as a
+        // miss and still goes through the single-flight path.
+        try {
+            return delegate.get(key);
+        } catch (RuntimeException ex) {
+            log.warn("Cache get failed for cache={} key={}: {}", getName(), key, ex.getMessage());
+            return null;
+        }
+    }
+
+    private Object envelope(Object value, long computeMillis) {
+        if (value == null) {
+            // Leave null handling to the delegate so its null-caching policy still applies.
+            return null;
+        }
+        return new CacheEnvelope(value, clock.millis() + ttl.toMillis(), computeMillis);
+    }
+}
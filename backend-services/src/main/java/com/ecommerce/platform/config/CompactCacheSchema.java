@@ -0,0 +1,21 @@
+package com.ecommerce.platform.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.util.List;
+
+/**
+ * Declares the value types a cache holds so its entries can be written with
+ * {@link CompactCacheSerializer} instead of JSON with embedded class names. Modules expose one
+ * bean per cache they own; caches without a schema keep the JSON serializer.
+ */
+public record CompactCacheSchema(String cacheName, List<JavaType> valueTypes) {
+
+    public CompactCacheSchema {
+        valueTypes = List.copyOf(valueTypes);
+    }
+
+    public static CompactCacheSchema of(String cacheName, JavaType... valueTypes) {
+        return new CompactCacheSchema(cacheName, List.of(valueTypes));
+    }
+}
@@ -0,0 +1,199 @@
+package com.ecommerce.platform.config;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes cache values as Smile against the value types declared in a {@link CompactCacheSchema},
+ * so no class names are embedded. Each entry starts with a small header:
+ * <pre>
+ * magic(1) formatVersion(1) flags(1) typeFingerprint(4) [expiresAt(8) computeMillis(8)] payload
+ * </pre>
+ * The fingerprint covers the canonical generic type and, recursively, the name and type of every
+ * serialized property, so an entry written for a DTO that has since gained, lost or retyped a
+ * property, or a JSON entry written before the switch, reads as a miss and is reloaded instead of
+ * failing the request.
+ * Payloads above the threshold are deflated when that makes them smaller.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactCacheSerializer.class);
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int FLAG_ENVELOPED = 1 << 1;
+    private static final int BASE_HEADER_BYTES = 7;
+    private static final int ENVELOPE_HEADER_BYTES = 16;
+
+    private final ObjectMapper smileMapper;
+    private final Map<Integer, JavaType> typesByFingerprint = new LinkedHashMap<>();
+    private final int compressionThresholdBytes;
+
+    public CompactCacheSerializer(ObjectMapper smileMapper, List<JavaType> valueTypes, int compressionThresholdBytes) {
+        this.smileMapper = smileMapper;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+        for (JavaType valueType : valueTypes) {
+            JavaType previous = typesByFingerprint.putIfAbsent(fingerprint(smileMapper, valueType), valueType);
+            if (previous != null) {
+                throw new IllegalArgumentException("Duplicate cache value type fingerprint for " + valueType);
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        CacheEnvelope envelope = value instanceof CacheEnvelope cacheEnvelope ? cacheEnvelope : null;
+        Object payloadValue = envelope != null ? envelope.value() : value;
+        Map.Entry<Integer, JavaType> type = typeOf(payloadValue);
+        byte[] payload;
+        try {
+            payload = smileMapper.writerFor(type.getValue()).writeValueAsBytes(payloadValue);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write compact cache value", ex);
+        }
+
+        int flags = envelope != null ? FLAG_ENVELOPED : 0;
+        if (payload.length > compressionThresholdBytes) {
+            byte[] compressed = deflate(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+                BASE_HEADER_BYTES + (envelope != null ? ENVELOPE_HEADER_BYTES : 0) + payload.length);
+        buffer.put(MAGIC).put(FORMAT_VERSION).put((byte) flags).putInt(type.getKey());
+        if (envelope != null) {
+            buffer.putLong(envelope.expiresAtEpochMillis()).putLong(envelope.computeMillis());
+        }
+        return buffer.put(payload).array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < BASE_HEADER_BYTES || bytes[0] != MAGIC || bytes[1] != FORMAT_VERSION) {
+            log.debug("Skipping cache entry with unknown format prefix");
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(2);
+        int flags = buffer.get();
+        JavaType type = typesByFingerprint.get(buffer.getInt());
+        boolean enveloped = (flags & FLAG_ENVELOPED) != 0;
+        if (type == null || (enveloped && buffer.remaining() < ENVELOPE_HEADER_BYTES)) {
+            log.debug("Skipping cache entry written for an unknown value type");
+            return null;
+        }
+        long expiresAt = enveloped ? buffer.getLong() : 0L;
+        long computeMillis = enveloped ? buffer.getLong() : 0L;
+
+        byte[] payload = Arrays.copyOfRange(bytes, buffer.position(), bytes.length);
+        try {
+            if ((flags & FLAG_COMPRESSED) != 0) {
+                payload = inflate(payload);
+            }
+            Object value = smileMapper.readValue(payload, type);
+            return enveloped ? new CacheEnvelope(value, expiresAt, computeMillis) : value;
+        } catch (IOException ex) {
+            log.debug("Skipping unreadable cache entry of type {}: {}", type, ex.getMessage());
+            return null;
+        }
+    }
+
+    private Map.Entry<Integer, JavaType> typeOf(Object value) {
+        for (Map.Entry<Integer, JavaType> entry : typesByFingerprint.entrySet()) {
+            if (entry.getValue().getRawClass().isInstance(value)) {
+                return entry;
+            }
+        }
+        throw new SerializationException("No compact cache schema type for " + value.getClass().getName());
+    }
+
+    static int fingerprint(ObjectMapper mapper, JavaType type) {
+        StringBuilder shape = new StringBuilder();
+        describe(mapper.getSerializationConfig(), type, shape, new HashSet<>());
+        CRC32 crc = new CRC32();
+        crc.update(shape.toString().getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    private static void describe(SerializationConfig config, JavaType type, StringBuilder shape, Set<JavaType> seen) {
+        shape.append(type.toCanonical());
+        if (type.isContainerType()) {
+            if (type.getKeyType() != null) {
+                describe(config, type.getKeyType(), shape.append('<'), seen);
+            }
+            describe(config, type.getContentType(), shape.append('<'), seen);
+            return;
+        }
+        Class<?> raw = type.getRawClass();
+        if (type.isEnumType()) {
+            shape.append(Arrays.toString(raw.getEnumConstants()));
+            return;
+        }
+        if (type.isPrimitive() || raw.getName().startsWith("java.") || !seen.add(type)) {
+            return;
+        }
+        BeanDescription bean = config.introspect(type);
+        shape.append('{');
+        for (BeanPropertyDefinition property : bean.findProperties()) {
+            if (property.couldSerialize()) {
+                shape.append(property.getName()).append(':');
+                describe(config, property.getPrimaryType(), shape, seen);
+                shape.append(',');
+            }
+        }
+        shape.append('}');
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(payload);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not compress cache value", ex);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] payload) throws IOException {
+        try (InflaterInputStream stream = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return stream.readAllBytes();
+        }
+    }
+}
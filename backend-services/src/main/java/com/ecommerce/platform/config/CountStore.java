@@ -0,0 +1,85 @@
+package com.ecommerce.platform.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Maintained row counters for paged endpoints. A counter is seeded from an exact count query on
+ * first read and then adjusted incrementally by writers after commit. Seeded counters expire after
+ * the reconcile interval, which bounds drift from lost adjustments or out-of-band SQL writes.
+ */
+@Component
+public class CountStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CountStore.class);
+    private static final String KEY_PREFIX = "count:";
+    private static final RedisScript<Long> INCREMENT_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return redis.call('incrby', KEYS[1], ARGV[1]) end return nil",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration reconcileInterval;
+
+    public CountStore(StringRedisTemplate redisTemplate,
+                      @Value("${app.count-store.reconcile-minutes:60}") long reconcileMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.reconcileInterval = Duration.ofMinutes(reconcileMinutes);
+    }
+
+    public long get(String counter, LongSupplier exactCount) {
+        String key = KEY_PREFIX + counter;
+        try {
+            String stored = redisTemplate.opsForValue().get(key);
+            if (stored != null) {
+                return Math.max(0L, Long.parseLong(stored));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Count store read failed for counter={}: {}", counter, ex.getMessage());
+            return exactCount.getAsLong();
+        }
+
+        long count = exactCount.getAsLong();
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, Long.toString(count), reconcileInterval);
+        } catch (RuntimeException ex) {
+            log.warn("Count store seed failed for counter={}: {}", counter, ex.getMessage());
+        }
+        return count;
+    }
+
+    public void adjustAfterCommit(String counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(counter, delta);
+                }
+            });
+        } else {
+            adjust(counter, delta);
+        }
+    }
+
+    private void adjust(String counter, long delta) {
+        try {
+            redisTemplate.execute(INCREMENT_IF_PRESENT, List.of(KEY_PREFIX + counter), Long.toString(delta));
+        } catch (RuntimeException ex) {
+            log.warn("Count store adjust failed for counter={}: {}", counter, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.platform.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application DataSource in {@link ConcurrencyLimitedDataSource} when
+ * {@code app.datasource.concurrency-limit.enabled} is set, as the virtual-threads profile does.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConcurrencyConfig {
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment,
+                                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                return new ConcurrencyLimitedDataSource(
+                        dataSource,
+                        environment.getProperty("app.datasource.concurrency-limit.permits", Integer.class, 20),
+                        Duration.ofMillis(environment.getProperty("app.datasource.concurrency-limit.acquire-timeout-ms", Long.class, 5000L)),
+                        meterRegistry.getObject()
+                );
+            }
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.platform.config;
+
+import java.time.Duration;
+
+public record NearCacheSpec(long maximumWeight, Duration ttl) {
+}
@@ -2,10 +2,15 @@ package com.ecommerce.platform.config;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.annotation.EnableCaching;
@@ -18,6 +23,7 @@ import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSeriali
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
@@ -27,13 +33,55 @@ public class RedisCacheConfig implements CachingConfigurer {
     private static final Logger log = LoggerFactory.getLogger(RedisCacheConfig.class);
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
-                                          RedisCacheConfiguration redisCacheConfiguration) {
-        return RedisCacheManager.builder(connectionFactory)
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisCacheConfiguration redisCacheConfiguration,
+                                     RedisPubSub redisPubSub,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     @Value("${app.cache.near.enabled:true}") boolean nearCacheEnabled,
+                                     @Value("${app.cache.near.invalidation-channel:cache:near-invalidation}")
+                                     String invalidationChannel,
+                                     @Value("${app.cache.default-ttl-minutes:10}") long defaultTtlMinutes,
+                                     @Value("${app.cache.user-cart-ttl-minutes:60}") long userCartTtlMinutes,
+                                     @Value("${app.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                                     @Value("${app.cache.load-wait-timeout-ms:5000}") long loadWaitTimeoutMs,
+                                     ObjectMapper objectMapper,
+                                     ObjectProvider<CompactCacheSchema> compactCacheSchemas,
+                                     @Value("${app.cache.compact.enabled:true}") boolean compactEnabled,
+                                     @Value("${app.cache.compact.compression-threshold-bytes:1024}")
+                                     int compressionThresholdBytes) {
+        Map<String, Duration> cacheTtls = perCacheTtls(userCartTtlMinutes);
+        Map<String, RedisCacheConfiguration> configurations = perCacheConfigurations(redisCacheConfiguration, cacheTtls);
+        if (compactEnabled) {
+            ObjectMapper smileMapper = objectMapper.copyWith(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            compactCacheSchemas.orderedStream().forEach(schema -> configurations.put(
+                    schema.cacheName(),
+                    configurations.getOrDefault(schema.cacheName(), redisCacheConfiguration)
+                            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                    new CompactCacheSerializer(smileMapper, schema.valueTypes(), compressionThresholdBytes)))
+            ));
+        }
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(redisCacheConfiguration)
-                .withInitialCacheConfigurations(perCacheConfigurations(redisCacheConfiguration))
-                .transactionAware()
+                .withInitialCacheConfigurations(configurations)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                redisCacheManager,
+                nearCacheEnabled ? nearCacheSpecs() : Map.of(),
+                cacheTtls,
+                Duration.ofMinutes(defaultTtlMinutes),
+                earlyRefreshBeta,
+                Duration.ofMillis(loadWaitTimeoutMs),
+                redisPubSub,
+                invalidationChannel,
+                meterRegistry.getIfAvailable()
+        );
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
     }
 
     @Bean
@@ -82,11 +130,30 @@ public class RedisCacheConfig implements CachingConfigurer {
         };
     }
 
-    private Map<String, RedisCacheConfiguration> perCacheConfigurations(RedisCacheConfiguration defaults) {
+    private Map<String, RedisCacheConfiguration> perCacheConfigurations(RedisCacheConfiguration defaults,
+                                                                        Map<String, Duration> cacheTtls) {
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        cacheTtls.forEach((name, ttl) -> configurations.put(name, defaults.entryTtl(ttl)));
+        return configurations;
+    }
+
+    private Map<String, Duration> perCacheTtls(long userCartTtlMinutes) {
         return Map.of(
                 // Keep this map as the single place for future cache-specific TTL overrides.
-                CacheNames.USER_CART, defaults.entryTtl(Duration.ofMinutes(5)),
-                CacheNames.USER_ROLES, defaults.entryTtl(Duration.ofMinutes(5))
+                // Carts are evicted on product writes and at discount boundaries, so they can live long.
+                CacheNames.USER_CART, Duration.ofMinutes(userCartTtlMinutes),
+                CacheNames.USER_ROLES, Duration.ofMinutes(5)
+        );
+    }
+
+    private Map<String, NearCacheSpec> nearCacheSpecs() {
+        return Map.of(
+                // Weights are roughly "DTOs plus their list elements"; keep L1 TTLs short because
+                // cross-node invalidation over pub/sub is best-effort.
+                CacheNames.PRODUCTS, new NearCacheSpec(20_000, Duration.ofSeconds(60)),
+                CacheNames.PRODUCT_LISTS, new NearCacheSpec(20_000, Duration.ofSeconds(30)),
+                CacheNames.CATEGORIES, new NearCacheSpec(1_000, Duration.ofMinutes(2)),
+                CacheNames.USER_CART, new NearCacheSpec(20_000, Duration.ofSeconds(30))
         );
     }
 }
@@ -0,0 +1,62 @@
+package com.ecommerce.platform.config;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Short-lived cross-node mutual exclusion on a Redis key ({@code SET NX PX}). A lease is only an
+ * optimisation for serializing work across nodes: it expires on its own if the holder dies, and
+ * release only deletes the key while it still holds the caller's token.
+ */
+@Component
+public class RedisLease {
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class
+    );
+    private static final long INITIAL_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLease(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Returns the lease token, or null when the key stayed held until {@code wait} elapsed.
+     */
+    public String tryAcquire(String key, Duration leaseTime, Duration wait) {
+        String token = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + wait.toNanos();
+        long backoff = INITIAL_BACKOFF_NANOS;
+        while (true) {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, leaseTime))) {
+                return token;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            LockSupport.parkNanos(Math.min(backoff, remaining));
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE, List.of(key), token);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.platform.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Thin wrapper over Redis pub/sub for cross-node notifications. Redis is treated as
+ * best-effort here, like the cache itself: publish failures are logged and a listener
+ * container that cannot connect at startup does not stop the application.
+ */
+@Component
+public class RedisPubSub implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisPubSub.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer container;
+    private volatile boolean running;
+
+    public RedisPubSub(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+        this.container.setErrorHandler(ex -> log.warn("Redis pub/sub listener failed: {}", ex.getMessage()));
+        this.container.afterPropertiesSet();
+    }
+
+    public void subscribe(String channel, Consumer<String> handler) {
+        container.addMessageListener(
+                (message, pattern) -> handler.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel)
+        );
+    }
+
+    public void publish(String channel, String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException ex) {
+            log.warn("Redis publish failed for channel={}: {}", channel, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            container.start();
+        } catch (RuntimeException ex) {
+            log.warn("Redis pub/sub unavailable, cross-node notifications are disabled: {}", ex.getMessage());
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            container.stop();
+            container.destroy();
+        } catch (Exception ex) {
+            log.warn("Redis pub/sub shutdown failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,7 +1,10 @@
 package com.ecommerce.platform.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import com.ecommerce.platform.modules.auth.security.BoundedPasswordEncoder;
 import com.ecommerce.platform.modules.auth.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +21,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -49,6 +53,8 @@ public class SecurityConfig {
                                 response.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden"))
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Parked checkout status requests resume on an async dispatch after being authorized once.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/auth/**", "/images/**").permitAll()
@@ -70,8 +76,21 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.password-hashing.strength:10}") int strength,
+                                           @Value("${app.auth.password-hashing.threads:0}") int threads,
+                                           @Value("${app.auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.auth.password-hashing.max-wait-ms:2000}") long maxWaitMs,
+                                           @Value("${app.auth.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(strength),
+                poolSize,
+                queueCapacity,
+                Duration.ofMillis(maxWaitMs),
+                Duration.ofSeconds(retryAfterSeconds),
+                meterRegistry
+        );
     }
 
     @Bean
@@ -0,0 +1,178 @@
+package com.ecommerce.platform.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+final class TwoLevelCache implements Cache {
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> near;
+    private final Consumer<String> invalidationPublisher;
+
+    TwoLevelCache(Cache remote,
+                  com.github.benmanes.caffeine.cache.Cache<String, Object> near,
+                  Consumer<String> invalidationPublisher) {
+        this.remote = remote;
+        this.near = near;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    com.github.benmanes.caffeine.cache.Cache<String, Object> getNearCache() {
+        return near;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String nearKey = nearKey(key);
+        Object cached = near.getIfPresent(nearKey);
+        if (cached != null) {
+            return new SimpleValueWrapper(cached);
+        }
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            near.put(nearKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String nearKey = nearKey(key);
+        Object cached = near.getIfPresent(nearKey);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            near.put(nearKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * An explicit put overwrites whatever other nodes hold, so their L1 copies are dropped.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String nearKey = nearKey(key);
+        if (value != null) {
+            near.put(nearKey, value);
+        } else {
+            near.invalidate(nearKey);
+        }
+        invalidationPublisher.accept(nearKey);
+    }
+
+    /**
+     * Stores a value computed from the source of truth after a miss or an early refresh. Other
+     * nodes' L1 copies are left alone: they are either absent or bounded by the L1 TTL, and
+     * broadcasting here would flush every peer on every load.
+     */
+    void fill(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            near.put(nearKey(key), value);
+        }
+    }
+
+    /**
+     * Writes only when the key is absent, so like {@link #fill} it never replaces a value another
+     * node may hold and is not broadcast.
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object current = existing != null ? existing.get() : value;
+        if (current != null) {
+            near.put(nearKey(key), current);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            remote.evict(key);
+        } finally {
+            evictNear(key);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        try {
+            return remote.evictIfPresent(key);
+        } finally {
+            evictNear(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            remote.clear();
+        } finally {
+            clearNear();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        try {
+            return remote.invalidate();
+        } finally {
+            clearNear();
+        }
+    }
+
+    void invalidateNearLocally(String nearKey) {
+        if (nearKey == null) {
+            near.invalidateAll();
+        } else {
+            near.invalidate(nearKey);
+        }
+    }
+
+    private void evictNear(Object key) {
+        String nearKey = nearKey(key);
+        near.invalidate(nearKey);
+        invalidationPublisher.accept(nearKey);
+    }
+
+    private void clearNear() {
+        near.invalidateAll();
+        invalidationPublisher.accept(null);
+    }
+
+    static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
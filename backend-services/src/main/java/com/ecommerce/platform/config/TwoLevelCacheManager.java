@@ -0,0 +1,136 @@
+package com.ecommerce.platform.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a bounded in-process cache in front of the shared Redis caches. Cache names with a
+ * {@link NearCacheSpec} get an L1 tier; every other cache is served from Redis only. Overwrites
+ * and evictions are broadcast on a Redis channel so other nodes drop their L1 copies, while fills
+ * after a load are not; the L1 TTL bounds staleness if a broadcast is lost. Every cache is
+ * fronted by a {@link CoalescingCache} so concurrent misses on a node share one load.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private static final String CLEAR_ALL = "*";
+    private static final String KEY_PREFIX = "k:";
+
+    private final CacheManager remoteCacheManager;
+    private final Map<String, NearCacheSpec> nearCacheSpecs;
+    private final Map<String, Duration> cacheTtls;
+    private final Duration defaultTtl;
+    private final double earlyRefreshBeta;
+    private final Duration loadWaitTimeout;
+    private final RedisPubSub redisPubSub;
+    private final String invalidationChannel;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Map<String, NearCacheSpec> nearCacheSpecs,
+                                Map<String, Duration> cacheTtls,
+                                Duration defaultTtl,
+                                double earlyRefreshBeta,
+                                Duration loadWaitTimeout,
+                                RedisPubSub redisPubSub,
+                                String invalidationChannel,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.nearCacheSpecs = Map.copyOf(nearCacheSpecs);
+        this.cacheTtls = Map.copyOf(cacheTtls);
+        this.defaultTtl = defaultTtl;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.loadWaitTimeout = loadWaitTimeout;
+        this.redisPubSub = redisPubSub;
+        this.invalidationChannel = invalidationChannel;
+        this.meterRegistry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (!nearCacheSpecs.isEmpty()) {
+            redisPubSub.subscribe(invalidationChannel, this::onInvalidation);
+        }
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream()
+                .map(remoteCacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(this::decorate)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote != null ? decorate(remote) : null;
+    }
+
+    void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        TwoLevelCache cache = twoLevelCaches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR_ALL.equals(parts[2])) {
+            cache.invalidateNearLocally(null);
+        } else if (parts[2].startsWith(KEY_PREFIX)) {
+            cache.invalidateNearLocally(parts[2].substring(KEY_PREFIX.length()));
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private Cache decorate(Cache remote) {
+        Duration ttl = cacheTtls.getOrDefault(remote.getName(), defaultTtl);
+        return new CoalescingCache(withNearCache(remote), ttl, earlyRefreshBeta, loadWaitTimeout, Clock.systemUTC(),
+                meterRegistry);
+    }
+
+    private Cache withNearCache(Cache remote) {
+        NearCacheSpec spec = nearCacheSpecs.get(remote.getName());
+        if (spec == null) {
+            return remote;
+        }
+
+        return twoLevelCaches.computeIfAbsent(remote.getName(), name -> {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> near = Caffeine.newBuilder()
+                    .maximumWeight(spec.maximumWeight())
+                    .weigher(new CacheValueWeigher())
+                    .expireAfterWrite(spec.ttl())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, near, name, Tags.of("tier", "near"));
+            return new TwoLevelCache(remote, near, nearKey -> publishInvalidation(name, nearKey));
+        });
+    }
+
+    private void publishInvalidation(String cacheName, String nearKey) {
+        String target = nearKey == null ? CLEAR_ALL : KEY_PREFIX + nearKey;
+        redisPubSub.publish(invalidationChannel, nodeId + "|" + cacheName + "|" + target);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.platform.config;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Builds {@code userCart} cache keys stamped with the pricing day. Discounts start and end at day
+ * boundaries, so a cart priced before midnight stays under the previous day's key and can never
+ * be served after it, even when its put lands late. Callers take the key before pricing.
+ */
+@Component("userCartKeys")
+public class UserCartKeys {
+
+    public String key(Long userId) {
+        return userId + ":" + LocalDate.now();
+    }
+}
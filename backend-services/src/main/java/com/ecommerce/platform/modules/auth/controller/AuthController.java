@@ -2,6 +2,7 @@ package com.ecommerce.platform.modules.auth.controller;
 
 import com.ecommerce.platform.modules.auth.dto.AuthResponse;
 import com.ecommerce.platform.modules.auth.dto.LoginRequest;
+import com.ecommerce.platform.modules.auth.dto.RefreshRequest;
 import com.ecommerce.platform.modules.auth.dto.SignupRequest;
 import com.ecommerce.platform.modules.auth.service.AuthService;
 import org.springframework.http.ResponseEntity;
@@ -30,7 +31,9 @@ public class AuthController {
         return ResponseEntity.ok(auth.login(req.email(), req.password()));
     }
 
-
-
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest req) {
+        return ResponseEntity.ok(auth.refresh(req.refreshToken()));
+    }
 }
 
@@ -2,5 +2,6 @@ package com.ecommerce.platform.modules.auth.dto;
 
 public record AuthResponse(
         String token,
+        String refreshToken,
         UserDto user
 ) {}
@@ -0,0 +1,7 @@
+package com.ecommerce.platform.modules.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank String refreshToken
+) {}
@@ -0,0 +1,148 @@
+package com.ecommerce.platform.modules.auth.security;
+
+import com.ecommerce.platform.config.RedisPubSub;
+import com.ecommerce.platform.modules.users.api.UserAccessChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user revocation cutoffs for access tokens: a token is rejected when its user has a cutoff
+ * at or after the token's issue time. Both are in milliseconds, so a token refreshed in the same
+ * second as the revocation is still accepted. Lookups are served from memory, with a bloom filter in
+ * front of the cutoff map so the common case (user never revoked) is a few bit probes. Cutoffs
+ * are written to a Redis hash and fanned out over pub/sub; each node reloads the hash on startup
+ * and on a fixed interval, dropping cutoffs older than the access-token lifetime, since every
+ * token they could reject has expired by then.
+ */
+@Component
+public class AccessRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessRevocationList.class);
+    private static final String REDIS_KEY = "auth:access-revocations";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisPubSub redisPubSub;
+    private final String channel;
+    private final long retentionMillis;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile Snapshot snapshot;
+
+    public AccessRevocationList(StringRedisTemplate redisTemplate,
+                                RedisPubSub redisPubSub,
+                                @Value("${app.auth.revocation.channel:auth:access-revocations}") String channel,
+                                @Value("${app.jwt.expiration-ms}") long accessTokenExpirationMs,
+                                @Value("${app.auth.revocation.expected-entries:10000}") int expectedEntries,
+                                @Value("${app.auth.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.redisPubSub = redisPubSub;
+        this.channel = channel;
+        this.retentionMillis = accessTokenExpirationMs;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshot = new Snapshot(new UserIdBloomFilter(expectedEntries, falsePositiveRate), new ConcurrentHashMap<>());
+        redisPubSub.subscribe(channel, this::onRemoteRevocation);
+    }
+
+    public boolean isRevoked(long userId, long issuedAtMillis) {
+        Snapshot current = snapshot;
+        if (!current.filter().mightContain(userId)) {
+            return false;
+        }
+        Long cutoff = current.cutoffs().get(userId);
+        return cutoff != null && issuedAtMillis <= cutoff;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccessChanged(UserAccessChangedEvent event) {
+        revoke(event.userId());
+    }
+
+    public void revoke(long userId) {
+        long cutoff = System.currentTimeMillis();
+        apply(userId, cutoff);
+        try {
+            redisTemplate.opsForHash().put(REDIS_KEY, Long.toString(userId), Long.toString(cutoff));
+        } catch (RuntimeException ex) {
+            log.warn("Access revocation write failed for userId={}: {}", userId, ex.getMessage());
+        }
+        redisPubSub.publish(channel, nodeId + "|" + userId + "|" + cutoff);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.auth.revocation.sync-ms:60000}", initialDelayString = "${app.auth.revocation.sync-ms:60000}")
+    public void sync() {
+        long oldest = System.currentTimeMillis() - retentionMillis;
+        Map<Long, Long> live = new HashMap<>();
+        try {
+            Map<Object, Object> stored = redisTemplate.opsForHash().entries(REDIS_KEY);
+            List<Object> expired = new ArrayList<>();
+            stored.forEach((field, value) -> {
+                long cutoff = Long.parseLong(String.valueOf(value));
+                if (cutoff < oldest) {
+                    expired.add(field);
+                } else {
+                    live.merge(Long.valueOf(String.valueOf(field)), cutoff, Math::max);
+                }
+            });
+            if (!expired.isEmpty()) {
+                redisTemplate.opsForHash().delete(REDIS_KEY, expired.toArray());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Access revocation sync failed, keeping local cutoffs: {}", ex.getMessage());
+        }
+        replaceSnapshot(live, oldest);
+    }
+
+    /**
+     * Swaps in a snapshot built from the Redis entries plus every local cutoff still in the
+     * retention window. Redis I/O stays outside the lock; cutoffs applied meanwhile are picked up
+     * here because the merge and swap happen under the same lock as {@link #apply}.
+     */
+    private synchronized void replaceSnapshot(Map<Long, Long> live, long oldest) {
+        snapshot.cutoffs().forEach((userId, cutoff) -> {
+            if (cutoff >= oldest) {
+                live.merge(userId, cutoff, Math::max);
+            }
+        });
+        UserIdBloomFilter filter = new UserIdBloomFilter(Math.max(expectedEntries, live.size()), falsePositiveRate);
+        live.keySet().forEach(filter::add);
+        snapshot = new Snapshot(filter, new ConcurrentHashMap<>(live));
+    }
+
+    private void onRemoteRevocation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            apply(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException ex) {
+            log.warn("Access revocation message ignored: {}", message);
+        }
+    }
+
+    private synchronized void apply(long userId, long cutoff) {
+        Snapshot current = snapshot;
+        current.filter().add(userId);
+        current.cutoffs().merge(userId, cutoff, Math::max);
+    }
+
+    private record Snapshot(UserIdBloomFilter filter, Map<Long, Long> cutoffs) {
+    }
+}
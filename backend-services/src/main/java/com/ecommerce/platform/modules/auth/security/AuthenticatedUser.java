@@ -15,6 +15,7 @@ public class AuthenticatedUser implements UserDetails {
     private final String email;
     private final String displayName;
     private final List<String> roles;
+    private final List<SimpleGrantedAuthority> authorities;
     private final BigDecimal userDiscountPercentage;
     private final LocalDate userDiscountStartDate;
     private final LocalDate userDiscountEndDate;
@@ -34,6 +35,7 @@ public class AuthenticatedUser implements UserDetails {
         this.email = email;
         this.displayName = displayName;
         this.roles = List.copyOf(roles);
+        this.authorities = this.roles.stream().map(SimpleGrantedAuthority::new).toList();
         this.userDiscountPercentage = userDiscountPercentage;
         this.userDiscountStartDate = userDiscountStartDate;
         this.userDiscountEndDate = userDiscountEndDate;
@@ -70,14 +72,12 @@ public class AuthenticatedUser implements UserDetails {
     }
 
     public boolean hasRole(String roleName) {
-        return roles.stream().anyMatch(roleName::equals);
+        return roles.contains(roleName);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(SimpleGrantedAuthority::new)
-                .toList();
+        return authorities;
     }
 
     @Override
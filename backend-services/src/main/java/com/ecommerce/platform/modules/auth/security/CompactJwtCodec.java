@@ -0,0 +1,413 @@
+package com.ecommerce.platform.modules.auth.security;
+
+import com.ecommerce.platform.modules.users.api.UserIdentity;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes and reads the v2 compact token layout: HS256 with a fixed {@code typ} header, and a flat
+ * payload of short claim names holding only numbers and strings (roles as a bitmask, the user
+ * discount in basis points, dates as epoch days). {@code iat} stays in whole seconds with the
+ * millisecond remainder in {@code iam}, so the issue time can be compared with revocation cutoffs
+ * at full precision. Tokens carrying this header are verified and decoded here without a JSON
+ * library; everything else goes through the jjwt parser as v1.
+ */
+final class CompactJwtCodec {
+
+    static final int VERSION = 2;
+
+    private static final String HEADER_SEGMENT = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final String HEADER_PREFIX = HEADER_SEGMENT + ".";
+    private static final List<String> ROLE_BITS = List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_MANAGER", "ROLE_EMPLOYEE");
+    private static final int FLAG_ENABLED = 1;
+    private static final int FLAG_ACCOUNT_NON_LOCKED = 2;
+
+    private static final byte[] VER = ascii("ver");
+    private static final byte[] SUB = ascii("sub");
+    private static final byte[] EMAIL = ascii("em");
+    private static final byte[] DISPLAY_NAME = ascii("dn");
+    private static final byte[] ROLES = ascii("rl");
+    private static final byte[] DISCOUNT = ascii("ud");
+    private static final byte[] DISCOUNT_START = ascii("uds");
+    private static final byte[] DISCOUNT_END = ascii("ude");
+    private static final byte[] FLAGS = ascii("fl");
+    private static final byte[] ISSUED_AT = ascii("iat");
+    private static final byte[] ISSUED_AT_MILLIS = ascii("iam");
+    private static final byte[] EXPIRES = ascii("exp");
+
+    private final ThreadLocal<Mac> mac;
+
+    CompactJwtCodec(SecretKey key) {
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("HmacSHA256 is not available", ex);
+            }
+        });
+    }
+
+    boolean handles(String token) {
+        return token.startsWith(HEADER_PREFIX);
+    }
+
+    /**
+     * Returns the compact token for the user, or null when a role has no bit assigned, in which
+     * case the caller issues a v1 token instead.
+     */
+    String encode(UserIdentity user, long issuedAtMillis, long expiresAtMillis) {
+        int roleBits = 0;
+        for (String role : user.roles()) {
+            int index = ROLE_BITS.indexOf(role);
+            if (index < 0) {
+                return null;
+            }
+            roleBits |= 1 << index;
+        }
+
+        StringBuilder payload = new StringBuilder(160)
+                .append("{\"ver\":").append(VERSION)
+                .append(",\"sub\":\"").append(user.id()).append('"');
+        appendString(payload, "em", user.email());
+        appendString(payload, "dn", user.displayName());
+        payload.append(",\"rl\":").append(roleBits);
+        int discountBasisPoints = toBasisPoints(user.userDiscountPercentage());
+        if (discountBasisPoints != 0) {
+            payload.append(",\"ud\":").append(discountBasisPoints);
+        }
+        if (user.userDiscountStartDate() != null) {
+            payload.append(",\"uds\":").append(user.userDiscountStartDate().toEpochDay());
+        }
+        if (user.userDiscountEndDate() != null) {
+            payload.append(",\"ude\":").append(user.userDiscountEndDate().toEpochDay());
+        }
+        int flags = (user.enabled() ? FLAG_ENABLED : 0) | (user.accountNonLocked() ? FLAG_ACCOUNT_NON_LOCKED : 0);
+        payload.append(",\"fl\":").append(flags)
+                .append(",\"iat\":").append(issuedAtMillis / 1000)
+                .append(",\"iam\":").append(issuedAtMillis % 1000)
+                .append(",\"exp\":").append(expiresAtMillis / 1000)
+                .append('}');
+
+        String signingInput = HEADER_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(signingInput));
+    }
+
+    Decoded decode(String token, long nowMillis) {
+        int payloadEnd = token.indexOf('.', HEADER_PREFIX.length());
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new MalformedJwtException("Compact JWT must have three segments");
+        }
+
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(payloadEnd + 1));
+            payload = Base64.getUrlDecoder().decode(token.substring(HEADER_PREFIX.length(), payloadEnd));
+        } catch (IllegalArgumentException ex) {
+            throw new MalformedJwtException("Compact JWT is not valid base64url", ex);
+        }
+        if (!MessageDigest.isEqual(sign(token.substring(0, payloadEnd)), signature)) {
+            throw new SignatureException("JWT signature does not match locally computed signature");
+        }
+
+        Decoded decoded = new Reader(payload).read();
+        if (decoded.expiresAtMillis() <= nowMillis) {
+            throw new ExpiredJwtException(null, null, "JWT expired");
+        }
+        return decoded;
+    }
+
+    private byte[] sign(String signingInput) {
+        return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void appendString(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static int toBasisPoints(BigDecimal percentage) {
+        if (percentage == null || percentage.signum() <= 0) {
+            return 0;
+        }
+        return percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    record Decoded(AuthenticatedUser user, long issuedAtMillis, long expiresAtMillis) {
+    }
+
+    /**
+     * Single-pass reader for the flat payload written by {@link #encode}. Claim names are matched
+     * against byte constants in place, numbers are accumulated without boxing, and only the
+     * string claims that end up in {@link AuthenticatedUser} are materialized.
+     */
+    private static final class Reader {
+
+        private final byte[] json;
+        private int position;
+
+        private Reader(byte[] json) {
+            this.json = json;
+        }
+
+        Decoded read() {
+            long version = -1;
+            Long subject = null;
+            String email = null;
+            String displayName = null;
+            long roleBits = 0;
+            long discountBasisPoints = 0;
+            LocalDate discountStart = null;
+            LocalDate discountEnd = null;
+            long flags = FLAG_ENABLED | FLAG_ACCOUNT_NON_LOCKED;
+            long issuedAtSeconds = 0;
+            long issuedAtRemainder = 0;
+            long expiresAtSeconds = -1;
+
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    int nameStart = position + 1;
+                    skipString();
+                    int nameEnd = position - 1;
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+
+                    if (nameIs(nameStart, nameEnd, VER)) {
+                        version = readLong();
+                    } else if (nameIs(nameStart, nameEnd, SUB)) {
+                        subject = parseSubject(readString());
+                    } else if (nameIs(nameStart, nameEnd, EMAIL)) {
+                        email = readString();
+                    } else if (nameIs(nameStart, nameEnd, DISPLAY_NAME)) {
+                        displayName = readString();
+                    } else if (nameIs(nameStart, nameEnd, ROLES)) {
+                        roleBits = readLong();
+                    } else if (nameIs(nameStart, nameEnd, DISCOUNT)) {
+                        discountBasisPoints = readLong();
+                    } else if (nameIs(nameStart, nameEnd, DISCOUNT_START)) {
+                        discountStart = LocalDate.ofEpochDay(readLong());
+                    } else if (nameIs(nameStart, nameEnd, DISCOUNT_END)) {
+                        discountEnd = LocalDate.ofEpochDay(readLong());
+                    } else if (nameIs(nameStart, nameEnd, FLAGS)) {
+                        flags = readLong();
+                    } else if (nameIs(nameStart, nameEnd, ISSUED_AT)) {
+                        issuedAtSeconds = readLong();
+                    } else if (nameIs(nameStart, nameEnd, ISSUED_AT_MILLIS)) {
+                        issuedAtRemainder = readLong();
+                    } else if (nameIs(nameStart, nameEnd, EXPIRES)) {
+                        expiresAtSeconds = readLong();
+                    } else {
+                        skipScalar();
+                    }
+
+                    skipWhitespace();
+                    if (peek() == ',') {
+                        position++;
+                    } else {
+                        expect('}');
+                        break;
+                    }
+                }
+            }
+
+            if (version != VERSION || subject == null || expiresAtSeconds < 0
+                    || issuedAtRemainder < 0 || issuedAtRemainder > 999) {
+                throw new MalformedJwtException("Compact JWT is missing required claims");
+            }
+            List<String> roles = new ArrayList<>(Long.bitCount(roleBits));
+            for (int bit = 0; bit < ROLE_BITS.size(); bit++) {
+                if ((roleBits & (1L << bit)) != 0) {
+                    roles.add(ROLE_BITS.get(bit));
+                }
+            }
+            AuthenticatedUser user = new AuthenticatedUser(
+                    subject,
+                    email,
+                    displayName,
+                    roles,
+                    BigDecimal.valueOf(discountBasisPoints, 2),
+                    discountStart,
+                    discountEnd,
+                    (flags & FLAG_ENABLED) != 0,
+                    (flags & FLAG_ACCOUNT_NON_LOCKED) != 0
+            );
+            return new Decoded(user, issuedAtSeconds * 1000 + issuedAtRemainder, expiresAtSeconds * 1000);
+        }
+
+        private boolean nameIs(int start, int end, byte[] name) {
+            return end - start == name.length && Arrays.equals(json, start, end, name, 0, name.length);
+        }
+
+        private long readLong() {
+            boolean negative = peek() == '-';
+            if (negative) {
+                position++;
+            }
+            int start = position;
+            long value = 0;
+            while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    throw new MalformedJwtException("Compact JWT number is out of range");
+                }
+                value = value * 10 + (json[position++] - '0');
+            }
+            if (position == start) {
+                throw new MalformedJwtException("Compact JWT expected a number at " + start);
+            }
+            return negative ? -value : value;
+        }
+
+        private String readString() {
+            if (peek() == 'n') {
+                skipScalar();
+                return null;
+            }
+            expect('"');
+            int start = position;
+            while (position < json.length && json[position] != '"' && json[position] != '\\') {
+                position++;
+            }
+            if (position < json.length && json[position] == '"') {
+                return new String(json, start, position++ - start, StandardCharsets.UTF_8);
+            }
+
+            StringBuilder value = new StringBuilder(new String(json, start, position - start, StandardCharsets.UTF_8));
+            int runStart = position;
+            while (true) {
+                if (position >= json.length) {
+                    throw new MalformedJwtException("Compact JWT has an unterminated string");
+                }
+                byte current = json[position];
+                if (current == '"') {
+                    value.append(new String(json, runStart, position - runStart, StandardCharsets.UTF_8));
+                    position++;
+                    return value.toString();
+                }
+                if (current != '\\') {
+                    position++;
+                    continue;
+                }
+                value.append(new String(json, runStart, position - runStart, StandardCharsets.UTF_8));
+                if (position + 1 >= json.length) {
+                    throw new MalformedJwtException("Compact JWT has an unterminated escape");
+                }
+                byte escaped = json[position + 1];
+                position += 2;
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append((char) escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > json.length) {
+                            throw new MalformedJwtException("Compact JWT has a truncated unicode escape");
+                        }
+                        value.append((char) Integer.parseInt(new String(json, position, 4, StandardCharsets.US_ASCII), 16));
+                        position += 4;
+                    }
+                    default -> throw new MalformedJwtException("Compact JWT has an invalid escape");
+                }
+                runStart = position;
+            }
+        }
+
+        private void skipString() {
+            expect('"');
+            while (position < json.length && json[position] != '"') {
+                position += json[position] == '\\' ? 2 : 1;
+            }
+            expect('"');
+        }
+
+        private void skipScalar() {
+            if (peek() == '"') {
+                skipString();
+                return;
+            }
+            int start = position;
+            while (position < json.length && json[position] != ',' && json[position] != '}'
+                    && json[position] != '{' && json[position] != '[') {
+                position++;
+            }
+            if (position == start || position >= json.length || json[position] == '{' || json[position] == '[') {
+                throw new MalformedJwtException("Compact JWT payload must be a flat object");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length && (json[position] == ' ' || json[position] == '\n'
+                    || json[position] == '\r' || json[position] == '\t')) {
+                position++;
+            }
+        }
+
+        private byte peek() {
+            if (position >= json.length) {
+                throw new MalformedJwtException("Compact JWT payload ended unexpectedly");
+            }
+            return json[position];
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw new MalformedJwtException("Compact JWT expected '" + expected + "' at " + position);
+            }
+            position++;
+        }
+
+        private static Long parseSubject(String subject) {
+            try {
+                return subject != null ? Long.valueOf(subject) : null;
+            } catch (NumberFormatException ex) {
+                throw new MalformedJwtException("Compact JWT subject is not a user id", ex);
+            }
+        }
+    }
+}
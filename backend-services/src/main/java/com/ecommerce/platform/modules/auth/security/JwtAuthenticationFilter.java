@@ -1,7 +1,8 @@
 package com.ecommerce.platform.modules.auth.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,9 +26,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtService jwtService;
+    private final AccessRevocationList revocationList;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
 
-    public JwtAuthenticationFilter(JwtService jwtService) {
+    public JwtAuthenticationFilter(JwtService jwtService, AccessRevocationList revocationList, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
+        this.revocationList = revocationList;
+        this.authenticatedTimer = authTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = authTimer(meterRegistry, "rejected");
+    }
+
+    /**
+     * Login, signup and refresh carry no identity of their own, and a client refreshing usually
+     * still sends its expired access token.
+     */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getServletPath().startsWith("/auth/");
     }
 
     @Override
@@ -36,9 +53,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
+            long started = System.nanoTime();
             try {
-                Jws<Claims> jws = jwtService.parseToken(token);
-                AuthenticatedUser user = jwtService.toAuthenticatedUser(jws.getBody());
+                JwtService.VerifiedToken verified = jwtService.verify(token);
+                AuthenticatedUser user = verified.user();
+                if (revocationList.isRevoked(user.getId(), verified.issuedAtMillis())) {
+                    throw new JwtException("Token was issued before the user's access changed");
+                }
 
                 var authentication = new UsernamePasswordAuthenticationToken(
                         user,
@@ -48,7 +69,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                authenticatedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
             } catch (Exception e) {
+                rejectedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
                 log.warn("JWT authentication failed: {}", e.getMessage());
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
                 return;
@@ -56,4 +79,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private static Timer authTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.filter")
+                .description("Time spent authenticating the bearer token of a request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -1,48 +1,91 @@
 package com.ecommerce.platform.modules.auth.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import com.ecommerce.platform.modules.users.api.UserIdentity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWTs. New tokens use the v2 compact claim layout of {@link CompactJwtCodec}
+ * unless {@code app.jwt.claims-version} is 1; v1 tokens are still accepted. Verified tokens are
+ * cached by SHA-256 hash together with the {@link AuthenticatedUser} built from their claims, so
+ * repeat requests with the same token skip the HMAC check and claim parsing. An entry never
+ * outlives its token's {@code exp}.
+ */
 @Service
 public class JwtService {
 
+    /** Full-precision issue time; {@code iat} is in whole seconds. */
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatMillis";
+
     private final SecretKey key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final CompactJwtCodec compactCodec;
+    private final int claimsVersion;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtService(@Value("${app.jwt.secret}") String secret,
-                      @Value("${app.jwt.expiration-ms}") long expirationMs) {
+                      @Value("${app.jwt.expiration-ms}") long expirationMs,
+                      @Value("${app.jwt.claims-version:2}") int claimsVersion,
+                      @Value("${app.jwt.verified-cache.max-size:50000}") long verifiedCacheMaxSize,
+                      MeterRegistry meterRegistry) {
         if (secret == null || secret.isBlank() || secret.length() < 32) {
             throw new IllegalStateException("app.jwt.secret must be set and at least 32 characters long");
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.compactCodec = new CompactJwtCodec(key);
+        this.claimsVersion = claimsVersion;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens");
     }
 
     public String generateToken(UserIdentity user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
+        if (claimsVersion >= CompactJwtCodec.VERSION) {
+            String compact = compactCodec.encode(user, now.getTime(), expiry.getTime());
+            if (compact != null) {
+                return compact;
+            }
+        }
+
         return Jwts.builder()
                 .setSubject(String.valueOf(user.id()))
                 .claim("email", user.email())
                 .claim("displayName", user.displayName())
                 .claim("roles", user.roles())
                 .claim("userDiscountPercentage", user.userDiscountPercentage())
-                .claim("userDiscountStartDate", user.userDiscountStartDate())
-                .claim("userDiscountEndDate", user.userDiscountEndDate())
+                .claim("userDiscountStartDate", isoDate(user.userDiscountStartDate()))
+                .claim("userDiscountEndDate", isoDate(user.userDiscountEndDate()))
                 .claim("enabled", user.enabled())
                 .claim("accountNonLocked", user.accountNonLocked())
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -50,7 +93,41 @@ public class JwtService {
     }
 
     public Jws<Claims> parseToken(String token) throws JwtException {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
+    }
+
+    public AuthenticatedUser authenticate(String token) throws JwtException {
+        return verify(token).user();
+    }
+
+    /**
+     * Verifies the token and returns its user together with the issue and expiry times, which
+     * callers need to check the token against {@link AccessRevocationList}.
+     */
+    public VerifiedToken verify(String token) throws JwtException {
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        if (compactCodec.handles(token)) {
+            CompactJwtCodec.Decoded decoded = compactCodec.decode(token, System.currentTimeMillis());
+            VerifiedToken verified = new VerifiedToken(decoded.user(), decoded.issuedAtMillis(), decoded.expiresAtMillis());
+            verifiedTokens.put(cacheKey, verified);
+            return verified;
+        }
+
+        Claims claims = parseToken(token).getBody();
+        VerifiedToken verified = new VerifiedToken(
+                toAuthenticatedUser(claims),
+                issuedAtMillis(claims),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE
+        );
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(cacheKey, verified);
+        }
+        return verified;
     }
 
     public AuthenticatedUser toAuthenticatedUser(Claims claims) {
@@ -67,6 +144,13 @@ public class JwtService {
         );
     }
 
+    private long issuedAtMillis(Claims claims) {
+        if (claims.get(ISSUED_AT_MILLIS_CLAIM) instanceof Number millis) {
+            return millis.longValue();
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
     private List<String> readRoles(Claims claims) {
         Object rolesClaim = claims.get("roles");
         if (rolesClaim instanceof List<?> rawRoles) {
@@ -116,4 +200,38 @@ public class JwtService {
         }
         return Boolean.parseBoolean(String.valueOf(value));
     }
+
+    private String isoDate(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record VerifiedToken(AuthenticatedUser user, long issuedAtMillis, long expiresAtMillis) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, value.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
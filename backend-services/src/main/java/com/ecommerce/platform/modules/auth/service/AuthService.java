@@ -9,6 +9,7 @@ import com.ecommerce.platform.modules.users.api.UserIdentity;
 import com.ecommerce.platform.modules.users.api.UserRegistrationRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -16,16 +17,17 @@ public class AuthService {
 
     private final JwtService jwtService;
     private final UserAccountApi userAccountApi;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthService(JwtService jwtService, UserAccountApi userAccountApi) {
+    public AuthService(JwtService jwtService, UserAccountApi userAccountApi, RefreshTokenService refreshTokenService) {
         this.jwtService = jwtService;
         this.userAccountApi = userAccountApi;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public AuthResponse signup(SignupRequest req) {
         UserIdentity user = userAccountApi.registerUser(toRegistrationRequest(req));
-        String token = jwtService.generateToken(user);
-        return new AuthResponse(token, mapToDto(user));
+        return issueTokens(user);
     }
 
     public AuthResponse login(String email, String password) {
@@ -37,8 +39,26 @@ public class AuthService {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
+        return issueTokens(user);
+    }
+
+    /**
+     * Rotates the refresh token and issues an access token from the current user row, which is
+     * how role, discount and lock changes reach the client.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public AuthResponse refresh(String refreshToken) {
+        Long userId = refreshTokenService.consume(refreshToken);
+        UserIdentity user = userAccountApi.loadByIdForRefresh(userId);
+
+        enforceAccountActive(user);
+
+        return issueTokens(user);
+    }
+
+    private AuthResponse issueTokens(UserIdentity user) {
         String token = jwtService.generateToken(user);
-        return new AuthResponse(token, mapToDto(user));
+        return new AuthResponse(token, refreshTokenService.issue(user.id()), mapToDto(user));
     }
 
     private void enforceAccountActive(UserIdentity user) {
@@ -0,0 +1,77 @@
+package com.ecommerce.platform.modules.auth.service;
+
+import com.ecommerce.platform.modules.auth.model.RefreshToken;
+import com.ecommerce.platform.modules.auth.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Opaque, single-use refresh tokens. Only the SHA-256 hash of a token is stored; presenting a
+ * token rotates it. A token presented again after rotation means a copy is in someone else's
+ * hands, so every live token of that user is revoked and the user has to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-expiration-ms:1209600000}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = Duration.ofMillis(refreshExpirationMs);
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(userId, hash(rawToken), Instant.now().plus(lifetime)));
+        return rawToken;
+    }
+
+    /**
+     * Revokes the presented token and returns its user id. Rejections keep their writes, so a
+     * detected reuse stays revoked even though the caller gets an error.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public Long consume(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+
+        Instant now = Instant.now();
+        if (refreshTokenRepository.revokeIfActive(token.getId(), now) == 0) {
+            refreshTokenRepository.revokeAllForUser(token.getUserId(), now);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        if (!token.getExpiresAt().isAfter(now)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired");
+        }
+        return token.getUserId();
+    }
+
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.platform.modules.cart.controller;
 import jakarta.validation.Valid;
 import com.ecommerce.platform.modules.cart.dto.CartResponse;
 import com.ecommerce.platform.modules.cart.dto.request.AddCartItemRequest;
+import com.ecommerce.platform.modules.cart.dto.request.CartBatchRequest;
 import com.ecommerce.platform.modules.cart.dto.request.UpdateCartItemDiscountRequest;
 import com.ecommerce.platform.modules.cart.dto.request.UpdateCartItemQuantityRequest;
 import com.ecommerce.platform.modules.cart.service.CartService;
@@ -65,6 +66,12 @@ public class CartController {
         return ResponseEntity.ok(cartService.removeItem(user, productId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<CartResponse> applyBatch(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @Valid @RequestBody CartBatchRequest request) {
+        return ResponseEntity.ok(cartService.applyBatch(user, request.operations()));
+    }
+
     @DeleteMapping
     public ResponseEntity<CartResponse> clear(@AuthenticationPrincipal AuthenticatedUser user) {
         return ResponseEntity.ok(cartService.clear(user));
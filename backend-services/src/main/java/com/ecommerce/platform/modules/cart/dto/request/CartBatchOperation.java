@@ -0,0 +1,18 @@
+package com.ecommerce.platform.modules.cart.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record CartBatchOperation(
+        @NotNull Type type,
+        @NotNull Long productId,
+        Integer quantity,
+        @Min(0) Long discountId
+) {
+    public enum Type {
+        ADD,
+        SET_QUANTITY,
+        REMOVE,
+        SET_DISCOUNT
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.platform.modules.cart.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CartBatchRequest(
+        @NotEmpty @Size(max = 100) List<@Valid CartBatchOperation> operations
+) {
+}
@@ -18,6 +18,9 @@ public class Cart {
     @Column(name = "user_id", nullable = false, unique = true)
     private Long userId;
 
+    @Column(name = "flushed_version", nullable = false)
+    private long flushedVersion;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
 
@@ -44,6 +47,14 @@ public class Cart {
         this.userId = userId;
     }
 
+    public long getFlushedVersion() {
+        return flushedVersion;
+    }
+
+    public void setFlushedVersion(long flushedVersion) {
+        this.flushedVersion = flushedVersion;
+    }
+
     public List<CartItem> getItems() {
         return items;
     }
@@ -1,27 +1,52 @@
 package com.ecommerce.platform.modules.cart.repository;
 
 import com.ecommerce.platform.modules.cart.model.CartItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
-import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    @Query("select ci from CartItem ci where ci.cart.id = :cartId and ci.productId = :productId")
-    Optional<CartItem> findByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
+    @Modifying
+    @Query("""
+            update CartItem ci
+            set ci.quantity = :quantity, ci.selectedDiscountId = :discountId, ci.version = ci.version + 1
+            where ci.productId = :productId and ci.cart.id in (select c.id from Cart c where c.userId = :userId)
+            """)
+    int updateLine(@Param("userId") Long userId,
+                   @Param("productId") Long productId,
+                   @Param("quantity") int quantity,
+                   @Param("discountId") Long discountId);
 
     @Modifying
-    @Query("delete from CartItem ci where ci.cart.id = :cartId and ci.productId = :productId")
-    void deleteByCartIdAndProductId(@Param("cartId") Long cartId, @Param("productId") Long productId);
+    @Query("delete from CartItem ci where ci.productId = :productId and ci.cart.id in (select c.id from Cart c where c.userId = :userId)")
+    int deleteByUserIdAndProductId(@Param("userId") Long userId, @Param("productId") Long productId);
 
     @Modifying
     @Query("delete from CartItem ci where ci.cart.id = :cartId")
     void deleteByCartId(@Param("cartId") Long cartId);
 
+    @Query("select ci from CartItem ci where ci.cart.id = :cartId order by ci.id")
+    List<CartItem> findByCartIdOrderById(@Param("cartId") Long cartId);
+
     @Query("select ci from CartItem ci join ci.cart c where c.userId = :userId order by ci.id")
     List<CartItem> findByUserIdOrderById(@Param("userId") Long userId);
+
+    @Query("select ci.productId from CartItem ci where ci.cart.id = :cartId")
+    List<Long> findProductIdsByCartId(@Param("cartId") Long cartId);
+
+    @Query("select distinct c.userId from CartItem ci join ci.cart c where ci.productId = :productId")
+    List<Long> findUserIdsByProductId(@Param("productId") Long productId);
+
+    @Query("""
+            select new com.ecommerce.platform.modules.cart.repository.CartProductRow(ci.id, ci.productId, c.userId)
+            from CartItem ci join ci.cart c
+            where ci.id > :afterId
+            order by ci.id
+            """)
+    List<CartProductRow> findCartProductRowsAfter(@Param("afterId") Long afterId, Limit limit);
 }
 
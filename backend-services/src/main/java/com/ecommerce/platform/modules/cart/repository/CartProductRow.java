@@ -0,0 +1,8 @@
+package com.ecommerce.platform.modules.cart.repository;
+
+public record CartProductRow(
+        Long itemId,
+        Long productId,
+        Long userId
+) {
+}
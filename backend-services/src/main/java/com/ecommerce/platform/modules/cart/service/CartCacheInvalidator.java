@@ -0,0 +1,42 @@
+package com.ecommerce.platform.modules.cart.service;
+
+import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.UserCartKeys;
+import com.ecommerce.platform.modules.catalog.api.ProductChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CartCacheInvalidator {
+
+    private final CartProductIndex cartProductIndex;
+    private final CacheManager cacheManager;
+    private final UserCartKeys userCartKeys;
+
+    public CartCacheInvalidator(CartProductIndex cartProductIndex, CacheManager cacheManager, UserCartKeys userCartKeys) {
+        this.cartProductIndex = cartProductIndex;
+        this.cacheManager = cacheManager;
+        this.userCartKeys = userCartKeys;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+
+        Cache userCarts = cacheManager.getCache(CacheNames.USER_CART);
+        if (userCarts != null) {
+            // Runs inside the catalog transaction, so the transaction-aware cache defers these until commit.
+            for (Long userId : cartProductIndex.findUserIds(event.productId())) {
+                userCarts.evict(userCartKeys.key(userId));
+            }
+        }
+
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED) {
+            cartProductIndex.dropProductAfterCommit(event.productId());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.platform.modules.cart.service;
+
+/**
+ * Persisted state of one cart line, independent of where the live cart is stored.
+ */
+public record CartLine(Long productId, int quantity, Long selectedDiscountId) {
+
+    public CartLine withQuantity(int quantity) {
+        return new CartLine(productId, quantity, selectedDiscountId);
+    }
+
+    public CartLine withSelectedDiscountId(Long selectedDiscountId) {
+        return new CartLine(productId, quantity, selectedDiscountId);
+    }
+}
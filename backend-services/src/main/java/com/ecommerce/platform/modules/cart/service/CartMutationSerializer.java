@@ -0,0 +1,132 @@
+package com.ecommerce.platform.modules.cart.service;
+
+import com.ecommerce.platform.config.RedisLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs cart mutations for one user one at a time. A caller first takes a Redis lease on the user,
+ * so callers on every node wait on the same key, then a striped local lock, which is held only
+ * while the mutation runs and so never makes other users on the stripe wait for Redis. The lease
+ * token is exposed to the mutation's thread as a fencing token: {@link RedisCartStore} writes
+ * only while the lease still holds it, so a mutation that outlives its lease fails with 409
+ * instead of writing alongside the next holder. If Redis is unavailable the mutation proceeds
+ * under the local lock only, with the {@code @Version} columns as the backstop.
+ */
+@Component
+public class CartMutationSerializer {
+
+    private static final Logger log = LoggerFactory.getLogger(CartMutationSerializer.class);
+    private static final String LEASE_KEY_PREFIX = "cart:mutation-lease:";
+    private static final ThreadLocal<HeldLease> HELD_LEASE = new ThreadLocal<>();
+
+    private final ReentrantLock[] stripes;
+    private final RedisLease redisLease;
+    private final boolean leaseEnabled;
+    private final Duration leaseTime;
+    private final Duration waitTimeout;
+
+    public CartMutationSerializer(RedisLease redisLease,
+                                  @Value("${app.cart.mutation.lock-stripes:1024}") int lockStripes,
+                                  @Value("${app.cart.mutation.lease.enabled:true}") boolean leaseEnabled,
+                                  @Value("${app.cart.mutation.lease-ms:15000}") long leaseMillis,
+                                  @Value("${app.cart.mutation.wait-timeout-ms:2000}") long waitTimeoutMillis) {
+        this.stripes = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.redisLease = redisLease;
+        this.leaseEnabled = leaseEnabled;
+        this.leaseTime = Duration.ofMillis(leaseMillis);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMillis);
+    }
+
+    public <T> T execute(Long userId, Supplier<T> mutation) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        String leaseKey = leaseKey(userId);
+        String token = acquireLease(leaseKey, waitTimeout);
+        try {
+            ReentrantLock lock = stripeFor(userId);
+            try {
+                if (!lock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    throw busy();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw busy();
+            }
+            HeldLease outer = HELD_LEASE.get();
+            HELD_LEASE.set(token != null ? new HeldLease(userId, token) : null);
+            try {
+                return mutation.get();
+            } finally {
+                HELD_LEASE.set(outer);
+                lock.unlock();
+            }
+        } finally {
+            releaseLease(leaseKey, token);
+        }
+    }
+
+    static String leaseKey(Long userId) {
+        return LEASE_KEY_PREFIX + userId;
+    }
+
+    /**
+     * Token of the lease the current thread's mutation holds on the user, or null when it runs
+     * without one.
+     */
+    static String currentLeaseToken(Long userId) {
+        HeldLease held = HELD_LEASE.get();
+        return held != null && held.userId().equals(userId) ? held.token() : null;
+    }
+
+    private String acquireLease(String leaseKey, Duration wait) {
+        if (!leaseEnabled) {
+            return null;
+        }
+        String token;
+        try {
+            token = redisLease.tryAcquire(leaseKey, leaseTime, wait);
+        } catch (RuntimeException ex) {
+            log.warn("Cart mutation lease unavailable for key={}, using the local lock only: {}", leaseKey, ex.getMessage());
+            return null;
+        }
+        if (token == null) {
+            throw busy();
+        }
+        return token;
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        if (token == null) {
+            return;
+        }
+        try {
+            redisLease.release(leaseKey, token);
+        } catch (RuntimeException ex) {
+            log.warn("Cart mutation lease release failed for key={}, it will expire: {}", leaseKey, ex.getMessage());
+        }
+    }
+
+    private ReentrantLock stripeFor(Long userId) {
+        int hash = Long.hashCode(userId) * 0x9E3779B9;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Cart is being updated. Please retry.");
+    }
+
+    private record HeldLease(Long userId, String token) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.platform.modules.cart.service;
+
+import com.ecommerce.platform.config.RedisLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-resident reverse index of product id to the ids of users whose cart holds that product,
+ * so catalog changes can evict only the affected {@code userCart} entries. Additions are written
+ * eagerly (an extra entry only costs a spare eviction); removals wait for commit so a rolled back
+ * delete never hides a cart that still references the product. Lookups trust the sets only while
+ * the ready marker exists; an addition that fails deletes the marker, or, when Redis cannot be
+ * reached at all, keeps this node on the fallback until it can. Without the marker, for example
+ * after a Redis flush, lookups ask the {@link CartStore} until a scheduled rebuild from the same
+ * store sets it again.
+ */
+@Component
+public class CartProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CartProductIndex.class);
+    private static final String KEY_PREFIX = "cart:product-index:";
+    private static final String READY_KEY = KEY_PREFIX + "ready";
+    private static final String REBUILD_LEASE_KEY = KEY_PREFIX + "rebuild";
+    private static final Duration REBUILD_LEASE_TIME = Duration.ofMinutes(10);
+    private static final int REBUILD_BATCH_SIZE = 1_000;
+
+    // Sets the ready marker only while the rebuild still holds its lease; a failed addition
+    // deletes both, so a rebuild that was already past that cart cannot mark the index ready.
+    private static final RedisScript<Long> MARK_READY = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[2]) ~= ARGV[1] then return 0 end
+            redis.call('set', KEYS[1], '1')
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartStore cartStore;
+    private final RedisLease redisLease;
+    private final AtomicBoolean readyClearPending = new AtomicBoolean();
+
+    public CartProductIndex(StringRedisTemplate redisTemplate, CartStore cartStore, RedisLease redisLease) {
+        this.redisTemplate = redisTemplate;
+        this.cartStore = cartStore;
+        this.redisLease = redisLease;
+    }
+
+    public void add(Long productId, Long userId) {
+        try {
+            redisTemplate.opsForSet().add(key(productId), userId.toString());
+        } catch (RuntimeException ex) {
+            log.warn("Cart product index add failed for productId={} userId={}, lookups fall back until a rebuild: {}",
+                    productId, userId, ex.getMessage());
+            readyClearPending.set(true);
+            clearReadyIfPending();
+        }
+    }
+
+    public void removeAfterCommit(Long userId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Long> removed = List.copyOf(productIds);
+        runAfterCommit(() -> {
+            try {
+                for (Long productId : removed) {
+                    redisTemplate.opsForSet().remove(key(productId), userId.toString());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Cart product index remove failed for userId={}: {}", userId, ex.getMessage());
+            }
+        });
+    }
+
+    public void dropProductAfterCommit(Long productId) {
+        runAfterCommit(() -> {
+            try {
+                redisTemplate.delete(key(productId));
+            } catch (RuntimeException ex) {
+                log.warn("Cart product index drop failed for productId={}: {}", productId, ex.getMessage());
+            }
+        });
+    }
+
+    public Set<Long> findUserIds(Long productId) {
+        try {
+            if (!readyClearPending.get() && Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY))) {
+                Set<String> members = redisTemplate.opsForSet().members(key(productId));
+                if (members != null) {
+                    return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Cart product index lookup failed for productId={}, using the cart store: {}", productId, ex.getMessage());
+        }
+        return cartStore.findUserIdsWithProduct(productId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.cart.product-index.check-interval-ms:60000}",
+            fixedDelayString = "${app.cart.product-index.check-interval-ms:60000}"
+    )
+    public void rebuildIfMissing() {
+        try {
+            if (!clearReadyIfPending() || Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY))) {
+                return;
+            }
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Cart product index rebuild failed, lookups keep using the cart store: {}", ex.getMessage());
+        }
+    }
+
+    void rebuild() {
+        String token = redisLease.tryAcquire(REBUILD_LEASE_KEY, REBUILD_LEASE_TIME, Duration.ZERO);
+        if (token == null) {
+            return;
+        }
+        try {
+            AtomicLong indexed = new AtomicLong();
+            cartStore.forEachCartProduct(REBUILD_BATCH_SIZE, usersByProduct -> usersByProduct.forEach((productId, userIds) -> {
+                redisTemplate.opsForSet().add(key(productId), userIds.stream().map(String::valueOf).toArray(String[]::new));
+                indexed.addAndGet(userIds.size());
+            }));
+            Long ready = redisTemplate.execute(MARK_READY, List.of(READY_KEY, REBUILD_LEASE_KEY), token);
+            if (ready != null && ready == 1) {
+                log.info("Cart product index rebuilt from {} cart lines", indexed.get());
+            } else {
+                log.warn("Cart product index changed during the rebuild, it will be rebuilt again");
+            }
+        } finally {
+            redisLease.release(REBUILD_LEASE_KEY, token);
+        }
+    }
+
+    /**
+     * Deletes the ready marker if an addition failed since it was last deleted. Returns false
+     * while that still cannot be done, so the caller keeps treating the index as not ready.
+     */
+    private boolean clearReadyIfPending() {
+        if (!readyClearPending.getAndSet(false)) {
+            return true;
+        }
+        try {
+            redisTemplate.delete(List.of(READY_KEY, REBUILD_LEASE_KEY));
+            return true;
+        } catch (RuntimeException ex) {
+            readyClearPending.set(true);
+            log.warn("Cart product index ready marker not cleared, lookups on this node use the cart store: {}",
+                    ex.getMessage());
+            return false;
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+}
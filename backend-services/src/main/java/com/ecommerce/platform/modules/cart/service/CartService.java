@@ -1,100 +1,214 @@
 package com.ecommerce.platform.modules.cart.service;
 
 import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.UserCartKeys;
 import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
 import com.ecommerce.platform.modules.cart.dto.CartItemDiscountDto;
 import com.ecommerce.platform.modules.cart.dto.CartItemDto;
-import com.ecommerce.platform.modules.cart.dto.CartItemView;
 import com.ecommerce.platform.modules.cart.dto.CartResponse;
-import com.ecommerce.platform.modules.cart.model.Cart;
-import com.ecommerce.platform.modules.cart.model.CartItem;
-import com.ecommerce.platform.modules.cart.repository.CartItemRepository;
-import com.ecommerce.platform.modules.cart.repository.CartRepository;
+import com.ecommerce.platform.modules.cart.dto.request.CartBatchOperation;
 import com.ecommerce.platform.modules.catalog.api.CatalogApi;
 import com.ecommerce.platform.modules.catalog.api.CatalogCartProduct;
 import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+import com.ecommerce.platform.modules.pricing.api.PricedLine;
+import com.ecommerce.platform.modules.pricing.api.PricingEngine;
+import com.ecommerce.platform.modules.pricing.api.PricingLine;
 import jakarta.persistence.OptimisticLockException;
-import org.springframework.cache.annotation.CacheEvict;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 public class CartService {
 
-    private static final BigDecimal EMPLOYEE_DISCOUNT_PERCENTAGE = BigDecimal.valueOf(15);
-    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
-    private static final int MAX_MUTATION_ATTEMPTS = 2;
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final CatalogApi catalogApi;
+    private final PricingEngine pricingEngine;
+    private final CartProductIndex cartProductIndex;
+    private final CartMutationSerializer cartMutationSerializer;
+    private final CacheManager cacheManager;
+    private final UserCartKeys userCartKeys;
     private final TransactionTemplate transactionTemplate;
 
-    public CartService(CartRepository cartRepository,
-                       CartItemRepository cartItemRepository,
+    public CartService(CartStore cartStore,
                        CatalogApi catalogApi,
+                       PricingEngine pricingEngine,
+                       CartProductIndex cartProductIndex,
+                       CartMutationSerializer cartMutationSerializer,
+                       CacheManager cacheManager,
+                       UserCartKeys userCartKeys,
                        PlatformTransactionManager transactionManager) {
-        this.cartRepository = cartRepository;
-        this.cartItemRepository = cartItemRepository;
+        this.cartStore = cartStore;
         this.catalogApi = catalogApi;
+        this.pricingEngine = pricingEngine;
+        this.cartProductIndex = cartProductIndex;
+        this.cartMutationSerializer = cartMutationSerializer;
+        this.cacheManager = cacheManager;
+        this.userCartKeys = userCartKeys;
         this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A clear deferred to after a caller's commit must not join that finished transaction.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = CacheNames.USER_CART, key = "#user.id")
+    @Cacheable(cacheNames = CacheNames.USER_CART, key = "@userCartKeys.key(#user.id)", sync = true)
     public CartResponse getCart(AuthenticatedUser user) {
-        return buildCartResponse(user);
+        return buildCartResponse(user, cartStore.findLines(user.getId()));
     }
 
-    @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#user.id")
     public CartResponse addOrIncrement(AuthenticatedUser user, Long productId, int quantity, Long discountId) {
-        return withMutationRetry(() -> addOrIncrementInTransaction(user, productId, quantity, discountId));
+        return withMutation(user.getId(), () -> addOrIncrementInTransaction(user, productId, quantity, discountId));
     }
 
-    @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#user.id")
     public CartResponse setQuantity(AuthenticatedUser user, Long productId, int quantity) {
-        return withMutationRetry(() -> setQuantityInTransaction(user, productId, quantity));
+        return withMutation(user.getId(), () -> setQuantityInTransaction(user, productId, quantity));
+    }
+
+    public CartResponse applyBatch(AuthenticatedUser user, List<CartBatchOperation> operations) {
+        return withMutation(user.getId(), () -> applyBatchInTransaction(user, operations));
     }
 
-    @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#user.id")
     public CartResponse removeItem(AuthenticatedUser user, Long productId) {
-        return withMutationRetry(() -> removeItemInTransaction(user, productId));
+        return withMutation(user.getId(), () -> removeItemInTransaction(user, productId));
     }
 
-    @Transactional
-    @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#user.id")
     public CartResponse clear(AuthenticatedUser user) {
-        clearByUserId(user.getId());
-        return new CartResponse(List.of());
+        return withMutation(user.getId(), () -> clearInTransaction(user.getId()));
     }
 
-    @Transactional
-    @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#userId")
+    /**
+     * Clears the cart like {@link #clear}. Called inside a transaction, as checkout does when a
+     * payment succeeds, the clear waits for that transaction to commit; a failure then is logged
+     * and leaves the paid order untouched.
+     */
     public void clearByUserId(Long userId) {
-        Cart cart = cartRepository.findByUserIdForUpdate(userId).orElse(null);
-        if (cart != null) {
-            cartItemRepository.deleteByCartId(cart.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            withMutation(userId, () -> clearInTransaction(userId));
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    withMutation(userId, () -> clearInTransaction(userId));
+                } catch (RuntimeException ex) {
+                    log.warn("Cart clear after commit failed for userId={}: {}", userId, ex.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Makes the user's cart durable in MySQL before checkout snapshots it; a no-op unless the
+     * write-behind store is enabled.
+     */
+    @Transactional
+    public void flushPendingWrites(Long userId) {
+        cartStore.flush(userId);
     }
 
-    @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#user.id")
     public CartResponse updateItemDiscount(AuthenticatedUser user, Long productId, Long discountId) {
-        return withMutationRetry(() -> updateItemDiscountInTransaction(user, productId, discountId));
+        return withMutation(user.getId(), () -> updateItemDiscountInTransaction(user, productId, discountId));
+    }
+
+    /**
+     * Applies the operations in order against one in-memory copy of the cart, using a single
+     * catalog lookup for every product involved, then writes only the lines that changed.
+     */
+    @Transactional
+    protected CartResponse applyBatchInTransaction(AuthenticatedUser user, List<CartBatchOperation> operations) {
+        List<CartLine> initialLines = cartStore.loadForMutation(user.getId());
+        Map<Long, CartLine> before = new LinkedHashMap<>();
+        initialLines.forEach(line -> before.put(line.productId(), line));
+        Map<Long, CartLine> lines = new LinkedHashMap<>(before);
+
+        List<Long> productIds = Stream.concat(
+                initialLines.stream().map(CartLine::productId),
+                operations.stream().map(CartBatchOperation::productId)
+        ).distinct().toList();
+        Map<Long, CatalogCartProduct> products = catalogApi.getProductsForCart(productIds);
+
+        for (CartBatchOperation operation : operations) {
+            Long productId = operation.productId();
+            CartLine line = lines.get(productId);
+            switch (operation.type()) {
+                case ADD -> {
+                    if (operation.quantity() == null || operation.quantity() <= 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be > 0");
+                    }
+                    requireProduct(products, productId);
+                    if (line == null) {
+                        lines.put(productId, new CartLine(productId, operation.quantity(),
+                                selectDiscountId(productId, operation.discountId(), true)));
+                    } else {
+                        CartLine updated = line.withQuantity(line.quantity() + operation.quantity());
+                        if (operation.discountId() != null) {
+                            updated = updated.withSelectedDiscountId(selectDiscountId(productId, operation.discountId(), false));
+                        }
+                        lines.put(productId, updated);
+                    }
+                }
+                case SET_QUANTITY -> {
+                    if (operation.quantity() == null || operation.quantity() < 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be >= 0");
+                    }
+                    if (line == null) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not in cart");
+                    }
+                    if (operation.quantity() == 0) {
+                        lines.remove(productId);
+                    } else {
+                        lines.put(productId, line.withQuantity(operation.quantity()));
+                    }
+                }
+                case REMOVE -> lines.remove(productId);
+                case SET_DISCOUNT -> {
+                    requireProduct(products, productId);
+                    if (line == null) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not in cart");
+                    }
+                    lines.put(productId, line.withSelectedDiscountId(selectDiscountId(productId, operation.discountId(), false)));
+                }
+            }
+        }
+
+        for (CartLine line : lines.values()) {
+            if (!line.equals(before.get(line.productId()))) {
+                cartStore.saveLine(user.getId(), before.get(line.productId()), line);
+                if (!before.containsKey(line.productId())) {
+                    cartProductIndex.add(line.productId(), user.getId());
+                }
+            }
+        }
+        List<Long> removed = before.keySet().stream().filter(productId -> !lines.containsKey(productId)).toList();
+        removed.forEach(productId -> cartStore.removeLine(user.getId(), productId));
+        cartProductIndex.removeAfterCommit(user.getId(), removed);
+
+        return assembleCartResponse(user, List.copyOf(lines.values()), products);
     }
 
     @Transactional
@@ -103,223 +217,220 @@ public class CartService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be > 0");
         }
 
-        Cart cart = getOrCreateCartForMutation(user.getId());
-        catalogApi.requireProductExists(productId);
-
-        CartItem item = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId).orElse(null);
-        if (item == null) {
-            item = new CartItem();
-            item.setCart(cart);
-            item.setProductId(productId);
-            item.setQuantity(quantity);
-            item.setSelectedDiscountId(resolveSelectedDiscountId(productId, discountId, true));
-        } else {
-            item.setQuantity(item.getQuantity() + quantity);
-            if (discountId != null) {
-                item.setSelectedDiscountId(resolveSelectedDiscountId(productId, discountId, false));
+        List<CartLine> lines = cartStore.loadForMutation(user.getId());
+        CartResponse previous = cachedCart(user, lines);
+        CartLine line = findLine(lines, productId);
+        if (line == null) {
+            CatalogCartProduct product = catalogApi.getProductForCart(productId);
+            line = new CartLine(productId, quantity, selectDiscountId(productId, discountId, true));
+            cartStore.saveLine(user.getId(), null, line);
+            lines.add(line);
+            cartProductIndex.add(productId, user.getId());
+            if (previous == null) {
+                return buildCartResponse(user, lines);
             }
+            String primaryImage = catalogApi.getPrimaryImagesByProductIds(List.of(productId)).get(productId);
+            return patch(previous, user, lines, new LineDraft(product.id(), product.name(), product.price(), primaryImage));
         }
 
-        cartItemRepository.saveAndFlush(item);
-        return buildCartResponse(user);
+        CartLine updated = line.withQuantity(line.quantity() + quantity);
+        if (discountId != null) {
+            updated = updated.withSelectedDiscountId(selectDiscountId(productId, discountId, false));
+        }
+        cartStore.saveLine(user.getId(), line, updated);
+        replaceLine(lines, updated);
+        return previous != null ? patch(previous, user, lines, null) : buildCartResponse(user, lines);
     }
 
     @Transactional
     protected CartResponse setQuantityInTransaction(AuthenticatedUser user, Long productId, int quantity) {
-        Cart cart = getOrCreateCartForMutation(user.getId());
-        CartItem item = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not in cart"));
+        List<CartLine> lines = cartStore.loadForMutation(user.getId());
+        CartResponse previous = cachedCart(user, lines);
+        CartLine line = findLine(lines, productId);
+        if (line == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not in cart");
+        }
 
         if (quantity <= 0) {
-            cartItemRepository.delete(item);
+            cartStore.removeLine(user.getId(), productId);
+            lines.remove(line);
+            cartProductIndex.removeAfterCommit(user.getId(), List.of(productId));
         } else {
-            item.setQuantity(quantity);
-            cartItemRepository.saveAndFlush(item);
+            CartLine updated = line.withQuantity(quantity);
+            cartStore.saveLine(user.getId(), line, updated);
+            replaceLine(lines, updated);
         }
-
-        return buildCartResponse(user);
+        return previous != null ? patch(previous, user, lines, null) : buildCartResponse(user, lines);
     }
 
     @Transactional
     protected CartResponse removeItemInTransaction(AuthenticatedUser user, Long productId) {
-        Cart cart = getOrCreateCartForMutation(user.getId());
-        cartItemRepository.deleteByCartIdAndProductId(cart.getId(), productId);
-        return buildCartResponse(user);
+        List<CartLine> lines = cartStore.loadForMutation(user.getId());
+        CartResponse previous = cachedCart(user, lines);
+        CartLine line = findLine(lines, productId);
+        if (line != null) {
+            cartStore.removeLine(user.getId(), productId);
+            lines.remove(line);
+            cartProductIndex.removeAfterCommit(user.getId(), List.of(productId));
+        }
+        return previous != null ? patch(previous, user, lines, null) : buildCartResponse(user, lines);
     }
 
     @Transactional
-    protected CartResponse updateItemDiscountInTransaction(AuthenticatedUser user, Long productId, Long discountId) {
-        Cart cart = getOrCreateCartForMutation(user.getId());
-        catalogApi.requireProductExists(productId);
-        CartItem item = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not in cart"));
-
-        item.setSelectedDiscountId(resolveSelectedDiscountId(productId, discountId, false));
-        cartItemRepository.saveAndFlush(item);
-        return buildCartResponse(user);
+    protected CartResponse clearInTransaction(Long userId) {
+        cartProductIndex.removeAfterCommit(userId, cartStore.clear(userId));
+        return new CartResponse(List.of());
     }
 
-    private Cart getOrCreateCartForMutation(Long userId) {
-        return cartRepository.findByUserIdForUpdate(userId).orElseGet(() -> createCart(userId));
+    @Transactional
+    protected CartResponse updateItemDiscountInTransaction(AuthenticatedUser user, Long productId, Long discountId) {
+        List<CartLine> lines = cartStore.loadForMutation(user.getId());
+        CartResponse previous = cachedCart(user, lines);
+        CartLine line = findLine(lines, productId);
+        if (line == null) {
+            catalogApi.requireProductExists(productId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not in cart");
+        }
+
+        CartLine updated = line.withSelectedDiscountId(selectDiscountId(productId, discountId, false));
+        cartStore.saveLine(user.getId(), line, updated);
+        replaceLine(lines, updated);
+        return previous != null ? patch(previous, user, lines, null) : buildCartResponse(user, lines);
     }
 
-    private Cart createCart(Long userId) {
+    /**
+     * Returns the cached cart when it still matches the cart rows read under the cart lock (same
+     * products in the same order, same quantities and selected discounts), otherwise null. A put
+     * from an earlier mutation can land after this one reads the cache, so the cached value is
+     * never trusted without that check.
+     */
+    private CartResponse cachedCart(AuthenticatedUser user, List<CartLine> lines) {
+        CartResponse cached;
         try {
-            Cart cart = new Cart();
-            cart.setUserId(userId);
-            return cartRepository.saveAndFlush(cart);
-        } catch (DataIntegrityViolationException ex) {
-            return cartRepository.findByUserIdForUpdate(userId).orElseThrow(() -> ex);
+            Cache cache = cacheManager.getCache(CacheNames.USER_CART);
+            cached = cache != null ? cache.get(userCartKeys.key(user.getId()), CartResponse.class) : null;
+        } catch (RuntimeException ex) {
+            log.warn("Cart cache read failed for userId={}: {}", user.getId(), ex.getMessage());
+            return null;
         }
-    }
-
-    private CartResponse buildCartResponse(AuthenticatedUser user) {
-        List<CartItem> cartItems = cartItemRepository.findByUserIdOrderById(user.getId());
-        List<Long> productIds = cartItems.stream().map(CartItem::getProductId).distinct().toList();
-        Map<Long, CatalogCartProduct> products = catalogApi.getProductsForCart(productIds);
-        Map<Long, CatalogDiscount> discounts = catalogApi.getDiscountsById(
-                cartItems.stream()
-                        .map(CartItem::getSelectedDiscountId)
-                        .filter(Objects::nonNull)
-                        .distinct()
-                        .toList()
-        );
-
-        List<CartItemView> items = cartItems.stream()
-                .map(item -> toCartItemView(item, products.get(item.getProductId()), discounts.get(item.getSelectedDiscountId())))
-                .filter(Objects::nonNull)
-                .toList();
-
-        if (items.isEmpty()) {
-            return new CartResponse(List.of());
+        if (cached == null || cached.items().size() != lines.size()) {
+            return null;
         }
-
-        Map<Long, String> primaryImages = new LinkedHashMap<>(catalogApi.getPrimaryImagesByProductIds(
-                items.stream().map(CartItemView::productId).distinct().toList()
-        ));
-
-        List<CartItemDto> itemDtos = items.stream()
-                .map(item -> toCartItemDto(item, primaryImages.get(item.productId()), user))
-                .toList();
-        return new CartResponse(itemDtos);
+        for (int i = 0; i < lines.size(); i++) {
+            CartLine line = lines.get(i);
+            CartItemDto cachedLine = cached.items().get(i);
+            Long cachedDiscountId = cachedLine.productDiscount() != null ? cachedLine.productDiscount().id() : null;
+            if (!line.productId().equals(cachedLine.id())
+                    || line.quantity() != cachedLine.quantity()
+                    || !Objects.equals(line.selectedDiscountId(), cachedDiscountId)) {
+                return null;
+            }
+        }
+        return cached;
     }
 
-    private CartItemView toCartItemView(CartItem item, CatalogCartProduct product, CatalogDiscount discount) {
-        if (product == null) {
-            return null;
+    /**
+     * Re-prices the mutated cart from the cached lines' titles, prices and images, so only a newly
+     * added product needs a catalog lookup. Every line is re-priced because user and employee
+     * discounts come from the caller.
+     */
+    private CartResponse patch(CartResponse previous, AuthenticatedUser user, List<CartLine> lines, LineDraft added) {
+        Map<Long, LineDraft> drafts = new LinkedHashMap<>();
+        for (CartItemDto item : previous.items()) {
+            drafts.put(item.id(), new LineDraft(item.id(), item.title(), item.price(), item.imageUrl()));
         }
-        return new CartItemView(
-                product.id(),
-                product.name(),
-                product.price(),
-                item.getQuantity(),
-                discount != null ? discount.id() : null,
-                discount != null ? discount.description() : null,
-                discount != null ? discount.percentage() : null,
-                discount != null ? discount.startDate() : null,
-                discount != null ? discount.endDate() : null
-        );
+        if (added != null) {
+            drafts.put(added.productId(), added);
+        }
+        return priceLines(user, lines, drafts);
     }
 
-    private CartItemDto toCartItemDto(CartItemView item, String primaryImageUrl, AuthenticatedUser user) {
-        CatalogDiscount activeSelected = getActiveSelectedDiscount(item);
-        BigDecimal productDiscountPercentage = activeSelected != null ? activeSelected.percentage() : BigDecimal.ZERO;
-        BigDecimal userDiscountPercentage = getActiveUserDiscountPercentage(user);
-        BigDecimal employeeDiscountPercentage = isEmployee(user)
-                ? EMPLOYEE_DISCOUNT_PERCENTAGE
-                : BigDecimal.ZERO;
-        BigDecimal totalDiscountPercentage = calculateTotalDiscountPercentage(
-                productDiscountPercentage,
-                userDiscountPercentage,
-                employeeDiscountPercentage
-        );
-
-        BigDecimal basePrice = item.productPrice();
-        BigDecimal finalPrice = calculateFinalPrice(basePrice, totalDiscountPercentage);
-
-        return new CartItemDto(
-                item.productId(),
-                item.productName(),
-                basePrice,
-                finalPrice,
-                primaryImageUrl,
-                item.quantity(),
-                mapDiscount(activeSelected),
-                userDiscountPercentage,
-                employeeDiscountPercentage,
-                totalDiscountPercentage
-        );
+    private CartLine findLine(List<CartLine> lines, Long productId) {
+        return lines.stream().filter(line -> line.productId().equals(productId)).findFirst().orElse(null);
     }
 
-    private BigDecimal calculateTotalDiscountPercentage(BigDecimal productDiscount,
-                                                        BigDecimal userDiscount,
-                                                        BigDecimal employeeDiscount) {
-        BigDecimal combined = productDiscount.add(userDiscount).add(employeeDiscount);
-        return combined.min(ONE_HUNDRED).max(BigDecimal.ZERO);
+    private void replaceLine(List<CartLine> lines, CartLine updated) {
+        lines.replaceAll(line -> line.productId().equals(updated.productId()) ? updated : line);
     }
 
-    private BigDecimal calculateFinalPrice(BigDecimal basePrice, BigDecimal totalDiscountPercentage) {
-        BigDecimal multiplier = BigDecimal.ONE.subtract(totalDiscountPercentage.divide(ONE_HUNDRED, 4, RoundingMode.HALF_UP));
-        return basePrice.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+    private CartResponse buildCartResponse(AuthenticatedUser user, List<CartLine> lines) {
+        List<Long> productIds = lines.stream().map(CartLine::productId).distinct().toList();
+        return assembleCartResponse(user, lines, catalogApi.getProductsForCart(productIds));
     }
 
-    private Long resolveSelectedDiscountId(Long productId, Long discountId, boolean applyBestIfMissing) {
-        if (discountId == null) {
-            CatalogDiscount discount = applyBestIfMissing ? catalogApi.getBestActiveDiscount(productId) : null;
-            return discount != null ? discount.id() : null;
-        }
-        if (discountId == 0) {
-            return null;
+    private CartResponse assembleCartResponse(AuthenticatedUser user,
+                                              List<CartLine> lines,
+                                              Map<Long, CatalogCartProduct> products) {
+        List<Long> productIds = lines.stream()
+                .map(CartLine::productId)
+                .filter(products::containsKey)
+                .distinct()
+                .toList();
+        if (productIds.isEmpty()) {
+            return new CartResponse(List.of());
         }
-        return catalogApi.getActiveDiscount(productId, discountId).id();
-    }
 
-    private CatalogDiscount getActiveSelectedDiscount(CartItemView selected) {
-        if (selected.selectedDiscountId() == null) {
-            return null;
+        Map<Long, String> primaryImages = catalogApi.getPrimaryImagesByProductIds(productIds);
+        Map<Long, LineDraft> drafts = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            CatalogCartProduct product = products.get(productId);
+            drafts.put(productId, new LineDraft(product.id(), product.name(), product.price(), primaryImages.get(productId)));
         }
-        CatalogDiscount discount = new CatalogDiscount(
-                selected.selectedDiscountId(),
-                selected.selectedDiscountDescription(),
-                selected.selectedDiscountPercentage(),
-                selected.selectedDiscountStartDate(),
-                selected.selectedDiscountEndDate()
-        );
-        return isDiscountActive(discount) ? discount : null;
+        return priceLines(user, lines, drafts);
     }
 
-    private boolean isDiscountActive(CatalogDiscount discount) {
-        LocalDate today = LocalDate.now();
-        if (discount.startDate() != null && discount.startDate().isAfter(today)) {
-            return false;
+    private CartResponse priceLines(AuthenticatedUser user, List<CartLine> lines, Map<Long, LineDraft> drafts) {
+        List<PricingLine> pricingLines = lines.stream()
+                .filter(line -> drafts.containsKey(line.productId()))
+                .map(line -> new PricingLine(
+                        line.productId(),
+                        drafts.get(line.productId()).price(),
+                        line.quantity(),
+                        line.selectedDiscountId()
+                ))
+                .toList();
+        if (pricingLines.isEmpty()) {
+            return new CartResponse(List.of());
         }
-        if (discount.endDate() != null && discount.endDate().isBefore(today)) {
-            return false;
+
+        List<CartItemDto> items = new ArrayList<>(pricingLines.size());
+        for (PricedLine priced : pricingEngine.priceCart(user, pricingLines)) {
+            LineDraft draft = drafts.get(priced.productId());
+            items.add(new CartItemDto(
+                    priced.productId(),
+                    draft.title(),
+                    priced.unitPrice(),
+                    priced.finalUnitPrice(),
+                    draft.imageUrl(),
+                    priced.quantity(),
+                    mapDiscount(priced.productDiscount()),
+                    priced.userDiscountPercentage(),
+                    priced.employeeDiscountPercentage(),
+                    priced.totalDiscountPercentage()
+            ));
         }
-        return true;
+        return new CartResponse(List.copyOf(items));
     }
 
-    private boolean isEmployee(AuthenticatedUser user) {
-        return user.hasRole("ROLE_EMPLOYEE");
+    private void requireProduct(Map<Long, CatalogCartProduct> products, Long productId) {
+        if (!products.containsKey(productId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+        }
     }
 
-    private BigDecimal getActiveUserDiscountPercentage(AuthenticatedUser user) {
-        BigDecimal percentage = user.getUserDiscountPercentage();
-        if (percentage == null || percentage.signum() <= 0) {
-            return BigDecimal.ZERO;
+    private Long selectDiscountId(Long productId, Long discountId, boolean applyBestIfMissing) {
+        if (discountId == null) {
+            CatalogDiscount best = applyBestIfMissing ? pricingEngine.bestActiveDiscount(productId) : null;
+            return best != null ? best.id() : null;
         }
-
-        LocalDate today = LocalDate.now();
-        LocalDate start = user.getUserDiscountStartDate();
-        LocalDate end = user.getUserDiscountEndDate();
-
-        if (start == null || start.isAfter(today)) {
-            return BigDecimal.ZERO;
+        if (discountId == 0) {
+            return null;
         }
-        if (end != null && end.isBefore(today)) {
-            return BigDecimal.ZERO;
+        CatalogDiscount discount = pricingEngine.activeDiscount(productId, discountId);
+        if (discount == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or inactive discount");
         }
-        return percentage;
+        return discount.id();
     }
 
     private CartItemDiscountDto mapDiscount(CatalogDiscount discount) {
@@ -335,20 +446,50 @@ public class CartService {
         );
     }
 
-    private CartResponse withMutationRetry(CartMutation mutation) {
-        RuntimeException lastFailure = null;
-        for (int attempt = 1; attempt <= MAX_MUTATION_ATTEMPTS; attempt++) {
+    /**
+     * Mutations for one user are serialized before they open a transaction, so the commit is
+     * covered too. Version or unique-key failures can then only come from a writer that bypassed
+     * the serializer (for example while Redis was down on a multi-node setup) and are not retried.
+     * The response is cached after the commit but before the serializer lets the next mutation
+     * in, so serialized mutations also reach the cache in order. It goes under the key taken
+     * before pricing, so a mutation priced against yesterday's discounts is never stored under
+     * today's key.
+     */
+    private CartResponse withMutation(Long userId, CartMutation mutation) {
+        String cacheKey = userCartKeys.key(userId);
+        return cartMutationSerializer.execute(userId, () -> {
+            CartResponse response;
             try {
-                return transactionTemplate.execute(status -> mutation.execute());
+                response = transactionTemplate.execute(status -> mutation.execute());
             } catch (ObjectOptimisticLockingFailureException | OptimisticLockException | DataIntegrityViolationException ex) {
-                lastFailure = ex;
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Cart was modified concurrently. Please retry.", ex);
             }
+            cacheResponse(userId, cacheKey, response);
+            return response;
+        });
+    }
+
+    private void cacheResponse(Long userId, String cacheKey, CartResponse response) {
+        try {
+            Cache cache = cacheManager.getCache(CacheNames.USER_CART);
+            // The mutation has committed. Inside a caller's after-commit callback a transaction-aware
+            // cache would defer the put to that finished transaction and drop it, so write through.
+            if (cache instanceof TransactionAwareCacheDecorator transactionAware) {
+                cache = transactionAware.getTargetCache();
+            }
+            if (cache != null) {
+                cache.put(cacheKey, response);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Cart cache write failed for userId={}: {}", userId, ex.getMessage());
         }
-        throw new ResponseStatusException(HttpStatus.CONFLICT, "Cart was modified concurrently. Please retry.", lastFailure);
     }
 
     @FunctionalInterface
     private interface CartMutation {
         CartResponse execute();
     }
+
+    private record LineDraft(Long productId, String title, BigDecimal price, String imageUrl) {
+    }
 }
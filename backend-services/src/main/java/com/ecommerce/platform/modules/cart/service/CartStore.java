@@ -0,0 +1,53 @@
+package com.ecommerce.platform.modules.cart.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Holds the live cart lines per user, in the order items were first added. {@link CartService}
+ * owns pricing and validation; a store only persists lines.
+ */
+public interface CartStore {
+
+    List<CartLine> findLines(Long userId);
+
+    /**
+     * Returns a mutable copy of the lines for a mutation that is about to follow. Stores that need
+     * mutual exclusion at the storage layer acquire it here.
+     */
+    List<CartLine> loadForMutation(Long userId);
+
+    /**
+     * Writes {@code line} over {@code previous}, the line as returned by {@link #loadForMutation}
+     * (null for a new product). Stores without their own row locking reject the write with 409
+     * when the stored line no longer matches {@code previous}, instead of overwriting a
+     * concurrent change.
+     */
+    void saveLine(Long userId, CartLine previous, CartLine line);
+
+    void removeLine(Long userId, Long productId);
+
+    /**
+     * Removes every line and returns the product ids that were in the cart.
+     */
+    List<Long> clear(Long userId);
+
+    /**
+     * Makes pending writes for the user durable in MySQL before returning.
+     */
+    void flush(Long userId);
+
+    /**
+     * Ids of the users whose live cart holds the product, including writes not yet in MySQL. May
+     * include users who removed it recently.
+     */
+    Set<Long> findUserIdsWithProduct(Long productId);
+
+    /**
+     * Walks every live cart and hands {@code batch} the user ids per product id, about
+     * {@code batchSize} carts or lines at a time.
+     */
+    void forEachCartProduct(int batchSize, Consumer<Map<Long, List<Long>>> batch);
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.platform.modules.cart.service;
+
+import com.ecommerce.platform.modules.cart.model.Cart;
+import com.ecommerce.platform.modules.cart.model.CartItem;
+import com.ecommerce.platform.modules.cart.repository.CartItemRepository;
+import com.ecommerce.platform.modules.cart.repository.CartProductRow;
+import com.ecommerce.platform.modules.cart.repository.CartRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL-backed cart store and the default. Per-user ordering of mutations, clears included, comes
+ * from {@link CartMutationSerializer}; {@link #clear} and {@link #replaceLines} also lock the
+ * {@code carts} row, so the write-behind flush, which runs outside the serializer, is ordered
+ * against a clear. Every method except {@link #findLines} must run inside a transaction.
+ */
+@Component
+public class JpaCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+
+    public JpaCartStore(CartRepository cartRepository, CartItemRepository cartItemRepository) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    @Override
+    public List<CartLine> findLines(Long userId) {
+        return toLines(cartItemRepository.findByUserIdOrderById(userId));
+    }
+
+    @Override
+    public List<CartLine> loadForMutation(Long userId) {
+        Cart cart = getOrCreateCart(userId, false);
+        return toLines(cartItemRepository.findByCartIdOrderById(cart.getId()));
+    }
+
+    @Override
+    public void saveLine(Long userId, CartLine previous, CartLine line) {
+        int updated = cartItemRepository.updateLine(userId, line.productId(), line.quantity(), line.selectedDiscountId());
+        if (updated == 0) {
+            insert(getOrCreateCart(userId, false), line);
+        }
+    }
+
+    @Override
+    public void removeLine(Long userId, Long productId) {
+        cartItemRepository.deleteByUserIdAndProductId(userId, productId);
+    }
+
+    @Override
+    public List<Long> clear(Long userId) {
+        Cart cart = cartRepository.findByUserIdForUpdate(userId).orElse(null);
+        if (cart == null) {
+            return List.of();
+        }
+        List<Long> productIds = cartItemRepository.findProductIdsByCartId(cart.getId());
+        cartItemRepository.deleteByCartId(cart.getId());
+        return productIds;
+    }
+
+    @Override
+    public void flush(Long userId) {
+        // Writes are already durable when the surrounding transaction commits.
+    }
+
+    @Override
+    public Set<Long> findUserIdsWithProduct(Long productId) {
+        return Set.copyOf(cartItemRepository.findUserIdsByProductId(productId));
+    }
+
+    @Override
+    public void forEachCartProduct(int batchSize, Consumer<Map<Long, List<Long>>> batch) {
+        long afterId = 0;
+        while (true) {
+            List<CartProductRow> rows = cartItemRepository.findCartProductRowsAfter(afterId, Limit.of(batchSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+            batch.accept(rows.stream().collect(Collectors.groupingBy(
+                    CartProductRow::productId,
+                    LinkedHashMap::new,
+                    Collectors.mapping(CartProductRow::userId, Collectors.toList())
+            )));
+            afterId = rows.getLast().itemId();
+        }
+    }
+
+    /**
+     * Version of the last snapshot written by {@link #replaceLines}, 0 when there is none.
+     */
+    public long flushedVersion(Long userId) {
+        return cartRepository.findByUserId(userId).map(Cart::getFlushedVersion).orElse(0L);
+    }
+
+    /**
+     * Makes the user's MySQL rows match {@code lines}, used by write-behind stores when flushing.
+     * {@code version} orders the snapshots: under the cart row lock, one older than the last
+     * written is skipped and false is returned, so a slow flush cannot overwrite a newer one.
+     */
+    public boolean replaceLines(Long userId, List<CartLine> lines, long version) {
+        Cart cart = getOrCreateCart(userId, true);
+        if (version < cart.getFlushedVersion()) {
+            return false;
+        }
+        cart.setFlushedVersion(version);
+        Map<Long, CartItem> existing = cartItemRepository.findByCartIdOrderById(cart.getId()).stream()
+                .collect(Collectors.toMap(CartItem::getProductId, Function.identity()));
+
+        List<CartItem> changed = new ArrayList<>();
+        for (CartLine line : lines) {
+            CartItem item = existing.remove(line.productId());
+            if (item == null) {
+                item = new CartItem();
+                item.setCart(cart);
+                item.setProductId(line.productId());
+            } else if (item.getQuantity() == line.quantity()
+                    && Objects.equals(item.getSelectedDiscountId(), line.selectedDiscountId())) {
+                continue;
+            }
+            item.setQuantity(line.quantity());
+            item.setSelectedDiscountId(line.selectedDiscountId());
+            changed.add(item);
+        }
+        cartItemRepository.deleteAll(existing.values());
+        cartItemRepository.saveAll(changed);
+        cartItemRepository.flush();
+        return true;
+    }
+
+    private void insert(Cart cart, CartLine line) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProductId(line.productId());
+        item.setQuantity(line.quantity());
+        item.setSelectedDiscountId(line.selectedDiscountId());
+        cartItemRepository.saveAndFlush(item);
+    }
+
+    private Cart getOrCreateCart(Long userId, boolean forUpdate) {
+        return findCart(userId, forUpdate).orElseGet(() -> createCart(userId, forUpdate));
+    }
+
+    private Cart createCart(Long userId, boolean forUpdate) {
+        try {
+            Cart cart = new Cart();
+            cart.setUserId(userId);
+            return cartRepository.saveAndFlush(cart);
+        } catch (DataIntegrityViolationException ex) {
+            return findCart(userId, forUpdate).orElseThrow(() -> ex);
+        }
+    }
+
+    private Optional<Cart> findCart(Long userId, boolean forUpdate) {
+        return forUpdate ? cartRepository.findByUserIdForUpdate(userId) : cartRepository.findByUserId(userId);
+    }
+
+    private List<CartLine> toLines(List<CartItem> items) {
+        List<CartLine> lines = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            lines.add(new CartLine(item.getProductId(), item.getQuantity(), item.getSelectedDiscountId()));
+        }
+        return lines;
+    }
+}
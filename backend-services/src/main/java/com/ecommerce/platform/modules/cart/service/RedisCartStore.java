@@ -0,0 +1,409 @@
+package com.ecommerce.platform.modules.cart.service;
+
+import com.ecommerce.platform.modules.catalog.api.CatalogApi;
+import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind cart store. The live cart is a Redis hash per user ({@code cart:live:{userId}})
+ * with one field per product holding {@code seq|quantity|discountId}, where {@code seq} keeps
+ * insertion order, and a {@code #ver} field counting writes. Every write is a single Lua call
+ * that checks the mutation still holds its {@link CartMutationSerializer} lease and the line still
+ * holds what the mutation read, then updates it, bumps {@code #ver}, refreshes the TTL and marks
+ * the user dirty. A scheduled job flushes dirty carts into MySQL in batches and checkout flushes
+ * its user synchronously; each flush carries the {@code #ver} it read, so an older snapshot never
+ * overwrites a newer one, and a user only leaves the dirty set once the version MySQL holds is
+ * still the live one. Carts missing from Redis are hydrated from MySQL on first use, so switching
+ * stores, or a hash that expired after its last flush, loses nothing.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCartStore.class);
+    private static final String KEY_PREFIX = "cart:live:";
+    static final String DIRTY_KEY = "cart:live:dirty";
+    private static final String VERSION_FIELD = "#ver";
+    private static final String LINE_PREFIX = "p:";
+
+    private static final RedisScript<Long> HYDRATE = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 1 then return 0 end
+            redis.call('hset', KEYS[1], '#seq', #ARGV - 2, '#ver', ARGV[2])
+            for i = 3, #ARGV do
+              local sep = string.find(ARGV[i], '=', 1, true)
+              redis.call('hset', KEYS[1], string.sub(ARGV[i], 1, sep - 1), (i - 2) .. '|' .. string.sub(ARGV[i], sep + 1))
+            end
+            redis.call('pexpire', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+    private static final RedisScript<Long> SAVE_LINE = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 0 then return 0 end
+            if ARGV[6] ~= '' and redis.call('get', KEYS[3]) ~= ARGV[6] then return 0 end
+            local current = redis.call('hget', KEYS[1], ARGV[1])
+            local seq
+            if current then
+              local stored
+              seq, stored = string.match(current, '^(%d+)|(.*)$')
+              if stored ~= ARGV[2] then return 0 end
+            elseif ARGV[2] ~= '' then
+              return 0
+            else
+              seq = redis.call('hincrby', KEYS[1], '#seq', 1)
+            end
+            redis.call('hset', KEYS[1], ARGV[1], seq .. '|' .. ARGV[3])
+            redis.call('hincrby', KEYS[1], '#ver', 1)
+            redis.call('pexpire', KEYS[1], ARGV[4])
+            redis.call('sadd', KEYS[2], ARGV[5])
+            return 1
+            """, Long.class);
+    private static final RedisScript<Long> REMOVE_LINE = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 0 then return -1 end
+            if ARGV[4] ~= '' and redis.call('get', KEYS[3]) ~= ARGV[4] then return -1 end
+            local removed = redis.call('hdel', KEYS[1], ARGV[1])
+            redis.call('hincrby', KEYS[1], '#ver', 1)
+            redis.call('pexpire', KEYS[1], ARGV[2])
+            redis.call('sadd', KEYS[2], ARGV[3])
+            return removed
+            """, Long.class);
+    // Returns the removed product ids, or nil when the hash is missing or the lease moved on.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLEAR = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 0 then return nil end
+            if ARGV[3] ~= '' and redis.call('get', KEYS[3]) ~= ARGV[3] then return nil end
+            local removed = {}
+            for _, field in ipairs(redis.call('hkeys', KEYS[1])) do
+              if string.sub(field, 1, 2) == 'p:' then
+                redis.call('hdel', KEYS[1], field)
+                table.insert(removed, string.sub(field, 3))
+              end
+            end
+            redis.call('hincrby', KEYS[1], '#ver', 1)
+            redis.call('pexpire', KEYS[1], ARGV[1])
+            redis.call('sadd', KEYS[2], ARGV[2])
+            return removed
+            """, List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DIRTY_HOLDERS = new DefaultRedisScript<>("""
+            local holders = {}
+            for _, user in ipairs(redis.call('smembers', KEYS[1])) do
+              if redis.call('hexists', ARGV[1] .. user, ARGV[2]) == 1 then table.insert(holders, user) end
+            end
+            return holders
+            """, List.class);
+    private static final RedisScript<Long> MARK_CLEAN = new DefaultRedisScript<>("""
+            if (redis.call('hget', KEYS[1], '#ver') or '0') ~= ARGV[1] then return 0 end
+            return redis.call('srem', KEYS[2], ARGV[2])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JpaCartStore jpaCartStore;
+    private final CatalogApi catalogApi;
+    private final TransactionTemplate flushTransaction;
+    private final Duration ttl;
+    private final int flushBatchSize;
+
+    public RedisCartStore(StringRedisTemplate redisTemplate,
+                          JpaCartStore jpaCartStore,
+                          CatalogApi catalogApi,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.cart.store.redis.ttl-hours:168}") long ttlHours,
+                          @Value("${app.cart.store.redis.flush-batch-size:200}") int flushBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.jpaCartStore = jpaCartStore;
+        this.catalogApi = catalogApi;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @Override
+    public List<CartLine> findLines(Long userId) {
+        try {
+            hydrateIfMissing(userId);
+            return readLines(userId);
+        } catch (RuntimeException ex) {
+            log.warn("Redis cart read failed for userId={}, reading MySQL: {}", userId, ex.getMessage());
+            return jpaCartStore.findLines(userId);
+        }
+    }
+
+    @Override
+    public List<CartLine> loadForMutation(Long userId) {
+        hydrateIfMissing(userId);
+        return readLines(userId);
+    }
+
+    @Override
+    public void saveLine(Long userId, CartLine previous, CartLine line) {
+        Long saved = redisTemplate.execute(
+                SAVE_LINE,
+                List.of(key(userId), DIRTY_KEY, CartMutationSerializer.leaseKey(userId)),
+                LINE_PREFIX + line.productId(),
+                previous != null ? encode(previous) : "",
+                encode(line),
+                Long.toString(ttl.toMillis()),
+                userId.toString(),
+                leaseToken(userId)
+        );
+        if (saved == null || saved == 0) {
+            throw concurrentUpdate();
+        }
+    }
+
+    @Override
+    public void removeLine(Long userId, Long productId) {
+        Long removed = redisTemplate.execute(
+                REMOVE_LINE,
+                List.of(key(userId), DIRTY_KEY, CartMutationSerializer.leaseKey(userId)),
+                LINE_PREFIX + productId,
+                Long.toString(ttl.toMillis()),
+                userId.toString(),
+                leaseToken(userId)
+        );
+        if (removed == null || removed < 0) {
+            throw concurrentUpdate();
+        }
+    }
+
+    @Override
+    public List<Long> clear(Long userId) {
+        // Keep the hash (with only its sequence and version fields) rather than deleting it, otherwise the
+        // next read would hydrate the not-yet-flushed MySQL rows back into the cart.
+        hydrateIfMissing(userId);
+        List<?> removed = redisTemplate.execute(
+                CLEAR,
+                List.of(key(userId), DIRTY_KEY, CartMutationSerializer.leaseKey(userId)),
+                Long.toString(ttl.toMillis()),
+                userId.toString(),
+                leaseToken(userId)
+        );
+        if (removed == null) {
+            throw concurrentUpdate();
+        }
+        return removed.stream().map(productId -> Long.valueOf(productId.toString())).toList();
+    }
+
+    @Override
+    public void flush(Long userId) {
+        // Always written, dirty or not: a scheduled flush may have picked the user up and not
+        // committed yet. The version check makes whichever commits second a no-op or newer.
+        Long version = persist(userId);
+        runAfterCommit(() -> markClean(userId, version));
+    }
+
+    /**
+     * MySQL holders plus the dirty carts that hold the product in Redis, which MySQL may not know
+     * about yet. A user leaves the dirty set only after its flush commits, so none is missed.
+     */
+    @Override
+    public Set<Long> findUserIdsWithProduct(Long productId) {
+        Set<Long> userIds = new HashSet<>(jpaCartStore.findUserIdsWithProduct(productId));
+        try {
+            List<?> holders = redisTemplate.execute(DIRTY_HOLDERS, List.of(DIRTY_KEY), KEY_PREFIX, LINE_PREFIX + productId);
+            if (holders != null) {
+                holders.forEach(userId -> userIds.add(Long.valueOf(userId.toString())));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Redis cart holders unavailable for productId={}, using MySQL only: {}", productId, ex.getMessage());
+        }
+        return userIds;
+    }
+
+    /**
+     * Dirty carts are read from Redis before MySQL is walked: a cart flushed in between is then
+     * seen in one or the other, because its new rows get ids past the walk's current position.
+     */
+    @Override
+    public void forEachCartProduct(int batchSize, Consumer<Map<Long, List<Long>>> batch) {
+        List<String> dirtyUserIds = List.copyOf(redisTemplate.opsForSet().members(DIRTY_KEY));
+        for (int from = 0; from < dirtyUserIds.size(); from += batchSize) {
+            Map<Long, List<Long>> usersByProduct = new LinkedHashMap<>();
+            for (String userId : dirtyUserIds.subList(from, Math.min(from + batchSize, dirtyUserIds.size()))) {
+                for (CartLine line : readLines(Long.valueOf(userId))) {
+                    usersByProduct.computeIfAbsent(line.productId(), id -> new ArrayList<>()).add(Long.valueOf(userId));
+                }
+            }
+            if (!usersByProduct.isEmpty()) {
+                batch.accept(usersByProduct);
+            }
+        }
+        jpaCartStore.forEachCartProduct(batchSize, batch);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.cart.store.redis.flush-interval-ms:5000}",
+            fixedDelayString = "${app.cart.store.redis.flush-interval-ms:5000}"
+    )
+    public void flushDirtyCarts() {
+        Set<String> userIds;
+        try {
+            userIds = redisTemplate.opsForSet().distinctRandomMembers(DIRTY_KEY, flushBatchSize);
+        } catch (RuntimeException ex) {
+            log.warn("Redis cart flush skipped: {}", ex.getMessage());
+            return;
+        }
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+
+        int failed = 0;
+        for (String userId : userIds) {
+            try {
+                Long version = flushTransaction.execute(status -> persist(Long.valueOf(userId)));
+                markClean(Long.valueOf(userId), version);
+            } catch (RuntimeException ex) {
+                failed++;
+                log.warn("Redis cart flush failed for userId={}: {}", userId, ex.getMessage());
+            }
+        }
+        log.debug("Flushed {} carts to MySQL ({} failed)", userIds.size() - failed, failed);
+    }
+
+    /**
+     * Writes the live cart to MySQL and returns the version written, or null when there is no
+     * live cart.
+     */
+    private Long persist(Long userId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key(userId));
+        if (entries.isEmpty()) {
+            // Expired or never hydrated: MySQL is already the latest copy.
+            return null;
+        }
+        Object storedVersion = entries.get(VERSION_FIELD);
+        long version = storedVersion != null ? Long.parseLong(storedVersion.toString()) : 0;
+        if (!jpaCartStore.replaceLines(userId, withoutDeletedReferences(decode(entries)), version)) {
+            log.debug("Skipped cart snapshot {} for userId={}, MySQL already holds a newer one", version, userId);
+        }
+        return version;
+    }
+
+    /**
+     * Takes the user out of the dirty set unless the cart was written again after {@code version}
+     * was read; a failure leaves it dirty for the next run.
+     */
+    private void markClean(Long userId, Long version) {
+        try {
+            if (version == null) {
+                redisTemplate.opsForSet().remove(DIRTY_KEY, userId.toString());
+            } else {
+                redisTemplate.execute(MARK_CLEAN, List.of(key(userId), DIRTY_KEY), version.toString(), userId.toString());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Redis cart dirty flag not cleared for userId={}: {}", userId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Lines can outlive their product or discount in Redis, where the MySQL foreign keys do not
+     * apply; drop those references before writing so one stale line cannot block the flush.
+     */
+    private List<CartLine> withoutDeletedReferences(List<CartLine> lines) {
+        if (lines.isEmpty()) {
+            return lines;
+        }
+        Set<Long> existingProducts = catalogApi.getProductsForCart(
+                lines.stream().map(CartLine::productId).toList()
+        ).keySet();
+        Map<Long, CatalogDiscount> existingDiscounts = catalogApi.getDiscountsById(
+                lines.stream().map(CartLine::selectedDiscountId).filter(id -> id != null).distinct().toList()
+        );
+        return lines.stream()
+                .filter(line -> existingProducts.contains(line.productId()))
+                .map(line -> line.selectedDiscountId() != null && !existingDiscounts.containsKey(line.selectedDiscountId())
+                        ? line.withSelectedDiscountId(null)
+                        : line)
+                .toList();
+    }
+
+    private void hydrateIfMissing(Long userId) {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(key(userId)))) {
+            return;
+        }
+        List<CartLine> lines = jpaCartStore.findLines(userId);
+        List<String> args = new ArrayList<>(lines.size() + 2);
+        args.add(Long.toString(ttl.toMillis()));
+        args.add(Long.toString(jpaCartStore.flushedVersion(userId)));
+        for (CartLine line : lines) {
+            args.add(LINE_PREFIX + line.productId() + "=" + encode(line));
+        }
+        redisTemplate.execute(HYDRATE, List.of(key(userId)), args.toArray());
+    }
+
+    private List<CartLine> readLines(Long userId) {
+        return new ArrayList<>(decode(redisTemplate.opsForHash().entries(key(userId))));
+    }
+
+    private List<CartLine> decode(Map<Object, Object> entries) {
+        record SequencedLine(long seq, CartLine line) {
+        }
+        return entries.entrySet().stream()
+                .filter(entry -> entry.getKey().toString().startsWith(LINE_PREFIX))
+                .map(entry -> {
+                    Long productId = Long.valueOf(entry.getKey().toString().substring(LINE_PREFIX.length()));
+                    String[] parts = entry.getValue().toString().split("\\|", -1);
+                    Long discountId = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+                    return new SequencedLine(Long.parseLong(parts[0]), new CartLine(productId, Integer.parseInt(parts[1]), discountId));
+                })
+                .sorted(Comparator.comparingLong(SequencedLine::seq))
+                .map(SequencedLine::line)
+                .toList();
+    }
+
+    private String encode(CartLine line) {
+        return line.quantity() + "|" + (line.selectedDiscountId() != null ? line.selectedDiscountId() : "");
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String leaseToken(Long userId) {
+        String token = CartMutationSerializer.currentLeaseToken(userId);
+        return token != null ? token : "";
+    }
+
+    private ResponseStatusException concurrentUpdate() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Cart is being updated. Please retry.");
+    }
+
+    private String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
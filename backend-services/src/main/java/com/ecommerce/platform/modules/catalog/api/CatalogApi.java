@@ -2,6 +2,7 @@ package com.ecommerce.platform.modules.catalog.api;
 
 import com.ecommerce.platform.modules.catalog.model.Discount;
 import com.ecommerce.platform.modules.catalog.model.Product;
+import com.ecommerce.platform.modules.catalog.repository.ProductDiscountRow;
 import com.ecommerce.platform.modules.catalog.repository.ProductImageRow;
 import com.ecommerce.platform.modules.catalog.repository.ProductRepository;
 import org.springframework.http.HttpStatus;
@@ -10,7 +11,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,27 +56,25 @@ public class CatalogApi {
         }
     }
 
+    /**
+     * Discounts that are active on {@code day} or start later, grouped by product id. Used to
+     * build the pricing engine's in-memory index.
+     */
     @Transactional(readOnly = true)
-    public CatalogDiscount getBestActiveDiscount(Long productId) {
-        Product product = productRepository.findForCartMutationById(productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
-        return product.getDiscounts().stream()
-                .filter(this::isDiscountActive)
-                .max(Comparator.comparing(Discount::getPercentage))
-                .map(this::toDiscount)
-                .orElse(null);
+    public Map<Long, List<CatalogDiscount>> getDiscountsEndingOnOrAfter(LocalDate day) {
+        return productRepository.findDiscountRowsEndingOnOrAfter(day).stream()
+                .collect(Collectors.groupingBy(
+                        ProductDiscountRow::productId,
+                        LinkedHashMap::new,
+                        Collectors.mapping(this::toRowDiscount, Collectors.toList())
+                ));
     }
 
     @Transactional(readOnly = true)
-    public CatalogDiscount getActiveDiscount(Long productId, Long discountId) {
-        Product product = productRepository.findForCartMutationById(productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
-        return product.getDiscounts().stream()
-                .filter(discount -> discount.getId().equals(discountId))
-                .filter(this::isDiscountActive)
-                .findFirst()
-                .map(this::toDiscount)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or inactive discount"));
+    public List<CatalogDiscount> getProductDiscounts(Long productId) {
+        return productRepository.findDiscountRowsByProductId(productId).stream()
+                .map(this::toRowDiscount)
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -120,6 +118,16 @@ public class CatalogApi {
         return new CatalogCartProduct(product.getId(), product.getName(), product.getPrice());
     }
 
+    private CatalogDiscount toRowDiscount(ProductDiscountRow row) {
+        return new CatalogDiscount(
+                row.discountId(),
+                row.description(),
+                row.percentage(),
+                row.startDate(),
+                row.endDate()
+        );
+    }
+
     private CatalogDiscount toDiscount(Discount discount) {
         return new CatalogDiscount(
                 discount.getId(),
@@ -129,15 +137,4 @@ public class CatalogApi {
                 discount.getEndDate()
         );
     }
-
-    private boolean isDiscountActive(Discount discount) {
-        LocalDate today = LocalDate.now();
-        if (discount.getStartDate() != null && discount.getStartDate().isAfter(today)) {
-            return false;
-        }
-        if (discount.getEndDate() != null && discount.getEndDate().isBefore(today)) {
-            return false;
-        }
-        return true;
-    }
 }
@@ -0,0 +1,12 @@
+package com.ecommerce.platform.modules.catalog.api;
+
+public record ProductChangedEvent(
+        Long productId,
+        ChangeType type
+) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
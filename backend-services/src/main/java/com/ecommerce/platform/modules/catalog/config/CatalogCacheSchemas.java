@@ -0,0 +1,38 @@
+package com.ecommerce.platform.modules.catalog.config;
+
+import com.ecommerce.platform.common.dto.CursorPageResponse;
+import com.ecommerce.platform.common.dto.PageResponse;
+import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.CompactCacheSchema;
+import com.ecommerce.platform.modules.catalog.dto.response.ProductListItemResponse;
+import com.ecommerce.platform.modules.catalog.dto.response.ProductResponse;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CatalogCacheSchemas {
+
+    private static final TypeFactory TYPES = TypeFactory.defaultInstance();
+
+    @Bean
+    public CompactCacheSchema productsCacheSchema() {
+        return CompactCacheSchema.of(CacheNames.PRODUCTS, TYPES.constructType(ProductResponse.class));
+    }
+
+    @Bean
+    public CompactCacheSchema productListsCacheSchema() {
+        return CompactCacheSchema.of(
+                CacheNames.PRODUCT_LISTS,
+                TYPES.constructParametricType(PageResponse.class, ProductListItemResponse.class),
+                TYPES.constructParametricType(CursorPageResponse.class, ProductListItemResponse.class)
+        );
+    }
+
+    @Bean
+    public CompactCacheSchema categoriesCacheSchema() {
+        return CompactCacheSchema.of(CacheNames.CATEGORIES, TYPES.constructCollectionType(List.class, String.class));
+    }
+}
@@ -3,10 +3,15 @@ package com.ecommerce.platform.modules.catalog.controller;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import com.ecommerce.platform.common.dto.CursorPageResponse;
 import com.ecommerce.platform.common.dto.PageResponse;
 import com.ecommerce.platform.modules.catalog.dto.request.ProductUpsertRequest;
 import com.ecommerce.platform.modules.catalog.dto.response.ProductListItemResponse;
 import com.ecommerce.platform.modules.catalog.dto.response.ProductResponse;
+import com.ecommerce.platform.modules.catalog.dto.response.ProductSearchResponse;
+import com.ecommerce.platform.modules.catalog.service.ProductSearchService;
 import com.ecommerce.platform.modules.catalog.service.ProductService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -20,9 +25,11 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductSearchService productSearchService) {
         this.productService = productService;
+        this.productSearchService = productSearchService;
     }
 
     @GetMapping
@@ -34,6 +41,25 @@ public class ProductController {
         return productService.getProducts(category, page, size);
     }
 
+    @GetMapping("/scroll")
+    public CursorPageResponse<ProductListItemResponse> scrollProducts(
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        return productService.scrollProducts(category, cursor, size);
+    }
+
+    @GetMapping("/search")
+    public ProductSearchResponse searchProducts(
+            @RequestParam(name = "q") @NotBlank @Size(max = 200) String query,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "page", defaultValue = "0") @Min(0) int page,
+            @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        return productSearchService.search(query, category, page, size);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProduct(@PathVariable("id") Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
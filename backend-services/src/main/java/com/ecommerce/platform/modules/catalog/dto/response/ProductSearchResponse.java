@@ -0,0 +1,15 @@
+package com.ecommerce.platform.modules.catalog.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+public record ProductSearchResponse(
+        String query,
+        List<ProductListItemResponse> items,
+        Map<String, Long> categoryFacets,
+        int page,
+        int size,
+        long totalHits,
+        boolean hasNext
+) {
+}
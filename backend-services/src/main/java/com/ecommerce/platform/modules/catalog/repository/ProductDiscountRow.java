@@ -0,0 +1,14 @@
+package com.ecommerce.platform.modules.catalog.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ProductDiscountRow(
+        Long productId,
+        Long discountId,
+        String description,
+        BigDecimal percentage,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+}
@@ -1,13 +1,15 @@
 package com.ecommerce.platform.modules.catalog.repository;
 
 import com.ecommerce.platform.modules.catalog.model.Product;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.Collection;
@@ -15,10 +17,20 @@ import java.util.Collection;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("select p from Product p")
-    Page<Product> findPage(Pageable pageable);
+    Slice<Product> findSlice(Pageable pageable);
 
     @Query("select p from Product p where p.category = :category")
-    Page<Product> findPageByCategory(@Param("category") String category, Pageable pageable);
+    Slice<Product> findSliceByCategory(@Param("category") String category, Pageable pageable);
+
+    long countByCategory(String category);
+
+    @Query("select p from Product p where p.id > :afterId order by p.id")
+    List<Product> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select p from Product p where p.category = :category and p.id > :afterId order by p.id")
+    List<Product> findPageByCategoryAfter(@Param("category") String category,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
 
     @EntityGraph(attributePaths = {"images"})
     @Query("select p from Product p where p.id = :id")
@@ -32,6 +44,26 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("select distinct p from Product p join p.discounts d where d.id in :discountIds")
     List<Product> findProductsWithDiscountIds(@Param("discountIds") Collection<Long> discountIds);
 
+    @Query("""
+            select new com.ecommerce.platform.modules.catalog.repository.ProductDiscountRow(
+                d.product.id, d.id, d.description, d.percentage, d.startDate, d.endDate
+            )
+            from Discount d
+            where d.endDate is null or d.endDate >= :day
+            order by d.product.id, d.id
+            """)
+    List<ProductDiscountRow> findDiscountRowsEndingOnOrAfter(@Param("day") LocalDate day);
+
+    @Query("""
+            select new com.ecommerce.platform.modules.catalog.repository.ProductDiscountRow(
+                d.product.id, d.id, d.description, d.percentage, d.startDate, d.endDate
+            )
+            from Discount d
+            where d.product.id = :productId
+            order by d.id
+            """)
+    List<ProductDiscountRow> findDiscountRowsByProductId(@Param("productId") Long productId);
+
     @Query("""
             select new com.ecommerce.platform.modules.catalog.repository.ProductImageRow(p.id, image)
             from Product p
@@ -0,0 +1,200 @@
+package com.ecommerce.platform.modules.catalog.search;
+
+import com.ecommerce.platform.modules.catalog.dto.response.ProductListItemResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, category and description with BM25 ranking.
+ * Field matches are weighted (name over category over description) into one term frequency,
+ * and every query term also matches indexed terms it is a prefix of, at a reduced score.
+ */
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "the", "to", "with"
+    );
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private long totalDocumentLength;
+
+    public void index(ProductListItemResponse product) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addTerms(termFrequencies, product.name(), NAME_WEIGHT);
+        addTerms(termFrequencies, product.category(), CATEGORY_WEIGHT);
+        addTerms(termFrequencies, product.description(), DESCRIPTION_WEIGHT);
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.id());
+            termFrequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, ignored -> new HashMap<>()).put(product.id(), frequency));
+            documents.put(product.id(), new IndexedProduct(product, termFrequencies.keySet(), length));
+            totalDocumentLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResult search(String query, String category, int page, int size) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new SearchResult(List.of(), Map.of(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalDocumentLength / documentCount;
+            for (String queryTerm : queryTerms) {
+                scoreTerm(queryTerm, documentCount, averageLength, scores);
+            }
+
+            Map<String, Long> facets = new HashMap<>();
+            List<ScoredProduct> matches = new ArrayList<>();
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                ProductListItemResponse product = documents.get(entry.getKey()).product();
+                if (product.category() != null) {
+                    facets.merge(product.category(), 1L, Long::sum);
+                }
+                if (category == null || category.isBlank() || category.equals(product.category())) {
+                    matches.add(new ScoredProduct(product, entry.getValue()));
+                }
+            }
+
+            matches.sort(Comparator.comparingDouble(ScoredProduct::score).reversed()
+                    .thenComparing(match -> match.product().id()));
+            int from = (int) Math.min((long) page * size, matches.size());
+            int to = (int) Math.min((long) from + size, matches.size());
+            return new SearchResult(
+                    matches.subList(from, to).stream().map(ScoredProduct::product).toList(),
+                    sortFacets(facets),
+                    matches.size()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(folded)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void scoreTerm(String queryTerm, int documentCount, double averageLength, Map<Long, Double> scores) {
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+
+            double factor = term.equals(queryTerm) ? 1.0 : PREFIX_MATCH_FACTOR;
+            Map<Long, Integer> termPostings = entry.getValue();
+            double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+            for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                int length = documents.get(posting.getKey()).length();
+                double frequency = posting.getValue();
+                double normalization = K1 * (1 - B + B * (averageLength == 0 ? 1 : length / averageLength));
+                double score = factor * idf * (frequency * (K1 + 1)) / (frequency + normalization);
+                scores.merge(posting.getKey(), score, Double::sum);
+            }
+        }
+    }
+
+    private void addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : tokenize(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private void removeLocked(Long productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalDocumentLength -= previous.length();
+    }
+
+    private Map<String, Long> sortFacets(Map<String, Long> facets) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        facets.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    public record SearchResult(List<ProductListItemResponse> items, Map<String, Long> facets, long totalHits) {
+    }
+
+    private record IndexedProduct(ProductListItemResponse product, Set<String> terms, int length) {
+    }
+
+    private record ScoredProduct(ProductListItemResponse product, double score) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.platform.modules.catalog.service;
+
+import com.ecommerce.platform.config.CacheTagGenerations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds {@code productLists} cache keys tagged with the page's category.
+ * Unfiltered listings use the {@value #ALL_CATEGORIES} category tag, so an edit bumps the
+ * edited categories plus that listing and leaves every other category's pages warm.
+ */
+@Component("productListCacheKeys")
+public class ProductListCacheKeys {
+
+    static final String ALL_CATEGORIES = "*";
+    private static final String CATEGORY_TAG_PREFIX = "productLists:category:";
+
+    private final CacheTagGenerations tagGenerations;
+
+    public ProductListCacheKeys(CacheTagGenerations tagGenerations) {
+        this.tagGenerations = tagGenerations;
+    }
+
+    public List<Object> key(String category, Object... pageCoordinates) {
+        String categoryTag = categoryTag(category);
+        List<Object> key = new ArrayList<>(pageCoordinates.length + 2);
+        key.add(categoryTag.substring(CATEGORY_TAG_PREFIX.length()));
+        key.add(tagGenerations.current(categoryTag));
+        key.addAll(Arrays.asList(pageCoordinates));
+        return key;
+    }
+
+    public void invalidateCategoriesAfterCommit(Collection<String> categories) {
+        List<String> tags = new ArrayList<>();
+        tags.add(categoryTag(null));
+        categories.stream()
+                .filter(Objects::nonNull)
+                .map(this::categoryTag)
+                .forEach(tags::add);
+        tagGenerations.bumpAfterCommit(tags);
+    }
+
+    private String categoryTag(String category) {
+        return CATEGORY_TAG_PREFIX + (category == null || category.isBlank() ? ALL_CATEGORIES : category);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.platform.modules.catalog.service;
+
+import com.ecommerce.platform.config.RedisPubSub;
+import com.ecommerce.platform.modules.catalog.api.ProductChangedEvent;
+import com.ecommerce.platform.modules.catalog.dto.response.ProductSearchResponse;
+import com.ecommerce.platform.modules.catalog.model.Product;
+import com.ecommerce.platform.modules.catalog.repository.ProductRepository;
+import com.ecommerce.platform.modules.catalog.search.ProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ProductSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final RedisPubSub redisPubSub;
+    private final String channel;
+    private final TransactionTemplate readTransaction;
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ProductSearchService(ProductRepository productRepository,
+                                ProductService productService,
+                                RedisPubSub redisPubSub,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.search.index-channel:catalog:search-index}") String channel) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.redisPubSub = redisPubSub;
+        this.channel = channel;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        redisPubSub.subscribe(channel, this::onRemoteChange);
+    }
+
+    public ProductSearchResponse search(String query, String category, int page, int size) {
+        ProductSearchIndex.SearchResult result = index.search(query, category, page, size);
+        return new ProductSearchResponse(
+                query,
+                result.items(),
+                result.facets(),
+                page,
+                size,
+                result.totalHits(),
+                (long) (page + 1) * size < result.totalHits()
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Product> batch = readTransaction.execute(status -> {
+                List<Product> products = productRepository.findPageAfter(cursor, Limit.of(REBUILD_BATCH_SIZE));
+                productService.toListItemResponses(products).forEach(index::index);
+                return products;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.getLast().getId();
+        }
+        log.info("Product search index built with {} products", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.productId());
+        redisPubSub.publish(channel, nodeId + "|" + event.productId());
+    }
+
+    private void onRemoteChange(String message) {
+        String[] parts = message.split("\\|", 2);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            refresh(Long.valueOf(parts[1]));
+        } catch (RuntimeException ex) {
+            log.warn("Product search index refresh failed for message={}: {}", message, ex.getMessage());
+        }
+    }
+
+    private void refresh(Long productId) {
+        readTransaction.executeWithoutResult(status -> productRepository.findById(productId).ifPresentOrElse(
+                product -> productService.toListItemResponses(List.of(product)).forEach(index::index),
+                () -> index.remove(productId)
+        ));
+    }
+}
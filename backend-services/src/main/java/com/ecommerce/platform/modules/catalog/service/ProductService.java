@@ -1,7 +1,10 @@
 package com.ecommerce.platform.modules.catalog.service;
 
 import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.CountStore;
+import com.ecommerce.platform.common.dto.CursorPageResponse;
 import com.ecommerce.platform.common.dto.PageResponse;
+import com.ecommerce.platform.modules.catalog.api.ProductChangedEvent;
 import com.ecommerce.platform.modules.catalog.dto.request.ProductUpsertRequest;
 import com.ecommerce.platform.modules.catalog.dto.response.DiscountResponse;
 import com.ecommerce.platform.modules.catalog.dto.response.ProductListItemResponse;
@@ -12,7 +15,9 @@ import com.ecommerce.platform.modules.catalog.repository.ProductRepository;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -30,45 +35,71 @@ import java.util.stream.Collectors;
 @Service
 public class ProductService {
 
+    private static final String PRODUCT_COUNTER_ALL = "products:all";
+
     private final ProductRepository productRepository;
+    private final ProductListCacheKeys productListCacheKeys;
+    private final CountStore countStore;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductListCacheKeys productListCacheKeys,
+                          CountStore countStore,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productListCacheKeys = productListCacheKeys;
+        this.countStore = countStore;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
     @Cacheable(
             cacheNames = CacheNames.PRODUCT_LISTS,
-            key = "{(#category == null || #category.isBlank()) ? 'all' : #category, #page, #size}"
+            key = "@productListCacheKeys.key(#category, #page, #size)",
+            sync = true
     )
     public PageResponse<ProductListItemResponse> getProducts(String category, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id"));
-        Page<Product> products = (category == null || category.isBlank())
-                ? productRepository.findPage(pageable)
-                : productRepository.findPageByCategory(category, pageable);
+        boolean unfiltered = category == null || category.isBlank();
+        Slice<Product> products = unfiltered
+                ? productRepository.findSlice(pageable)
+                : productRepository.findSliceByCategory(category, pageable);
+        long approximateTotal = unfiltered
+                ? countStore.get(PRODUCT_COUNTER_ALL, productRepository::count)
+                : countStore.get(categoryCounter(category), () -> productRepository.countByCategory(category));
 
-        if (products.isEmpty()) {
-            return new PageResponse<>(List.of(), page, size, 0, 0, false);
-        }
+        Map<Long, List<String>> imagesByProductId = products.isEmpty()
+                ? Map.of()
+                : loadImagesByProductId(products.getContent());
+        return PageResponse.from(products, approximateTotal, product -> toListItemResponse(product, imagesByProductId));
+    }
 
-        var productPage = products.getContent();
-        Map<Long, List<String>> imagesByProductId = loadImagesByProductId(productPage);
-        List<ProductListItemResponse> items = productPage.stream()
-                .map(product -> toListItemResponse(product, imagesByProductId))
-                .toList();
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheNames.PRODUCT_LISTS,
+            key = "@productListCacheKeys.key(#category, 'cursor', #cursor, #size)",
+            sync = true
+    )
+    public CursorPageResponse<ProductListItemResponse> scrollProducts(String category, String cursor, int size) {
+        long afterId = ProductCursor.decode(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Product> products = (category == null || category.isBlank())
+                ? productRepository.findPageAfter(afterId, limit)
+                : productRepository.findPageByCategoryAfter(category, afterId, limit);
 
-        return new PageResponse<>(
-                items,
-                products.getNumber(),
-                products.getSize(),
-                products.getTotalElements(),
-                products.getTotalPages(),
-                products.hasNext()
-        );
+        boolean hasNext = products.size() > size;
+        List<Product> productPage = hasNext ? products.subList(0, size) : products;
+        if (productPage.isEmpty()) {
+            return new CursorPageResponse<>(List.of(), size, null, false);
+        }
+
+        List<ProductListItemResponse> items = toListItemResponses(productPage);
+        String nextCursor = hasNext ? ProductCursor.encode(productPage.getLast().getId()) : null;
+        return new CursorPageResponse<>(items, size, nextCursor, hasNext);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = CacheNames.PRODUCTS, key = "#id")
+    @Cacheable(cacheNames = CacheNames.PRODUCTS, key = "#id", sync = true)
     public ProductResponse getProductById(Long id) {
         return toDetailResponse(getProductEntityById(id));
     }
@@ -86,54 +117,67 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = CacheNames.CATEGORIES, key = "'all'")
+    @Cacheable(cacheNames = CacheNames.CATEGORIES, key = "'all'", sync = true)
     public List<String> getAllCategories() {
         return productRepository.findDistinctCategories();
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(cacheNames = CacheNames.PRODUCT_LISTS, allEntries = true),
-            @CacheEvict(cacheNames = CacheNames.CATEGORIES, allEntries = true)
-    })
+    @CacheEvict(cacheNames = CacheNames.CATEGORIES, key = "'all'")
     public ProductResponse createProduct(ProductUpsertRequest request) {
         Product product = new Product();
         applyUpsertRequest(product, request);
-        return toDetailResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        productListCacheKeys.invalidateCategoriesAfterCommit(List.of(saved.getCategory()));
+        countStore.adjustAfterCommit(PRODUCT_COUNTER_ALL, 1);
+        countStore.adjustAfterCommit(categoryCounter(saved.getCategory()), 1);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), ProductChangedEvent.ChangeType.CREATED));
+        return toDetailResponse(saved);
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.PRODUCT_LISTS, allEntries = true),
-            @CacheEvict(cacheNames = CacheNames.CATEGORIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CATEGORIES, key = "'all'"),
             @CacheEvict(cacheNames = CacheNames.PRODUCT_IMAGES, allEntries = true),
-            @CacheEvict(cacheNames = CacheNames.PRODUCT_DISCOUNTS, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, allEntries = true)
+            @CacheEvict(cacheNames = CacheNames.PRODUCT_DISCOUNTS, key = "#id")
     })
     public ProductResponse updateProduct(Long id, ProductUpsertRequest request) {
         Product existing = getProductEntityById(id);
+        String previousCategory = existing.getCategory();
         applyUpsertRequest(existing, request);
-        return toDetailResponse(productRepository.save(existing));
+        productListCacheKeys.invalidateCategoriesAfterCommit(List.of(previousCategory, existing.getCategory()));
+        if (!Objects.equals(previousCategory, existing.getCategory())) {
+            countStore.adjustAfterCommit(categoryCounter(previousCategory), -1);
+            countStore.adjustAfterCommit(categoryCounter(existing.getCategory()), 1);
+        }
+        ProductResponse response = toDetailResponse(productRepository.save(existing));
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.UPDATED));
+        return response;
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.PRODUCT_LISTS, allEntries = true),
-            @CacheEvict(cacheNames = CacheNames.CATEGORIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CATEGORIES, key = "'all'"),
             @CacheEvict(cacheNames = CacheNames.PRODUCT_IMAGES, allEntries = true),
             @CacheEvict(cacheNames = CacheNames.PRODUCT_REVIEWS, allEntries = true),
-            @CacheEvict(cacheNames = CacheNames.PRODUCT_DISCOUNTS, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, allEntries = true)
+            @CacheEvict(cacheNames = CacheNames.PRODUCT_DISCOUNTS, key = "#id")
     })
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
-        }
+        Product existing = productRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+        productListCacheKeys.invalidateCategoriesAfterCommit(List.of(existing.getCategory()));
+        countStore.adjustAfterCommit(PRODUCT_COUNTER_ALL, -1);
+        countStore.adjustAfterCommit(categoryCounter(existing.getCategory()), -1);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.DELETED));
         productRepository.deleteById(id);
     }
 
+    private String categoryCounter(String category) {
+        return "products:category:" + category;
+    }
+
     private void applyUpsertRequest(Product product, ProductUpsertRequest request) {
         product.setName(request.name());
         product.setDescription(request.description());
@@ -142,6 +186,16 @@ public class ProductService {
         product.setImages(request.images());
     }
 
+    public List<ProductListItemResponse> toListItemResponses(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> imagesByProductId = loadImagesByProductId(products);
+        return products.stream()
+                .map(product -> toListItemResponse(product, imagesByProductId))
+                .toList();
+    }
+
     public ProductListItemResponse toListItemResponse(Product product, Map<Long, List<String>> imagesByProductId) {
         return new ProductListItemResponse(
                 product.getId(),
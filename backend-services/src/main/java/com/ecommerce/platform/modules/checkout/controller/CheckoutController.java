@@ -3,7 +3,9 @@ package com.ecommerce.platform.modules.checkout.controller;
 import com.ecommerce.platform.modules.checkout.dto.CheckoutResponse;
 import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
 import com.ecommerce.platform.modules.checkout.service.CheckoutService;
+import com.ecommerce.platform.modules.checkout.service.CheckoutStatusNotifier;
 import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -11,16 +13,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/checkout")
 public class CheckoutController {
 
     private final CheckoutService checkoutService;
+    private final CheckoutStatusNotifier checkoutStatusNotifier;
 
-    public CheckoutController(CheckoutService checkoutService) {
+    public CheckoutController(CheckoutService checkoutService, CheckoutStatusNotifier checkoutStatusNotifier) {
         this.checkoutService = checkoutService;
+        this.checkoutStatusNotifier = checkoutStatusNotifier;
     }
 
     @PostMapping
@@ -35,4 +42,22 @@ public class CheckoutController {
                                                                  @AuthenticationPrincipal AuthenticatedUser user) {
         return ResponseEntity.ok(checkoutService.getOrderStatus(orderId, user));
     }
+
+    @GetMapping("/{orderId}/await")
+    @PreAuthorize("isAuthenticated()")
+    public DeferredResult<ResponseEntity<CheckoutStatusResponse>> awaitOrderStatus(
+            @PathVariable("orderId") Long orderId,
+            @RequestParam(name = "status", required = false) String knownStatus,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return checkoutStatusNotifier.awaitChange(orderId, user, knownStatus);
+    }
+
+    @GetMapping(path = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SseEmitter> streamOrderStatus(@PathVariable("orderId") Long orderId,
+                                                        @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(checkoutStatusNotifier.stream(orderId, user));
+    }
 }
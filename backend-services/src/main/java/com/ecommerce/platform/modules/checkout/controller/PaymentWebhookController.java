@@ -17,9 +17,9 @@ public class PaymentWebhookController {
 
     @PostMapping("/{gateway}")
     public ResponseEntity<Void> handleWebhook(@PathVariable("gateway") String gateway,
-                                              @RequestBody String payload,
+                                              @RequestBody byte[] payload,
                                               @RequestHeader HttpHeaders headers) {
-        checkoutService.processPaymentWebhook(gateway, payload, resolveSignature(gateway, headers));
+        checkoutService.acceptPaymentWebhook(gateway, payload, resolveSignature(gateway, headers));
         return ResponseEntity.ok().build();
     }
 
@@ -7,7 +7,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "payment_transactions", indexes = {
         @Index(name = "idx_payment_transactions_session", columnList = "provider_session_id"),
-        @Index(name = "idx_payment_transactions_payment_intent", columnList = "payment_intent_id")
+        @Index(name = "idx_payment_transactions_payment_intent", columnList = "payment_intent_id"),
+        @Index(name = "idx_payment_transactions_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_payment_transactions_status_expires", columnList = "status, expires_at")
 }, uniqueConstraints = {
         @UniqueConstraint(name = "uk_payment_transactions_idempotency", columnNames = "idempotency_key")
 })
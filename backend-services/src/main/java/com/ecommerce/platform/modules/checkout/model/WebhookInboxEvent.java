@@ -0,0 +1,167 @@
+package com.ecommerce.platform.modules.checkout.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A verified webhook event waiting to be applied. The normalized fields are what the worker
+ * applies, since provider signatures carry timestamps that would fail verification on a retry
+ * minutes later; the raw payload is kept for audit and replay.
+ */
+@Entity
+@Table(name = "payment_webhook_inbox", indexes = {
+        @Index(name = "idx_payment_webhook_inbox_due", columnList = "status, next_attempt_at, id"),
+        @Index(name = "idx_payment_webhook_inbox_partition", columnList = "partition_key, status, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payment_webhook_inbox_event_id", columnNames = "event_id")
+})
+public class WebhookInboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentProvider provider;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "partition_key", nullable = false)
+    private String partitionKey;
+
+    @Column(name = "provider_reference_id")
+    private String providerReferenceId;
+
+    @Column(name = "payment_reference_id")
+    private String paymentReferenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", length = 16)
+    private PaymentStatus paymentStatus;
+
+    @Column(length = 512)
+    private String message;
+
+    @Column(columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private WebhookInboxStatus status = WebhookInboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private Instant receivedAt = Instant.now();
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    public WebhookInboxEvent() {
+    }
+
+    public WebhookInboxEvent(String eventId,
+                             PaymentProvider provider,
+                             String eventType,
+                             String partitionKey,
+                             String providerReferenceId,
+                             String paymentReferenceId,
+                             PaymentStatus paymentStatus,
+                             String message,
+                             String payload) {
+        this.eventId = eventId;
+        this.provider = provider;
+        this.eventType = eventType;
+        this.partitionKey = partitionKey;
+        this.providerReferenceId = providerReferenceId;
+        this.paymentReferenceId = paymentReferenceId;
+        this.paymentStatus = paymentStatus;
+        this.message = message;
+        this.payload = payload;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public PaymentProvider getProvider() {
+        return provider;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
+    public String getProviderReferenceId() {
+        return providerReferenceId;
+    }
+
+    public String getPaymentReferenceId() {
+        return paymentReferenceId;
+    }
+
+    public PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public WebhookInboxStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+}
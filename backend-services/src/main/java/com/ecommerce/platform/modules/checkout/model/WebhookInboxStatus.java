@@ -0,0 +1,7 @@
+package com.ecommerce.platform.modules.checkout.model;
+
+public enum WebhookInboxStatus {
+    PENDING,
+    PROCESSED,
+    DEAD
+}
@@ -1,7 +1,16 @@
 package com.ecommerce.platform.modules.checkout.payment.core;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Raw webhook body as received, so signatures are checked over the exact bytes the provider signed.
+ */
 public record PaymentVerifyRequest(
-        String payload,
+        byte[] payload,
         String signature
 ) {
+
+    public PaymentVerifyRequest(String payload, String signature) {
+        this(payload.getBytes(StandardCharsets.UTF_8), signature);
+    }
 }
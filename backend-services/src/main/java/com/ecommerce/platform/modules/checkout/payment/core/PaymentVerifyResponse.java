@@ -3,6 +3,10 @@ package com.ecommerce.platform.modules.checkout.payment.core;
 import com.ecommerce.platform.modules.checkout.model.PaymentProvider;
 import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
 
+/**
+ * A verified provider event. {@code orderReference} is our order id as the provider echoes it
+ * back from checkout metadata, when the provider does, and is what webhook ordering keys on.
+ */
 public record PaymentVerifyResponse(
         PaymentProvider provider,
         String eventId,
@@ -10,6 +14,7 @@ public record PaymentVerifyResponse(
         boolean supportedEvent,
         String providerReferenceId,
         String paymentReferenceId,
+        String orderReference,
         PaymentStatus paymentStatus,
         String message
 ) {
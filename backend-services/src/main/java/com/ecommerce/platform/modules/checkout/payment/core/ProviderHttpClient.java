@@ -0,0 +1,219 @@
+package com.ecommerce.platform.modules.checkout.payment.core;
+
+import com.ecommerce.platform.common.error.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Outbound HTTP for one payment provider: a pooled keep-alive connection manager capped at
+ * {@code maxConnections}, a bulkhead on concurrent calls, retries with jittered exponential
+ * backoff inside a fixed time budget, and a circuit breaker that sheds calls while the provider
+ * keeps failing. Only 5xx, 429 and I/O errors are retried, and only 5xx and I/O errors count
+ * against the breaker; callers must make calls idempotent, e.g. with an idempotency key.
+ * Bulkhead and breaker rejections surface as {@link ServiceBusyException}.
+ */
+public class ProviderHttpClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderHttpClient.class);
+
+    private final String provider;
+    private final ProviderHttpSettings settings;
+    private final CloseableHttpClient httpClient;
+    private final RestClient restClient;
+    private final Semaphore bulkhead;
+    private final ProviderCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter retryCounter;
+    private final Counter bulkheadRejectedCounter;
+    private final Counter breakerRejectedCounter;
+
+    public ProviderHttpClient(String provider,
+                              String baseUrl,
+                              Duration connectTimeout,
+                              Duration readTimeout,
+                              ProviderHttpSettings settings,
+                              MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        TimeValue keepAlive = TimeValue.ofMilliseconds(settings.keepAliveMs());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.connectionRequestTimeoutMs()))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+
+        this.bulkhead = new Semaphore(Math.max(1, settings.maxConcurrentCalls()), true);
+        this.circuitBreaker = new ProviderCircuitBreaker(
+                settings.breakerFailureThreshold(), Duration.ofMillis(settings.breakerOpenMs()));
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "payment-" + provider)
+                .bindTo(meterRegistry);
+        this.retryCounter = Counter.builder("payment.provider.retries")
+                .description("Payment provider calls retried after a transient failure")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        this.bulkheadRejectedCounter = rejectedCounter(meterRegistry, provider, "bulkhead");
+        this.breakerRejectedCounter = rejectedCounter(meterRegistry, provider, "circuit_open");
+        Gauge.builder("payment.provider.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String operation, Function<RestClient, T> call) {
+        acquireBulkhead();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.retryBudgetMs());
+            for (int attempt = 1; ; attempt++) {
+                if (!circuitBreaker.tryAcquire()) {
+                    breakerRejectedCounter.increment();
+                    throw new ServiceBusyException(
+                            "Payment provider " + provider + " is temporarily unavailable",
+                            circuitBreaker.remainingOpen());
+                }
+                RuntimeException failure;
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    T result = call.apply(restClient);
+                    circuitBreaker.onSuccess();
+                    sample.stop(requestTimer(operation, "success"));
+                    return result;
+                } catch (RestClientResponseException ex) {
+                    int status = ex.getStatusCode().value();
+                    sample.stop(requestTimer(operation, ex.getStatusCode().is5xxServerError() ? "server_error" : "client_error"));
+                    if (ex.getStatusCode().is5xxServerError()) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                        if (status != 429) {
+                            throw ex;
+                        }
+                    }
+                    failure = ex;
+                } catch (ResourceAccessException ex) {
+                    sample.stop(requestTimer(operation, "io_error"));
+                    circuitBreaker.onFailure();
+                    failure = ex;
+                } catch (RuntimeException ex) {
+                    sample.stop(requestTimer(operation, "error"));
+                    circuitBreaker.release();
+                    throw ex;
+                }
+
+                long delayNanos = backoffNanos(attempt);
+                if (System.nanoTime() + delayNanos >= deadline) {
+                    throw failure;
+                }
+                log.warn("Payment provider {} {} attempt {} failed, retrying: {}", provider, operation, attempt, failure.getMessage());
+                retryCounter.increment();
+                sleep(delayNanos, failure);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public ProviderCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException ex) {
+            log.warn("Closing payment provider {} HTTP client failed: {}", provider, ex.getMessage());
+        }
+    }
+
+    private void acquireBulkhead() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(settings.bulkheadWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            bulkheadRejectedCounter.increment();
+            throw new ServiceBusyException("Too many concurrent payment requests, please retry shortly", Duration.ofSeconds(1));
+        }
+    }
+
+    private long backoffNanos(int attempt) {
+        long ceiling = TimeUnit.MILLISECONDS.toNanos(settings.retryBaseDelayMs()) << Math.min(attempt - 1, 16);
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, Math.max(ceiling, 1) + 1);
+    }
+
+    private void sleep(long nanos, RuntimeException failure) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private Timer requestTimer(String operation, String outcome) {
+        return Timer.builder("payment.provider.requests")
+                .description("Payment provider HTTP calls, one sample per attempt")
+                .tag("provider", provider)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String provider, String reason) {
+        return Counter.builder("payment.provider.rejected")
+                .description("Payment provider calls rejected before reaching the network")
+                .tag("provider", provider)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
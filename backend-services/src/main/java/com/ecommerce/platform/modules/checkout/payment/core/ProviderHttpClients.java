@@ -0,0 +1,40 @@
+package com.ecommerce.platform.modules.checkout.payment.core;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the {@link ProviderHttpClient} each payment gateway keeps for its lifetime, and closes
+ * their connection pools on shutdown.
+ */
+@Component
+public class ProviderHttpClients implements DisposableBean {
+
+    private final MeterRegistry meterRegistry;
+    private final List<ProviderHttpClient> clients = new CopyOnWriteArrayList<>();
+
+    public ProviderHttpClients(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ProviderHttpClient create(String provider,
+                                     String baseUrl,
+                                     Duration connectTimeout,
+                                     Duration readTimeout,
+                                     ProviderHttpSettings settings) {
+        ProviderHttpClient client = new ProviderHttpClient(provider, baseUrl, connectTimeout, readTimeout, settings, meterRegistry);
+        clients.add(client);
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        clients.forEach(ProviderHttpClient::close);
+        clients.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.platform.modules.checkout.payment.core;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection pool, bulkhead, retry and circuit-breaker limits for one payment provider's
+ * {@link ProviderHttpClient}. Bound as the {@code http} block of a provider's properties.
+ */
+public record ProviderHttpSettings(
+        @DefaultValue("20") int maxConnections,
+        @DefaultValue("30000") long keepAliveMs,
+        @DefaultValue("1000") long connectionRequestTimeoutMs,
+        @DefaultValue("16") int maxConcurrentCalls,
+        @DefaultValue("250") long bulkheadWaitMs,
+        @DefaultValue("3000") long retryBudgetMs,
+        @DefaultValue("100") long retryBaseDelayMs,
+        @DefaultValue("5") int breakerFailureThreshold,
+        @DefaultValue("30000") long breakerOpenMs
+) {
+}
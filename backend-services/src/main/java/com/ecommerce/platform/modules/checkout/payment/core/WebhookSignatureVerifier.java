@@ -0,0 +1,115 @@
+package com.ecommerce.platform.modules.checkout.payment.core;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HMAC-SHA256 webhook signature check shared by the payment providers. Each thread keeps one
+ * keyed {@link Mac} per secret plus a digest buffer, so a verification does no key setup and no
+ * allocation. The digest is compared against the hex signature nibble by nibble in constant
+ * time, without building hex strings. Every configured secret is tried, which lets a provider
+ * secret be rotated by listing the new and old secrets together until the old one is retired.
+ */
+public final class WebhookSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int DIGEST_LENGTH = 32;
+
+    private final List<SecretKeySpec> keys;
+    private final ThreadLocal<State> state;
+
+    public WebhookSignatureVerifier(List<String> secrets) {
+        this.keys = secrets.stream()
+                .filter(secret -> secret != null && !secret.isBlank())
+                .map(secret -> new SecretKeySpec(secret.trim().getBytes(StandardCharsets.UTF_8), ALGORITHM))
+                .toList();
+        this.state = ThreadLocal.withInitial(() -> new State(keys));
+    }
+
+    /**
+     * Builds a verifier from a comma-separated secret list, e.g. {@code whsec_new,whsec_old}.
+     */
+    public static WebhookSignatureVerifier fromSecrets(String commaSeparatedSecrets) {
+        if (commaSeparatedSecrets == null) {
+            return new WebhookSignatureVerifier(List.of());
+        }
+        return new WebhookSignatureVerifier(Arrays.asList(commaSeparatedSecrets.split(",")));
+    }
+
+    public boolean isConfigured() {
+        return !keys.isEmpty();
+    }
+
+    public boolean matches(byte[] payload, CharSequence hexSignature) {
+        return matches(null, payload, hexSignature);
+    }
+
+    /**
+     * Checks {@code hexSignature} against HMAC({@code signedPrefix} + {@code payload}) for every
+     * configured secret. The prefix covers schemes that sign a header value ahead of the body.
+     */
+    public boolean matches(byte[] signedPrefix, byte[] payload, CharSequence hexSignature) {
+        if (hexSignature == null || hexSignature.length() != DIGEST_LENGTH * 2 || keys.isEmpty()) {
+            return false;
+        }
+        State current = state.get();
+        boolean matched = false;
+        for (Mac mac : current.macs) {
+            if (signedPrefix != null) {
+                mac.update(signedPrefix);
+            }
+            mac.update(payload);
+            try {
+                mac.doFinal(current.digest, 0);
+            } catch (ShortBufferException ex) {
+                throw new IllegalStateException("HMAC digest buffer too small", ex);
+            }
+            matched |= constantTimeEqualsHex(current.digest, hexSignature);
+        }
+        return matched;
+    }
+
+    private static boolean constantTimeEqualsHex(byte[] digest, CharSequence hex) {
+        int diff = 0;
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            int high = hexValue(hex.charAt(i * 2));
+            int low = hexValue(hex.charAt(i * 2 + 1));
+            diff |= ((high << 4) | low) ^ (digest[i] & 0xff);
+            diff |= (high | low) & 0x100;
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Branch-free hex decode: 0-15 for {@code [0-9a-fA-F]}, otherwise a value with bit 8 set.
+     */
+    private static int hexValue(char c) {
+        int digit = c - '0';
+        int lower = (c | 0x20) - 'a' + 10;
+        int isDigit = ((digit | (9 - digit)) >>> 31) ^ 1;
+        int isLetter = (((lower - 10) | (15 - lower)) >>> 31) ^ 1;
+        return (digit & -isDigit) | (lower & -isLetter) | (((isDigit | isLetter) ^ 1) << 8);
+    }
+
+    private static final class State {
+        private final Mac[] macs;
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+
+        private State(List<SecretKeySpec> keys) {
+            this.macs = new Mac[keys.size()];
+            try {
+                for (int i = 0; i < macs.length; i++) {
+                    macs[i] = Mac.getInstance(ALGORITHM);
+                    macs[i].init(keys.get(i));
+                }
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("HmacSHA256 is not available", ex);
+            }
+        }
+    }
+}
@@ -7,16 +7,14 @@ import com.ecommerce.platform.modules.checkout.payment.core.PaymentResponse;
 import com.ecommerce.platform.modules.checkout.payment.core.PaymentService;
 import com.ecommerce.platform.modules.checkout.payment.core.PaymentVerifyRequest;
 import com.ecommerce.platform.modules.checkout.payment.core.PaymentVerifyResponse;
+import com.ecommerce.platform.modules.checkout.payment.core.WebhookSignatureVerifier;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Instant;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
@@ -30,10 +28,12 @@ public class LoadTestPaymentService implements PaymentService {
 
     private final LoadTestPaymentProperties properties;
     private final ObjectMapper objectMapper;
+    private final WebhookSignatureVerifier signatureVerifier;
 
     public LoadTestPaymentService(LoadTestPaymentProperties properties, ObjectMapper objectMapper) {
         this.properties = properties;
         this.objectMapper = objectMapper;
+        this.signatureVerifier = WebhookSignatureVerifier.fromSecrets(properties.webhookSecret());
     }
 
     @Override
@@ -66,16 +66,14 @@ public class LoadTestPaymentService implements PaymentService {
 
     @Override
     public PaymentVerifyResponse verifyPayment(PaymentVerifyRequest request) {
-        if (properties.webhookSecret() == null || properties.webhookSecret().isBlank()) {
+        if (!signatureVerifier.isConfigured()) {
             throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Load-test webhook secret is not configured");
         }
         if (request.signature() == null || request.signature().isBlank()) {
             throw new ResponseStatusException(BAD_REQUEST, "Missing X-Signature header");
         }
 
-        String expectedSignature = hmacSha256Hex(properties.webhookSecret(), request.payload());
-        if (!MessageDigest.isEqual(expectedSignature.getBytes(StandardCharsets.UTF_8),
-                request.signature().getBytes(StandardCharsets.UTF_8))) {
+        if (!signatureVerifier.matches(request.payload(), request.signature())) {
             throw new ResponseStatusException(BAD_REQUEST, "Invalid load-test webhook signature");
         }
 
@@ -94,6 +92,7 @@ public class LoadTestPaymentService implements PaymentService {
                     isSupported(status),
                     sessionId,
                     paymentId,
+                    null,
                     status,
                     textOrDefault(root, "message", "Load-test webhook processed")
             );
@@ -155,19 +154,4 @@ public class LoadTestPaymentService implements PaymentService {
     private String urlEncode(String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
-
-    private String hmacSha256Hex(String secret, String payload) {
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-            byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(digest.length * 2);
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception ex) {
-            throw new ResponseStatusException(BAD_REQUEST, "Unable to verify load-test webhook signature");
-        }
-    }
 }
@@ -9,14 +9,12 @@ import com.ecommerce.platform.modules.checkout.payment.core.PaymentResponse;
 import com.ecommerce.platform.modules.checkout.payment.core.PaymentService;
 import com.ecommerce.platform.modules.checkout.payment.core.PaymentVerifyRequest;
 import com.ecommerce.platform.modules.checkout.payment.core.PaymentVerifyResponse;
+import com.ecommerce.platform.modules.checkout.payment.core.WebhookSignatureVerifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.UUID;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
@@ -27,10 +25,12 @@ public class RazorpayPaymentService implements PaymentService {
 
     private final RazorpayProperties razorpayProperties;
     private final ObjectMapper objectMapper;
+    private final WebhookSignatureVerifier signatureVerifier;
 
     public RazorpayPaymentService(RazorpayProperties razorpayProperties, ObjectMapper objectMapper) {
         this.razorpayProperties = razorpayProperties;
         this.objectMapper = objectMapper;
+        this.signatureVerifier = WebhookSignatureVerifier.fromSecrets(razorpayProperties.webhookSecret());
     }
 
     @Override
@@ -64,16 +64,14 @@ public class RazorpayPaymentService implements PaymentService {
 
     @Override
     public PaymentVerifyResponse verifyPayment(PaymentVerifyRequest request) {
-        if (razorpayProperties.webhookSecret() == null || razorpayProperties.webhookSecret().isBlank()) {
+        if (!signatureVerifier.isConfigured()) {
             throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Razorpay webhook secret is not configured");
         }
         if (request.signature() == null || request.signature().isBlank()) {
             throw new ResponseStatusException(BAD_REQUEST, "Missing X-Razorpay-Signature header");
         }
 
-        String expectedSignature = hmacSha256Hex(razorpayProperties.webhookSecret(), request.payload());
-        if (!MessageDigest.isEqual(expectedSignature.getBytes(StandardCharsets.UTF_8),
-                request.signature().getBytes(StandardCharsets.UTF_8))) {
+        if (!signatureVerifier.matches(request.payload(), request.signature())) {
             throw new ResponseStatusException(BAD_REQUEST, "Invalid Razorpay webhook signature");
         }
 
@@ -95,6 +93,7 @@ public class RazorpayPaymentService implements PaymentService {
                         true,
                         orderId,
                         paymentId,
+                        null,
                         PaymentStatus.SUCCEEDED,
                         "Razorpay payment captured"
                 );
@@ -108,6 +107,7 @@ public class RazorpayPaymentService implements PaymentService {
                         true,
                         orderId,
                         paymentId,
+                        null,
                         PaymentStatus.FAILED,
                         "Razorpay payment failed"
                 );
@@ -120,6 +120,7 @@ public class RazorpayPaymentService implements PaymentService {
                     false,
                     orderId,
                     paymentId,
+                    null,
                     PaymentStatus.PENDING,
                     "Unhandled Razorpay event type"
             );
@@ -140,19 +141,4 @@ public class RazorpayPaymentService implements PaymentService {
         }
         return value;
     }
-
-    private String hmacSha256Hex(String secret, String payload) {
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-            byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(digest.length * 2);
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception ex) {
-            throw new ResponseStatusException(BAD_REQUEST, "Unable to verify Razorpay webhook signature");
-        }
-    }
 }
@@ -1,20 +1,21 @@
 package com.ecommerce.platform.modules.checkout.payment.stripe;
 
+import com.ecommerce.platform.modules.checkout.payment.core.ProviderHttpClient;
+import com.ecommerce.platform.modules.checkout.payment.core.ProviderHttpClients;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
@@ -29,10 +30,20 @@ public class StripeCheckoutSessionGateway implements StripeCheckoutGateway {
 
     private final StripeProperties stripeProperties;
     private final ObjectMapper objectMapper;
+    private final ProviderHttpClient httpClient;
 
-    public StripeCheckoutSessionGateway(StripeProperties stripeProperties, ObjectMapper objectMapper) {
+    public StripeCheckoutSessionGateway(StripeProperties stripeProperties,
+                                        ObjectMapper objectMapper,
+                                        ProviderHttpClients providerHttpClients) {
         this.stripeProperties = stripeProperties;
         this.objectMapper = objectMapper;
+        this.httpClient = providerHttpClients.create(
+                "stripe",
+                stripeProperties.apiBaseUrl(),
+                Duration.ofMillis(stripeProperties.connectTimeoutMs()),
+                Duration.ofMillis(stripeProperties.readTimeoutMs()),
+                stripeProperties.http()
+        );
     }
 
     @Override
@@ -50,6 +61,7 @@ public class StripeCheckoutSessionGateway implements StripeCheckoutGateway {
         form.add("cancel_url", stripeProperties.cancelUrl());
         form.add("client_reference_id", String.valueOf(orderId));
         form.add("metadata[orderId]", String.valueOf(orderId));
+        form.add("payment_intent_data[metadata][orderId]", String.valueOf(orderId));
 
         for (int i = 0; i < lineItems.size(); i++) {
             StripeCheckoutLineItem item = lineItems.get(i);
@@ -59,17 +71,7 @@ public class StripeCheckoutSessionGateway implements StripeCheckoutGateway {
             form.add("line_items[" + i + "][quantity]", String.valueOf(item.quantity()));
         }
 
-        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(stripeProperties.connectTimeoutMs());
-        requestFactory.setReadTimeout(stripeProperties.readTimeoutMs());
-
-        RestClient restClient = RestClient.builder()
-                .baseUrl(stripeProperties.apiBaseUrl())
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + stripeProperties.secretKey())
-                .requestFactory(requestFactory)
-                .build();
-
-        String responseBody = executeWithRetry(restClient, form, idempotencyKey, orderId);
+        String responseBody = createSession(form, idempotencyKey, orderId);
 
         try {
             JsonNode root = objectMapper.readTree(responseBody);
@@ -93,52 +95,25 @@ public class StripeCheckoutSessionGateway implements StripeCheckoutGateway {
         }
     }
 
-    private String executeWithRetry(RestClient restClient,
-                                    MultiValueMap<String, String> form,
-                                    String idempotencyKey,
-                                    Long orderId) {
-        int maxAttempts = Math.max(1, stripeProperties.maxAttempts());
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            try {
-                return Objects.requireNonNull(restClient.post()
-                        .uri("/checkout/sessions")
-                        .header("Idempotency-Key", idempotencyKey)
-                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                        .body(form)
-                        .retrieve()
-                        .body(String.class), "Stripe response body must not be null");
-            } catch (RestClientResponseException ex) {
-                boolean retryable = ex.getStatusCode().is5xxServerError() && attempt < maxAttempts;
-                log.error(
-                        "Stripe Checkout Session creation failed for orderId={} attempt={}/{} status={} body={}",
-                        orderId,
-                        attempt,
-                        maxAttempts,
-                        ex.getStatusCode(),
-                        ex.getResponseBodyAsString(),
-                        ex
-                );
-                if (!retryable) {
-                    throw new ResponseStatusException(BAD_GATEWAY, "Failed to create Stripe checkout session");
-                }
-                sleepBeforeRetry();
-            } catch (Exception ex) {
-                log.error("Stripe Checkout Session creation failed unexpectedly for orderId={} attempt={}/{}",
-                        orderId, attempt, maxAttempts, ex);
-                if (attempt >= maxAttempts) {
-                    throw new ResponseStatusException(BAD_GATEWAY, "Failed to create Stripe checkout session");
-                }
-                sleepBeforeRetry();
-            }
-        }
-        throw new ResponseStatusException(BAD_GATEWAY, "Failed to create Stripe checkout session");
-    }
-
-    private void sleepBeforeRetry() {
+    private String createSession(MultiValueMap<String, String> form, String idempotencyKey, Long orderId) {
         try {
-            Thread.sleep(150L);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
+            return Objects.requireNonNull(httpClient.execute("create_checkout_session", restClient -> restClient.post()
+                    .uri("/checkout/sessions")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + stripeProperties.secretKey())
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(form)
+                    .retrieve()
+                    .body(String.class)), "Stripe response body must not be null");
+        } catch (ResponseStatusException ex) {
+            throw ex;
+        } catch (RestClientResponseException ex) {
+            log.error("Stripe Checkout Session creation failed for orderId={} status={} body={}",
+                    orderId, ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+            throw new ResponseStatusException(BAD_GATEWAY, "Failed to create Stripe checkout session");
+        } catch (Exception ex) {
+            log.error("Stripe Checkout Session creation failed unexpectedly for orderId={}", orderId, ex);
+            throw new ResponseStatusException(BAD_GATEWAY, "Failed to create Stripe checkout session");
         }
     }
 
@@ -65,6 +65,7 @@ public class StripePaymentService implements PaymentService {
                     true,
                     event.dataObject().path("id").asText(null),
                     blankToNull(event.dataObject().path("payment_intent").asText(null)),
+                    orderReference(event),
                     PaymentStatus.SUCCEEDED,
                     "Stripe checkout session completed"
             );
@@ -78,6 +79,7 @@ public class StripePaymentService implements PaymentService {
                     true,
                     event.dataObject().path("id").asText(null),
                     null,
+                    orderReference(event),
                     PaymentStatus.EXPIRED,
                     "Stripe checkout session expired"
             );
@@ -91,6 +93,7 @@ public class StripePaymentService implements PaymentService {
                     true,
                     null,
                     blankToNull(event.dataObject().path("id").asText(null)),
+                    orderReference(event),
                     PaymentStatus.FAILED,
                     "Stripe payment failed"
             );
@@ -103,11 +106,20 @@ public class StripePaymentService implements PaymentService {
                 false,
                 null,
                 null,
+                null,
                 PaymentStatus.PENDING,
                 "Unhandled Stripe event type"
         );
     }
 
+    /**
+     * Sessions carry the order id in their metadata, and the session copies it onto its
+     * PaymentIntent, so session and payment intent events of one checkout name the same order.
+     */
+    private String orderReference(StripeWebhookEvent event) {
+        return blankToNull(event.dataObject().path("metadata").path("orderId").asText(null));
+    }
+
     private String blankToNull(String value) {
         if (value == null || value.isBlank() || "null".equalsIgnoreCase(value)) {
             return null;
@@ -1,5 +1,6 @@
 package com.ecommerce.platform.modules.checkout.payment.stripe;
 
+import com.ecommerce.platform.modules.checkout.payment.core.ProviderHttpSettings;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 
@@ -14,6 +15,6 @@ public record StripeProperties(
         @DefaultValue("usd") String currency,
         @DefaultValue("3000") int connectTimeoutMs,
         @DefaultValue("10000") int readTimeoutMs,
-        @DefaultValue("2") int maxAttempts
+        @DefaultValue ProviderHttpSettings http
 ) {
 }
@@ -1,17 +1,15 @@
 package com.ecommerce.platform.modules.checkout.payment.stripe;
 
+import com.ecommerce.platform.modules.checkout.payment.core.WebhookSignatureVerifier;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
@@ -21,26 +19,36 @@ public class StripeWebhookVerifier {
 
     private static final long DEFAULT_TOLERANCE_SECONDS = 300;
 
-    private final StripeProperties stripeProperties;
     private final ObjectMapper objectMapper;
+    private final WebhookSignatureVerifier signatureVerifier;
 
     public StripeWebhookVerifier(StripeProperties stripeProperties, ObjectMapper objectMapper) {
-        this.stripeProperties = stripeProperties;
         this.objectMapper = objectMapper;
+        this.signatureVerifier = WebhookSignatureVerifier.fromSecrets(stripeProperties.webhookSecret());
     }
 
-    public StripeWebhookEvent verifyAndParse(String payload, String signatureHeader) {
-        if (stripeProperties.webhookSecret() == null || stripeProperties.webhookSecret().isBlank()) {
+    public StripeWebhookEvent verifyAndParse(byte[] payload, String signatureHeader) {
+        if (!signatureVerifier.isConfigured()) {
             throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Stripe webhook secret is not configured");
         }
         if (signatureHeader == null || signatureHeader.isBlank()) {
             throw new ResponseStatusException(BAD_REQUEST, "Missing Stripe-Signature header");
         }
 
-        Map<String, String> parts = parseSignatureHeader(signatureHeader);
-        String timestamp = parts.get("t");
-        String signature = parts.get("v1");
-        if (timestamp == null || signature == null) {
+        String timestamp = null;
+        List<String> signatures = new ArrayList<>(2);
+        for (String token : signatureHeader.split(",")) {
+            String[] kv = token.trim().split("=", 2);
+            if (kv.length != 2) {
+                continue;
+            }
+            if ("t".equals(kv[0])) {
+                timestamp = kv[1];
+            } else if ("v1".equals(kv[0])) {
+                signatures.add(kv[1]);
+            }
+        }
+        if (timestamp == null || signatures.isEmpty()) {
             throw new ResponseStatusException(BAD_REQUEST, "Invalid Stripe-Signature header");
         }
 
@@ -56,9 +64,13 @@ public class StripeWebhookVerifier {
             throw new ResponseStatusException(BAD_REQUEST, "Stripe signature timestamp outside tolerance");
         }
 
-        String signedPayload = timestamp + "." + payload;
-        String expectedSignature = hmacSha256Hex(stripeProperties.webhookSecret(), signedPayload);
-        if (!MessageDigest.isEqual(expectedSignature.getBytes(StandardCharsets.UTF_8), signature.getBytes(StandardCharsets.UTF_8))) {
+        // Stripe sends one v1 entry per active endpoint secret while a secret is being rolled.
+        byte[] signedPrefix = (timestamp + ".").getBytes(StandardCharsets.UTF_8);
+        boolean matched = false;
+        for (String signature : signatures) {
+            matched |= signatureVerifier.matches(signedPrefix, payload, signature);
+        }
+        if (!matched) {
             throw new ResponseStatusException(BAD_REQUEST, "Invalid Stripe webhook signature");
         }
 
@@ -77,31 +89,4 @@ public class StripeWebhookVerifier {
             throw new ResponseStatusException(BAD_REQUEST, "Unable to parse Stripe webhook payload");
         }
     }
-
-    private Map<String, String> parseSignatureHeader(String signatureHeader) {
-        Map<String, String> parts = new HashMap<>();
-        String[] tokens = signatureHeader.split(",");
-        for (String token : tokens) {
-            String[] kv = token.trim().split("=", 2);
-            if (kv.length == 2) {
-                parts.put(kv[0], kv[1]);
-            }
-        }
-        return parts;
-    }
-
-    private String hmacSha256Hex(String secret, String payload) {
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-            byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(digest.length * 2);
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception ex) {
-            throw new ResponseStatusException(BAD_REQUEST, "Unable to verify Stripe webhook signature");
-        }
-    }
 }
@@ -2,13 +2,37 @@ package com.ecommerce.platform.modules.checkout.repository;
 
 import com.ecommerce.platform.modules.checkout.model.CheckoutOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface CheckoutOrderRepository extends JpaRepository<CheckoutOrder, Long> {
 
     @Query("select o from CheckoutOrder o left join fetch o.paymentTransaction where o.id = :id")
     Optional<CheckoutOrder> findDetailedById(@Param("id") Long id);
+
+    /**
+     * Orders still awaiting payment whose transaction, among {@code transactionIds}, is EXPIRED.
+     * Callers hold the transaction row locks, which every payment status change takes first.
+     */
+    @Query("""
+            select t.order.id from PaymentTransaction t
+            where t.id in :transactionIds
+              and t.status = com.ecommerce.platform.modules.checkout.model.PaymentStatus.EXPIRED
+              and t.order.status = com.ecommerce.platform.modules.checkout.model.OrderStatus.PENDING_PAYMENT
+            """)
+    List<Long> findAwaitingPaymentWithExpiredTransaction(@Param("transactionIds") List<Long> transactionIds);
+
+    @Modifying
+    @Query("""
+            update CheckoutOrder o
+            set o.status = com.ecommerce.platform.modules.checkout.model.OrderStatus.EXPIRED, o.updatedAt = :now
+            where o.id in :ids
+              and o.status = com.ecommerce.platform.modules.checkout.model.OrderStatus.PENDING_PAYMENT
+            """)
+    int expireAwaitingPayment(@Param("ids") List<Long> ids, @Param("now") Instant now);
 }
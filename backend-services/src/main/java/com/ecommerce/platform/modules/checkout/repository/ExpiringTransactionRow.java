@@ -0,0 +1,9 @@
+package com.ecommerce.platform.modules.checkout.repository;
+
+import java.time.Instant;
+
+public record ExpiringTransactionRow(
+        Long transactionId,
+        Instant expiresAt
+) {
+}
@@ -1,11 +1,19 @@
 package com.ecommerce.platform.modules.checkout.repository;
 
 import com.ecommerce.platform.modules.checkout.model.PaymentProvider;
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
 import com.ecommerce.platform.modules.checkout.model.PaymentTransaction;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface PaymentTransactionRepository extends JpaRepository<PaymentTransaction, Long> {
@@ -18,4 +26,47 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<PaymentTransaction> findByProviderAndPaymentIntentId(PaymentProvider provider, String paymentIntentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from PaymentTransaction t join fetch t.order where t.id = :id")
+    Optional<PaymentTransaction> findLockedById(@Param("id") Long id);
+
+    @Query("""
+            select t.id from PaymentTransaction t
+            where t.status = :status
+              and t.createdAt < :createdBefore
+              and t.providerSessionId is null
+              and t.paymentIntentId is null
+            order by t.createdAt
+            """)
+    List<Long> findUnconfirmedIds(@Param("status") PaymentStatus status,
+                                  @Param("createdBefore") Instant createdBefore,
+                                  Pageable pageable);
+
+    /**
+     * Keyset page over {@code idx_payment_transactions_status_expires}, ordered by
+     * {@code (expires_at, id)} and starting after the given cursor.
+     */
+    @Query("""
+            select new com.ecommerce.platform.modules.checkout.repository.ExpiringTransactionRow(t.id, t.expiresAt)
+            from PaymentTransaction t
+            where t.status = :status
+              and t.expiresAt < :expiredBefore
+              and (t.expiresAt > :afterExpiresAt or (t.expiresAt = :afterExpiresAt and t.id > :afterId))
+            order by t.expiresAt, t.id
+            """)
+    List<ExpiringTransactionRow> findExpiredAfter(@Param("status") PaymentStatus status,
+                                                  @Param("expiredBefore") Instant expiredBefore,
+                                                  @Param("afterExpiresAt") Instant afterExpiresAt,
+                                                  @Param("afterId") Long afterId,
+                                                  Limit limit);
+
+    @Modifying
+    @Query("""
+            update PaymentTransaction t
+            set t.status = com.ecommerce.platform.modules.checkout.model.PaymentStatus.EXPIRED, t.updatedAt = :now
+            where t.id in :ids
+              and t.status = com.ecommerce.platform.modules.checkout.model.PaymentStatus.PENDING
+            """)
+    int expirePending(@Param("ids") List<Long> ids, @Param("now") Instant now);
 }
@@ -0,0 +1,73 @@
+package com.ecommerce.platform.modules.checkout.repository;
+
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxEvent;
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, Long> {
+    boolean existsByEventId(String eventId);
+
+    boolean existsByPartitionKeyAndStatusAndIdLessThan(String partitionKey, WebhookInboxStatus status, Long id);
+
+    /**
+     * Locks due rows for the caller's transaction; rows another node already holds are skipped
+     * rather than waited on.
+     */
+    @Query(value = """
+            SELECT * FROM payment_webhook_inbox
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WebhookInboxEvent> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update WebhookInboxEvent e
+            set e.status = com.ecommerce.platform.modules.checkout.model.WebhookInboxStatus.PROCESSED,
+                e.processedAt = :now, e.lastError = null
+            where e.id = :id
+            """)
+    int markProcessed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update WebhookInboxEvent e set e.nextAttemptAt = :nextAttemptAt, e.lastError = :error where e.id = :id")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update WebhookInboxEvent e
+            set e.nextAttemptAt = :nextAttemptAt, e.attempts = e.attempts - 1
+            where e.id = :id
+            """)
+    int release(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update WebhookInboxEvent e
+            set e.status = com.ecommerce.platform.modules.checkout.model.WebhookInboxStatus.DEAD, e.lastError = :error
+            where e.id = :id
+            """)
+    int markDead(@Param("id") Long id, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM payment_webhook_inbox
+            WHERE status = 'PROCESSED' AND processed_at < :processedBefore
+            LIMIT :limit
+            """, nativeQuery = true)
+    int deleteProcessedBefore(@Param("processedBefore") Instant processedBefore, @Param("limit") int limit);
+}
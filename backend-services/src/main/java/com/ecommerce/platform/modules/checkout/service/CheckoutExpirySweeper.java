@@ -0,0 +1,144 @@
+package com.ecommerce.platform.modules.checkout.service;
+
+import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
+import com.ecommerce.platform.modules.checkout.model.OrderStatus;
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
+import com.ecommerce.platform.modules.checkout.repository.CheckoutOrderRepository;
+import com.ecommerce.platform.modules.checkout.repository.ExpiringTransactionRow;
+import com.ecommerce.platform.modules.checkout.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Expires checkouts whose provider session ran out without an expiry webhook reaching us. Walks
+ * PENDING transactions past {@code expires_at} plus a grace period in {@code (expires_at, id)}
+ * keyset order and expires each page, transaction and order, with bulk updates in one short
+ * transaction. The updates re-check the status, so a payment that lands concurrently wins, and a
+ * later success webhook still moves an expired checkout to PAID. Each expired order is announced
+ * with a {@link CheckoutStatusChangedEvent} once its batch has committed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.checkout.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class CheckoutExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutExpirySweeper.class);
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final CheckoutOrderRepository checkoutOrderRepository;
+    private final TransactionTemplate batchTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration grace;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expiredTransactions;
+    private final Counter expiredOrders;
+    private final Timer sweepTimer;
+
+    public CheckoutExpirySweeper(PaymentTransactionRepository paymentTransactionRepository,
+                                 CheckoutOrderRepository checkoutOrderRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.checkout.expiry.grace-ms:300000}") long graceMs,
+                                 @Value("${app.checkout.expiry.batch-size:500}") int batchSize,
+                                 @Value("${app.checkout.expiry.max-batches:20}") int maxBatches) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.checkoutOrderRepository = checkoutOrderRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.grace = Duration.ofMillis(graceMs);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.expiredTransactions = Counter.builder("checkout.expiry.expired")
+                .description("Pending checkouts expired by the sweep")
+                .tag("entity", "transaction")
+                .register(meterRegistry);
+        this.expiredOrders = Counter.builder("checkout.expiry.expired")
+                .description("Pending checkouts expired by the sweep")
+                .tag("entity", "order")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("checkout.expiry.sweep")
+                .description("Duration of one checkout expiry sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.checkout.expiry.sweep-ms:60000}",
+            fixedDelayString = "${app.checkout.expiry.sweep-ms:60000}"
+    )
+    public void sweep() {
+        sweepTimer.record(this::sweepOnce);
+    }
+
+    private void sweepOnce() {
+        Instant expiredBefore = Instant.now().minus(grace);
+        Instant afterExpiresAt = Instant.EPOCH;
+        long afterId = 0;
+        int transactions = 0;
+        int orders = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                List<ExpiringTransactionRow> page = paymentTransactionRepository.findExpiredAfter(
+                        PaymentStatus.PENDING, expiredBefore, afterExpiresAt, afterId, Limit.of(batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = page.stream().map(ExpiringTransactionRow::transactionId).toList();
+                ExpiredBatch expired = batchTransaction.execute(status -> {
+                    Instant now = Instant.now();
+                    int expiredTransactionCount = paymentTransactionRepository.expirePending(ids, now);
+                    // The update above holds the transaction row locks, so these orders cannot be paid meanwhile.
+                    List<Long> orderIds = checkoutOrderRepository.findAwaitingPaymentWithExpiredTransaction(ids);
+                    if (!orderIds.isEmpty()) {
+                        checkoutOrderRepository.expireAwaitingPayment(orderIds, now);
+                    }
+                    return new ExpiredBatch(expiredTransactionCount, orderIds);
+                });
+                transactions += expired.transactions();
+                orders += expired.orderIds().size();
+                expiredTransactions.increment(expired.transactions());
+                expiredOrders.increment(expired.orderIds().size());
+                expired.orderIds().forEach(this::publishExpired);
+
+                ExpiringTransactionRow last = page.getLast();
+                afterExpiresAt = last.expiresAt();
+                afterId = last.transactionId();
+                if (page.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Checkout expiry sweep stopped early: {}", ex.getMessage());
+        }
+        if (transactions > 0) {
+            log.info("Checkout expiry sweep expired {} transactions and {} orders", transactions, orders);
+        }
+    }
+
+    private void publishExpired(Long orderId) {
+        eventPublisher.publishEvent(new CheckoutStatusChangedEvent(new CheckoutStatusResponse(
+                orderId,
+                OrderStatus.EXPIRED.name(),
+                PaymentStatus.EXPIRED.name(),
+                CheckoutService.statusMessage(OrderStatus.EXPIRED, PaymentStatus.EXPIRED)
+        )));
+    }
+
+    private record ExpiredBatch(int transactions, List<Long> orderIds) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.platform.modules.checkout.service;
+
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
+import com.ecommerce.platform.modules.checkout.repository.PaymentTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fails checkouts that were committed as PENDING but never got a provider session recorded,
+ * which happens when a node dies or the confirming transaction fails between the provider call
+ * and the second checkout stage. Only transactions older than {@code stale-after-ms} are
+ * considered, well past any provider timeout, and each one is re-checked under a row lock so a
+ * late confirmation always wins.
+ */
+@Component
+public class CheckoutRecoverySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutRecoverySweeper.class);
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final CheckoutService checkoutService;
+    private final Duration staleAfter;
+    private final int batchSize;
+
+    public CheckoutRecoverySweeper(PaymentTransactionRepository paymentTransactionRepository,
+                                   CheckoutService checkoutService,
+                                   @Value("${app.checkout.recovery.stale-after-ms:900000}") long staleAfterMs,
+                                   @Value("${app.checkout.recovery.batch-size:100}") int batchSize) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.checkoutService = checkoutService;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.checkout.recovery.sweep-ms:60000}",
+            fixedDelayString = "${app.checkout.recovery.sweep-ms:60000}"
+    )
+    public void sweep() {
+        List<Long> transactionIds;
+        try {
+            transactionIds = paymentTransactionRepository.findUnconfirmedIds(
+                    PaymentStatus.PENDING,
+                    Instant.now().minus(staleAfter),
+                    PageRequest.of(0, batchSize)
+            );
+        } catch (RuntimeException ex) {
+            log.warn("Checkout recovery sweep skipped: {}", ex.getMessage());
+            return;
+        }
+
+        int failed = 0;
+        for (Long transactionId : transactionIds) {
+            try {
+                if (checkoutService.failUnconfirmedCheckout(transactionId, "Checkout did not complete with the payment provider")) {
+                    failed++;
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Checkout recovery failed for transactionId={}: {}", transactionId, ex.getMessage());
+            }
+        }
+        if (failed > 0) {
+            log.info("Checkout recovery marked {} stalled checkouts as failed", failed);
+        }
+    }
+}
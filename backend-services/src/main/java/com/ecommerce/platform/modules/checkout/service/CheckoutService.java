@@ -3,6 +3,8 @@ package com.ecommerce.platform.modules.checkout.service;
 import com.ecommerce.platform.modules.cart.dto.CartItemDto;
 import com.ecommerce.platform.modules.cart.dto.CartResponse;
 import com.ecommerce.platform.modules.cart.service.CartService;
+import com.ecommerce.platform.modules.catalog.api.CatalogApi;
+import com.ecommerce.platform.modules.catalog.api.CatalogCartProduct;
 import com.ecommerce.platform.modules.checkout.dto.CheckoutResponse;
 import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
 import com.ecommerce.platform.modules.checkout.model.*;
@@ -17,16 +19,23 @@ import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
 import com.ecommerce.platform.modules.checkout.repository.CheckoutOrderRepository;
 import com.ecommerce.platform.modules.checkout.repository.PaymentTransactionRepository;
 import com.ecommerce.platform.modules.checkout.repository.WebhookEventLogRepository;
+import com.ecommerce.platform.modules.pricing.api.PricedLine;
+import com.ecommerce.platform.modules.pricing.api.PricingEngine;
+import com.ecommerce.platform.modules.pricing.api.PricingLine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,44 +46,116 @@ public class CheckoutService {
     private static final Logger log = LoggerFactory.getLogger(CheckoutService.class);
 
     private final CartService cartService;
+    private final CatalogApi catalogApi;
+    private final PricingEngine pricingEngine;
     private final CheckoutOrderRepository checkoutOrderRepository;
     private final PaymentTransactionRepository paymentTransactionRepository;
     private final WebhookEventLogRepository webhookEventLogRepository;
     private final PaymentServiceResolver paymentServiceResolver;
     private final String defaultCurrency;
+    private final WebhookInbox webhookInbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CheckoutService(CartService cartService,
+                           CatalogApi catalogApi,
+                           PricingEngine pricingEngine,
                            CheckoutOrderRepository checkoutOrderRepository,
                            PaymentTransactionRepository paymentTransactionRepository,
                            WebhookEventLogRepository webhookEventLogRepository,
                            PaymentServiceResolver paymentServiceResolver,
+                           WebhookInbox webhookInbox,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
                            @Value("${app.payment.default-currency:usd}") String defaultCurrency) {
         this.cartService = cartService;
+        this.catalogApi = catalogApi;
+        this.pricingEngine = pricingEngine;
         this.checkoutOrderRepository = checkoutOrderRepository;
         this.paymentTransactionRepository = paymentTransactionRepository;
         this.webhookEventLogRepository = webhookEventLogRepository;
         this.paymentServiceResolver = paymentServiceResolver;
+        this.webhookInbox = webhookInbox;
         this.defaultCurrency = defaultCurrency;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional
+    /**
+     * Runs checkout as three stages so no database connection is held across the provider call:
+     * the order and a PENDING transaction are committed first, the provider is called with no
+     * transaction open, and its result is applied in a second short transaction. A transaction
+     * left PENDING without provider references by a crash between the stages is failed later by
+     * {@link CheckoutRecoverySweeper}.
+     */
     public CheckoutResponse createCheckoutSession(AuthenticatedUser user) {
+        cartService.flushPendingWrites(user.getId());
         CartResponse cart = cartService.getCart(user);
         if (cart.items().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cart is empty");
         }
 
         CheckoutOrder order = buildOrderSnapshot(user, cart);
+        PaymentService paymentService = paymentServiceResolver.resolveConfigured();
+        PendingCheckout pending = Objects.requireNonNull(
+                transactionTemplate.execute(status -> openCheckout(order, paymentService.getProvider())),
+                "Pending checkout must not be null"
+        );
+
+        PaymentResponse response;
+        try {
+            response = paymentService.createPayment(pending.request());
+        } catch (RuntimeException ex) {
+            String reason = ex instanceof ResponseStatusException statusException ? statusException.getReason() : ex.getMessage();
+            try {
+                transactionTemplate.executeWithoutResult(status -> failUnconfirmedCheckout(pending.transactionId(), reason));
+            } catch (RuntimeException markFailure) {
+                log.warn("Could not mark checkout transactionId={} failed, leaving it to the recovery sweep: {}",
+                        pending.transactionId(), markFailure.getMessage());
+            }
+            throw ex;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> confirmCheckout(pending.transactionId(), response));
+        return new CheckoutResponse(
+                pending.orderId(),
+                OrderStatus.PENDING_PAYMENT.name(),
+                response.checkoutUrl(),
+                response.expiresAt() != null ? response.expiresAt().toString() : null
+        );
+    }
+
+    /**
+     * Fails a transaction that is still PENDING with no provider reference, together with its
+     * order. Returns false when the transaction has moved on in the meantime.
+     */
+    @Transactional
+    public boolean failUnconfirmedCheckout(Long transactionId, String reason) {
+        PaymentTransaction transaction = paymentTransactionRepository.findLockedById(transactionId).orElse(null);
+        if (transaction == null || !isUnconfirmed(transaction)) {
+            return false;
+        }
+        transaction.setStatus(PaymentStatus.FAILED);
+        transaction.setFailureReason(truncate(reason));
+        paymentTransactionRepository.save(transaction);
+        CheckoutOrder order = transaction.getOrder();
+        if (order.getStatus() == OrderStatus.PENDING_PAYMENT) {
+            order.setStatus(OrderStatus.FAILED);
+            checkoutOrderRepository.save(order);
+        }
+        publishStatusChange(order, transaction.getStatus());
+        return true;
+    }
+
+    private PendingCheckout openCheckout(CheckoutOrder order, PaymentProvider provider) {
         CheckoutOrder savedOrder = Objects.requireNonNull(
                 checkoutOrderRepository.save(order),
                 "Saved order must not be null"
         );
 
-        PaymentService paymentService = paymentServiceResolver.resolveConfigured();
-
         PaymentTransaction transaction = new PaymentTransaction();
         transaction.setOrder(savedOrder);
-        transaction.setProvider(paymentService.getProvider());
+        transaction.setProvider(provider);
         transaction.setStatus(PaymentStatus.PENDING);
         transaction.setIdempotencyKey(UUID.randomUUID().toString());
         paymentTransactionRepository.save(transaction);
@@ -84,39 +165,38 @@ public class CheckoutService {
         PaymentRequest paymentRequest = new PaymentRequest(
                 savedOrder.getId(),
                 savedOrder.getCurrency(),
-                cart.items().stream()
-                        .map(item -> new PaymentLineItem(item.title(), item.finalPrice(), item.quantity()))
+                savedOrder.getItems().stream()
+                        .map(item -> new PaymentLineItem(item.getTitle(), item.getFinalUnitPrice(), item.getQuantity()))
                         .toList(),
                 transaction.getIdempotencyKey()
         );
+        return new PendingCheckout(savedOrder.getId(), transaction.getId(), paymentRequest);
+    }
 
-        try {
-            PaymentResponse response = paymentService.createPayment(paymentRequest);
-            if (response.provider() != null) {
-                transaction.setProvider(response.provider());
-            }
-            if (response.status() != null) {
-                transaction.setStatus(response.status());
-            }
-            transaction.setProviderSessionId(blankToNull(response.providerReferenceId()));
-            transaction.setPaymentIntentId(blankToNull(response.paymentReferenceId()));
-            transaction.setExpiresAt(response.expiresAt());
-            paymentTransactionRepository.save(transaction);
-
-            return new CheckoutResponse(
-                    savedOrder.getId(),
-                    savedOrder.getStatus().name(),
-                    response.checkoutUrl(),
-                    response.expiresAt() != null ? response.expiresAt().toString() : null
-            );
-        } catch (ResponseStatusException ex) {
-            transaction.setStatus(PaymentStatus.FAILED);
-            transaction.setFailureReason(ex.getReason());
-            paymentTransactionRepository.save(transaction);
-            savedOrder.setStatus(OrderStatus.FAILED);
-            checkoutOrderRepository.save(savedOrder);
-            throw ex;
+    private void confirmCheckout(Long transactionId, PaymentResponse response) {
+        PaymentTransaction transaction = paymentTransactionRepository.findLockedById(transactionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Checkout no longer exists"));
+        if (!isUnconfirmed(transaction)) {
+            log.warn("Provider session for transactionId={} arrived after it left PENDING (status={})",
+                    transactionId, transaction.getStatus());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Checkout was abandoned, please try again");
+        }
+        if (response.provider() != null) {
+            transaction.setProvider(response.provider());
         }
+        if (response.status() != null) {
+            transaction.setStatus(response.status());
+        }
+        transaction.setProviderSessionId(blankToNull(response.providerReferenceId()));
+        transaction.setPaymentIntentId(blankToNull(response.paymentReferenceId()));
+        transaction.setExpiresAt(response.expiresAt());
+        paymentTransactionRepository.save(transaction);
+    }
+
+    private boolean isUnconfirmed(PaymentTransaction transaction) {
+        return transaction.getStatus() == PaymentStatus.PENDING
+                && transaction.getProviderSessionId() == null
+                && transaction.getPaymentIntentId() == null;
     }
 
     @Transactional(readOnly = true)
@@ -134,16 +214,14 @@ public class CheckoutService {
                 .map(PaymentTransaction::getStatus)
                 .orElse(PaymentStatus.PENDING);
 
-        return new CheckoutStatusResponse(
-                order.getId(),
-                order.getStatus().name(),
-                paymentStatus.name(),
-                statusMessage(order.getStatus(), paymentStatus)
-        );
+        return toStatusResponse(order, paymentStatus);
     }
 
-    @Transactional
-    public void processPaymentWebhook(String gateway, String payload, String signatureHeader) {
+    /**
+     * Verifies the webhook and appends it to the inbox; the state change is applied later by
+     * {@link WebhookInboxWorkerPool}, so the provider is acknowledged without waiting on row locks.
+     */
+    public void acceptPaymentWebhook(String gateway, byte[] payload, String signatureHeader) {
         PaymentService paymentService = paymentServiceResolver.resolveByGateway(gateway);
         PaymentVerifyResponse event = paymentService.verifyPayment(new PaymentVerifyRequest(payload, signatureHeader));
 
@@ -153,23 +231,37 @@ public class CheckoutService {
         }
 
         String eventId = paymentService.getProvider().name() + ":" + event.eventId();
-        try {
-            webhookEventLogRepository.saveAndFlush(new WebhookEventLog(eventId, event.eventType()));
-            applyWebhookTransition(paymentService.getProvider(), eventId, event);
-        } catch (DataIntegrityViolationException ex) {
-            log.info("Ignoring duplicate webhook race eventId={}", eventId);
+        if (!webhookInbox.append(eventId, paymentService.getProvider(), event, new String(payload, StandardCharsets.UTF_8))) {
+            log.info("Ignoring duplicate webhook eventId={}", eventId);
         }
     }
 
-    private void applyWebhookTransition(PaymentProvider provider, String eventId, PaymentVerifyResponse event) {
-        PaymentTransaction transaction = findTransaction(provider, event)
-                .orElse(null);
-
-        if (transaction == null) {
-            log.warn("Webhook event points to unknown transaction provider={} ref={} paymentRef={}",
-                    provider, event.providerReferenceId(), event.paymentReferenceId());
+    @Transactional
+    public void applyPaymentEvent(WebhookInboxEvent inboxEvent) {
+        String eventId = inboxEvent.getEventId();
+        if (webhookEventLogRepository.existsByEventId(eventId)) {
+            log.info("Ignoring already applied webhook eventId={}", eventId);
             return;
         }
+        webhookEventLogRepository.saveAndFlush(new WebhookEventLog(eventId, inboxEvent.getEventType()));
+        applyWebhookTransition(inboxEvent.getProvider(), eventId, new PaymentVerifyResponse(
+                inboxEvent.getProvider(),
+                eventId,
+                inboxEvent.getEventType(),
+                true,
+                inboxEvent.getProviderReferenceId(),
+                inboxEvent.getPaymentReferenceId(),
+                null,
+                inboxEvent.getPaymentStatus(),
+                inboxEvent.getMessage()
+        ));
+    }
+
+    private void applyWebhookTransition(PaymentProvider provider, String eventId, PaymentVerifyResponse event) {
+        // Unknown references are retried: the event can beat the checkout's confirming transaction.
+        PaymentTransaction transaction = findTransaction(provider, event)
+                .orElseThrow(() -> new IllegalStateException("Webhook event points to unknown transaction provider="
+                        + provider + " ref=" + event.providerReferenceId() + " paymentRef=" + event.paymentReferenceId()));
 
         if (transaction.getStatus() == PaymentStatus.SUCCEEDED) {
             return;
@@ -194,6 +286,7 @@ public class CheckoutService {
             cartService.clearByUserId(
                     order.getUserId()
             );
+            publishStatusChange(order, PaymentStatus.SUCCEEDED);
             return;
         }
 
@@ -204,6 +297,7 @@ public class CheckoutService {
                 order.setStatus(OrderStatus.EXPIRED);
                 checkoutOrderRepository.save(order);
             }
+            publishStatusChange(order, PaymentStatus.EXPIRED);
             return;
         }
 
@@ -215,9 +309,26 @@ public class CheckoutService {
                 order.setStatus(OrderStatus.FAILED);
                 checkoutOrderRepository.save(order);
             }
+            publishStatusChange(order, PaymentStatus.FAILED);
         }
     }
 
+    /**
+     * Delivered to {@link CheckoutStatusNotifier} after commit, which wakes parked status requests.
+     */
+    private void publishStatusChange(CheckoutOrder order, PaymentStatus paymentStatus) {
+        eventPublisher.publishEvent(new CheckoutStatusChangedEvent(toStatusResponse(order, paymentStatus)));
+    }
+
+    private CheckoutStatusResponse toStatusResponse(CheckoutOrder order, PaymentStatus paymentStatus) {
+        return new CheckoutStatusResponse(
+                order.getId(),
+                order.getStatus().name(),
+                paymentStatus.name(),
+                statusMessage(order.getStatus(), paymentStatus)
+        );
+    }
+
     private Optional<PaymentTransaction> findTransaction(PaymentProvider provider, PaymentVerifyResponse event) {
         String providerReference = blankToNull(event.providerReferenceId());
         if (providerReference != null) {
@@ -236,38 +347,49 @@ public class CheckoutService {
         return Optional.empty();
     }
 
+    /**
+     * Re-prices the cart from the catalog's current unit prices and the pricing engine's current
+     * discounts instead of trusting the cached cart response, so neither a price change nor a
+     * discount that ended since the cart was cached is charged at the old amount.
+     */
     private CheckoutOrder buildOrderSnapshot(AuthenticatedUser user, CartResponse cart) {
         CheckoutOrder order = new CheckoutOrder();
         order.setUserId(user.getId());
         order.setStatus(OrderStatus.PENDING_PAYMENT);
         order.setCurrency(resolveCurrency());
-        order.setTotalAmount(BigDecimal.ZERO);
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (CartItemDto item : cart.items()) {
+        Map<Long, CatalogCartProduct> products = catalogApi.getProductsForCart(
+                cart.items().stream().map(CartItemDto::id).toList());
+        List<PricedLine> pricedLines = pricingEngine.priceCart(user, cart.items().stream()
+                .map(item -> new PricingLine(
+                        item.id(),
+                        currentProduct(products, item.id()).price(),
+                        item.quantity(),
+                        item.productDiscount() != null ? item.productDiscount().id() : null
+                ))
+                .toList());
+
+        long totalCents = 0;
+        for (PricedLine priced : pricedLines) {
             CheckoutOrderItem snapshot = new CheckoutOrderItem();
-            snapshot.setProductId(item.id());
-            snapshot.setTitle(item.title());
-            snapshot.setUnitPrice(item.price());
-            snapshot.setFinalUnitPrice(item.finalPrice());
-            snapshot.setQuantity(item.quantity());
-            snapshot.setProductDiscountPercentage(item.productDiscount() != null ? item.productDiscount().percentage() : BigDecimal.ZERO);
-            snapshot.setUserDiscountPercentage(defaultDecimal(item.userDiscountPercentage()));
-            snapshot.setEmployeeDiscountPercentage(defaultDecimal(item.employeeDiscountPercentage()));
-            snapshot.setTotalDiscountPercentage(defaultDecimal(item.totalDiscountPercentage()));
+            snapshot.setProductId(priced.productId());
+            snapshot.setTitle(products.get(priced.productId()).name());
+            snapshot.setUnitPrice(priced.unitPrice());
+            snapshot.setFinalUnitPrice(priced.finalUnitPrice());
+            snapshot.setQuantity(priced.quantity());
+            snapshot.setProductDiscountPercentage(priced.productDiscountPercentage());
+            snapshot.setUserDiscountPercentage(priced.userDiscountPercentage());
+            snapshot.setEmployeeDiscountPercentage(priced.employeeDiscountPercentage());
+            snapshot.setTotalDiscountPercentage(priced.totalDiscountPercentage());
             order.addItem(snapshot);
 
-            totalAmount = totalAmount.add(item.finalPrice().multiply(BigDecimal.valueOf(item.quantity())));
+            totalCents += priced.lineTotalCents();
         }
-        order.setTotalAmount(totalAmount);
+        order.setTotalAmount(PricedLine.amount(totalCents));
         return order;
     }
 
-    private BigDecimal defaultDecimal(BigDecimal value) {
-        return value == null ? BigDecimal.ZERO : value;
-    }
-
-    private String statusMessage(OrderStatus orderStatus, PaymentStatus paymentStatus) {
+    static String statusMessage(OrderStatus orderStatus, PaymentStatus paymentStatus) {
         if (orderStatus == OrderStatus.PAID && paymentStatus == PaymentStatus.SUCCEEDED) {
             return "Payment completed";
         }
@@ -280,6 +402,14 @@ public class CheckoutService {
         return "Awaiting payment";
     }
 
+    private CatalogCartProduct currentProduct(Map<Long, CatalogCartProduct> products, Long productId) {
+        CatalogCartProduct product = products.get(productId);
+        if (product == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A product in the cart is no longer available");
+        }
+        return product;
+    }
+
     private String blankToNull(String value) {
         if (value == null || value.isBlank() || "null".equalsIgnoreCase(value)) {
             return null;
@@ -287,10 +417,20 @@ public class CheckoutService {
         return value;
     }
 
+    private String truncate(String reason) {
+        if (reason == null || reason.length() <= 512) {
+            return reason;
+        }
+        return reason.substring(0, 512);
+    }
+
     private String resolveCurrency() {
         if (defaultCurrency == null || defaultCurrency.isBlank()) {
             return "usd";
         }
         return defaultCurrency.trim().toLowerCase();
     }
+
+    private record PendingCheckout(Long orderId, Long transactionId, PaymentRequest request) {
+    }
 }
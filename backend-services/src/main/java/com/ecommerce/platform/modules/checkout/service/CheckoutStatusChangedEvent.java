@@ -0,0 +1,10 @@
+package com.ecommerce.platform.modules.checkout.service;
+
+import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
+
+/**
+ * Published when a checkout's order or payment status changes; carries the new status so waiting
+ * requests can be answered without reading the order again.
+ */
+public record CheckoutStatusChangedEvent(CheckoutStatusResponse status) {
+}
@@ -0,0 +1,200 @@
+package com.ecommerce.platform.modules.checkout.service;
+
+import com.ecommerce.platform.common.error.ServiceBusyException;
+import com.ecommerce.platform.config.RedisPubSub;
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
+import com.ecommerce.platform.modules.checkout.model.OrderStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Parks checkout status requests until the order changes instead of having the client poll.
+ * Waiters register per order id on this node; a committed {@link CheckoutStatusChangedEvent}
+ * wakes the local ones and is fanned out over Redis, as JSON so null fields survive, to the
+ * other nodes. Waiters are answered from the event itself, so a wake costs no database read. If
+ * Redis drops a message the waiter times out with its last known status and the client asks
+ * again.
+ */
+@Component
+public class CheckoutStatusNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutStatusNotifier.class);
+
+    private final CheckoutService checkoutService;
+    private final RedisPubSub redisPubSub;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration waitTimeout;
+    private final Duration streamTimeout;
+    private final int maxWaiters;
+    private final Map<Long, Set<Consumer<CheckoutStatusResponse>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CheckoutStatusNotifier(CheckoutService checkoutService,
+                                  RedisPubSub redisPubSub,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.checkout.status-wait.channel:checkout:status}") String channel,
+                                  @Value("${app.checkout.status-wait.timeout-ms:25000}") long timeoutMs,
+                                  @Value("${app.checkout.status-wait.stream-timeout-ms:55000}") long streamTimeoutMs,
+                                  @Value("${app.checkout.status-wait.max-waiters:10000}") int maxWaiters) {
+        this.checkoutService = checkoutService;
+        this.redisPubSub = redisPubSub;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.waitTimeout = Duration.ofMillis(timeoutMs);
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMs);
+        this.maxWaiters = maxWaiters;
+        Gauge.builder("checkout.status.waiters", waiterCount, AtomicInteger::get)
+                .description("Checkout status requests parked on this node")
+                .register(meterRegistry);
+        redisPubSub.subscribe(channel, this::onRemoteChange);
+    }
+
+    /**
+     * Long poll: answers at once when the order status differs from {@code knownStatus}, otherwise
+     * when it next changes or the wait times out, whichever comes first.
+     */
+    public DeferredResult<ResponseEntity<CheckoutStatusResponse>> awaitChange(Long orderId,
+                                                                              AuthenticatedUser requester,
+                                                                              String knownStatus) {
+        DeferredResult<ResponseEntity<CheckoutStatusResponse>> result = new DeferredResult<>(waitTimeout.toMillis());
+        // Registered before the read, so a change committed in between is not missed.
+        Runnable unregister = register(orderId, status -> result.setResult(ResponseEntity.ok(status)));
+        result.onCompletion(unregister);
+        CheckoutStatusResponse current = read(orderId, requester, unregister);
+        if (knownStatus == null || knownStatus.isBlank() || !knownStatus.equalsIgnoreCase(current.status())) {
+            result.setResult(ResponseEntity.ok(current));
+        } else {
+            result.onTimeout(() -> result.setResult(ResponseEntity.ok(current)));
+        }
+        return result;
+    }
+
+    /**
+     * Server-sent events: sends the current status, then every change, and completes once the
+     * order leaves {@code PENDING_PAYMENT} or the stream times out.
+     */
+    public SseEmitter stream(Long orderId, AuthenticatedUser requester) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicBoolean closed = new AtomicBoolean();
+        Runnable unregister = register(orderId, status -> send(emitter, closed, status));
+        emitter.onCompletion(unregister);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> unregister.run());
+        send(emitter, closed, read(orderId, requester, unregister));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(CheckoutStatusChangedEvent event) {
+        CheckoutStatusResponse status = event.status();
+        wake(status);
+        try {
+            redisPubSub.publish(channel, objectMapper.writeValueAsString(new StatusNotification(nodeId, status)));
+        } catch (JsonProcessingException ex) {
+            log.warn("Checkout status notification not published for order {}: {}", status.orderId(), ex.getMessage());
+        }
+    }
+
+    private void onRemoteChange(String message) {
+        try {
+            StatusNotification notification = objectMapper.readValue(message, StatusNotification.class);
+            if (!nodeId.equals(notification.nodeId()) && notification.status() != null) {
+                wake(notification.status());
+            }
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Checkout status notification ignored for message={}: {}", message, ex.getMessage());
+        }
+    }
+
+    private void wake(CheckoutStatusResponse status) {
+        Set<Consumer<CheckoutStatusResponse>> orderWaiters = waiters.get(status.orderId());
+        if (orderWaiters == null) {
+            return;
+        }
+        for (Consumer<CheckoutStatusResponse> waiter : orderWaiters) {
+            try {
+                waiter.accept(status);
+            } catch (RuntimeException ex) {
+                log.debug("Checkout status waiter for order {} failed: {}", status.orderId(), ex.getMessage());
+            }
+        }
+    }
+
+    private Runnable register(Long orderId, Consumer<CheckoutStatusResponse> waiter) {
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            throw new ServiceBusyException("Too many checkout status requests are waiting", Duration.ofSeconds(2));
+        }
+        waiters.compute(orderId, (id, orderWaiters) -> {
+            Set<Consumer<CheckoutStatusResponse>> updated = orderWaiters == null ? ConcurrentHashMap.newKeySet() : orderWaiters;
+            updated.add(waiter);
+            return updated;
+        });
+        AtomicBoolean registered = new AtomicBoolean(true);
+        return () -> {
+            if (!registered.compareAndSet(true, false)) {
+                return;
+            }
+            waiterCount.decrementAndGet();
+            waiters.computeIfPresent(orderId, (id, orderWaiters) -> {
+                orderWaiters.remove(waiter);
+                return orderWaiters.isEmpty() ? null : orderWaiters;
+            });
+        };
+    }
+
+    private CheckoutStatusResponse read(Long orderId, AuthenticatedUser requester, Runnable unregister) {
+        try {
+            return checkoutService.getOrderStatus(orderId, requester);
+        } catch (RuntimeException ex) {
+            unregister.run();
+            throw ex;
+        }
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean closed, CheckoutStatusResponse status) {
+        synchronized (closed) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("status").data(status, MediaType.APPLICATION_JSON));
+                if (!OrderStatus.PENDING_PAYMENT.name().equals(status.status())) {
+                    closed.set(true);
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                closed.set(true);
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+
+    private record StatusNotification(String nodeId, CheckoutStatusResponse status) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.platform.modules.checkout.service;
+
+import com.ecommerce.platform.modules.checkout.model.PaymentProvider;
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxEvent;
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxStatus;
+import com.ecommerce.platform.modules.checkout.payment.core.PaymentVerifyResponse;
+import com.ecommerce.platform.modules.checkout.repository.WebhookInboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable inbox for verified payment webhooks. Ingest is a single insert keyed by the
+ * provider-qualified event id, so provider retries of the same event collapse here. Workers
+ * claim due rows with {@code FOR UPDATE SKIP LOCKED} and push their next attempt out by the
+ * lease, which hides them from other nodes while in flight and brings them back if the claiming
+ * node dies before recording an outcome.
+ */
+@Component
+public class WebhookInbox {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInbox.class);
+
+    private final WebhookInboxRepository inboxRepository;
+    private final TransactionTemplate claimTransaction;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public WebhookInbox(WebhookInboxRepository inboxRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.payment.webhook-inbox.lease-ms:60000}") long leaseMs,
+                        @Value("${app.payment.webhook-inbox.max-attempts:8}") int maxAttempts,
+                        @Value("${app.payment.webhook-inbox.retry-initial-ms:1000}") long retryInitialMs,
+                        @Value("${app.payment.webhook-inbox.retry-max-ms:300000}") long retryMaxMs) {
+        this.inboxRepository = inboxRepository;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = Duration.ofMillis(retryInitialMs);
+        this.maxBackoff = Duration.ofMillis(retryMaxMs);
+    }
+
+    /**
+     * Appends a verified event. Returns false when the event is already in the inbox.
+     */
+    public boolean append(String eventId, PaymentProvider provider, PaymentVerifyResponse event, String payload) {
+        if (inboxRepository.existsByEventId(eventId)) {
+            return false;
+        }
+        try {
+            inboxRepository.saveAndFlush(new WebhookInboxEvent(
+                    eventId,
+                    provider,
+                    event.eventType(),
+                    partitionKey(provider, eventId, event),
+                    event.providerReferenceId(),
+                    event.paymentReferenceId(),
+                    event.paymentStatus(),
+                    truncate(event.message()),
+                    payload
+            ));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Ignoring duplicate webhook race eventId={}", eventId);
+            return false;
+        }
+    }
+
+    public List<WebhookInboxEvent> claimDue(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return claimTransaction.execute(status -> {
+            Instant now = Instant.now();
+            List<WebhookInboxEvent> due = inboxRepository.lockDue(now, limit);
+            for (WebhookInboxEvent event : due) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    /**
+     * True when an older event for the same partition is still waiting, either on another node
+     * or for a retry; the caller defers so events for one payment apply in arrival order.
+     */
+    public boolean hasEarlierPending(WebhookInboxEvent event) {
+        return inboxRepository.existsByPartitionKeyAndStatusAndIdLessThan(
+                event.getPartitionKey(), WebhookInboxStatus.PENDING, event.getId());
+    }
+
+    public void markProcessed(WebhookInboxEvent event) {
+        inboxRepository.markProcessed(event.getId(), Instant.now());
+    }
+
+    /**
+     * Hands a claimed event back without counting the claim as an attempt.
+     */
+    public void release(WebhookInboxEvent event, Duration delay) {
+        inboxRepository.release(event.getId(), Instant.now().plus(delay));
+    }
+
+    /**
+     * Schedules the next attempt with jittered exponential backoff, or parks the event as DEAD
+     * once its attempts are used up. Returns true when the event was parked.
+     */
+    public boolean markFailed(WebhookInboxEvent event, String error) {
+        String reason = truncate(error);
+        if (event.getAttempts() >= maxAttempts) {
+            inboxRepository.markDead(event.getId(), reason);
+            return true;
+        }
+        inboxRepository.reschedule(event.getId(), Instant.now().plus(backoff(event.getAttempts())), reason);
+        return false;
+    }
+
+    public int purgeProcessed(Duration retention, int limit) {
+        return inboxRepository.deleteProcessedBefore(Instant.now().minus(retention), limit);
+    }
+
+    private Duration backoff(int attempts) {
+        long ceiling = initialBackoff.toMillis() << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(Math.max(ceiling, 1), maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    /**
+     * Events are ordered per order. The order reference is shared by every event type of a
+     * checkout, so it comes first; events without one fall back to the provider session
+     * reference, then the payment reference, then the event id.
+     */
+    private String partitionKey(PaymentProvider provider, String eventId, PaymentVerifyResponse event) {
+        if (event.orderReference() != null && !event.orderReference().isBlank()) {
+            return provider.name() + ":order:" + event.orderReference();
+        }
+        if (event.providerReferenceId() != null && !event.providerReferenceId().isBlank()) {
+            return provider.name() + ":" + event.providerReferenceId();
+        }
+        if (event.paymentReferenceId() != null && !event.paymentReferenceId().isBlank()) {
+            return provider.name() + ":" + event.paymentReferenceId();
+        }
+        return eventId;
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= 512) {
+            return value;
+        }
+        return value.substring(0, 512);
+    }
+}
@@ -0,0 +1,179 @@
+package com.ecommerce.platform.modules.checkout.service;
+
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the {@link WebhookInbox} on a fixed set of single-threaded partitions. An event goes to
+ * the partition picked by its partition key, so events for one payment run one at a time in
+ * claim order on this node; {@link WebhookInbox#hasEarlierPending} covers ordering across nodes.
+ * Claims are capped by the free queue space, so a burst waits in the table instead of in memory.
+ */
+@Component
+public class WebhookInboxWorkerPool implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookInboxWorkerPool.class);
+
+    private final WebhookInbox inbox;
+    private final CheckoutService checkoutService;
+    private final ThreadPoolExecutor[] partitions;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration deferDelay;
+    private final Duration retention;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter processedCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final Timer lagTimer;
+
+    public WebhookInboxWorkerPool(WebhookInbox inbox,
+                                  CheckoutService checkoutService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.payment.webhook-inbox.workers:4}") int workers,
+                                  @Value("${app.payment.webhook-inbox.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.payment.webhook-inbox.batch-size:50}") int batchSize,
+                                  @Value("${app.payment.webhook-inbox.defer-ms:500}") long deferMs,
+                                  @Value("${app.payment.webhook-inbox.retention-ms:604800000}") long retentionMs) {
+        this.inbox = inbox;
+        this.checkoutService = checkoutService;
+        this.partitions = new ThreadPoolExecutor[Math.max(1, workers)];
+        for (int i = 0; i < partitions.length; i++) {
+            String threadName = "webhook-inbox-" + i;
+            partitions[i] = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+        this.capacity = partitions.length * queueCapacity;
+        this.batchSize = batchSize;
+        this.deferDelay = Duration.ofMillis(deferMs);
+        this.retention = Duration.ofMillis(retentionMs);
+        this.processedCounter = outcomeCounter(meterRegistry, "processed");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.deadCounter = outcomeCounter(meterRegistry, "dead");
+        this.lagTimer = Timer.builder("payment.webhook.inbox.lag")
+                .description("Time from webhook receipt to the event being applied")
+                .register(meterRegistry);
+        Gauge.builder("payment.webhook.inbox.in-flight", inFlight, AtomicInteger::get)
+                .description("Claimed webhook events queued or running on this node")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.webhook-inbox.poll-ms:250}")
+    public void drain() {
+        List<WebhookInboxEvent> claimed;
+        try {
+            claimed = inbox.claimDue(Math.min(batchSize, capacity - inFlight.get()));
+        } catch (RuntimeException ex) {
+            log.warn("Webhook inbox poll skipped: {}", ex.getMessage());
+            return;
+        }
+        for (WebhookInboxEvent event : claimed) {
+            inFlight.incrementAndGet();
+            try {
+                partitionFor(event).execute(() -> {
+                    try {
+                        process(event);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                inFlight.decrementAndGet();
+                try {
+                    inbox.release(event, Duration.ZERO);
+                } catch (RuntimeException releaseFailure) {
+                    log.warn("Could not release webhook event {}, it returns after the lease: {}",
+                            event.getEventId(), releaseFailure.getMessage());
+                }
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.payment.webhook-inbox.purge-ms:3600000}",
+            fixedDelayString = "${app.payment.webhook-inbox.purge-ms:3600000}"
+    )
+    public void purgeProcessed() {
+        try {
+            int purged = inbox.purgeProcessed(retention, 1_000);
+            if (purged > 0) {
+                log.debug("Purged {} processed webhook inbox events", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Webhook inbox purge skipped: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdownNow();
+        }
+    }
+
+    private void process(WebhookInboxEvent event) {
+        try {
+            if (inbox.hasEarlierPending(event)) {
+                inbox.release(event, deferDelay);
+                return;
+            }
+            checkoutService.applyPaymentEvent(event);
+            inbox.markProcessed(event);
+            processedCounter.increment();
+            lagTimer.record(Duration.between(event.getReceivedAt(), Instant.now()));
+        } catch (RuntimeException ex) {
+            try {
+                if (inbox.markFailed(event, ex.getMessage())) {
+                    deadCounter.increment();
+                    log.error("Webhook event {} parked after {} attempts: {}", event.getEventId(), event.getAttempts(), ex.getMessage());
+                } else {
+                    retriedCounter.increment();
+                    log.warn("Webhook event {} failed on attempt {}, will retry: {}", event.getEventId(), event.getAttempts(), ex.getMessage());
+                }
+            } catch (RuntimeException markFailure) {
+                log.warn("Could not record failure for webhook event {}, it returns after the lease: {}",
+                        event.getEventId(), markFailure.getMessage());
+            }
+        }
+    }
+
+    private ThreadPoolExecutor partitionFor(WebhookInboxEvent event) {
+        return partitions[Math.floorMod(event.getPartitionKey().hashCode(), partitions.length)];
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("payment.webhook.inbox.events")
+                .description("Webhook inbox events by processing outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.platform.modules.pricing.api;
+
+import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+
+import java.math.BigDecimal;
+
+/**
+ * One priced cart line. Amounts are in cents and discounts in basis points; the
+ * {@link BigDecimal} accessors convert at the API boundary.
+ */
+public record PricedLine(
+        Long productId,
+        int quantity,
+        long unitPriceCents,
+        long finalUnitPriceCents,
+        CatalogDiscount productDiscount,
+        int productDiscountBasisPoints,
+        int userDiscountBasisPoints,
+        int employeeDiscountBasisPoints,
+        int totalDiscountBasisPoints
+) {
+
+    public long lineTotalCents() {
+        return finalUnitPriceCents * quantity;
+    }
+
+    public BigDecimal unitPrice() {
+        return amount(unitPriceCents);
+    }
+
+    public BigDecimal finalUnitPrice() {
+        return amount(finalUnitPriceCents);
+    }
+
+    public BigDecimal productDiscountPercentage() {
+        return percentage(productDiscountBasisPoints);
+    }
+
+    public BigDecimal userDiscountPercentage() {
+        return percentage(userDiscountBasisPoints);
+    }
+
+    public BigDecimal employeeDiscountPercentage() {
+        return percentage(employeeDiscountBasisPoints);
+    }
+
+    public BigDecimal totalDiscountPercentage() {
+        return percentage(totalDiscountBasisPoints);
+    }
+
+    public static BigDecimal amount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static BigDecimal percentage(int basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+}
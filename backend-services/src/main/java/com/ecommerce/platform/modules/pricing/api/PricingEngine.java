@@ -0,0 +1,19 @@
+package com.ecommerce.platform.modules.pricing.api;
+
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+
+import java.util.List;
+
+/**
+ * Single place where cart and checkout prices are computed. Callers supply the unit prices;
+ * product, user and employee discounts are applied as of today.
+ */
+public interface PricingEngine {
+
+    List<PricedLine> priceCart(AuthenticatedUser user, List<PricingLine> lines);
+
+    CatalogDiscount bestActiveDiscount(Long productId);
+
+    CatalogDiscount activeDiscount(Long productId, Long discountId);
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.platform.modules.pricing.api;
+
+import java.math.BigDecimal;
+
+public record PricingLine(
+        Long productId,
+        BigDecimal unitPrice,
+        int quantity,
+        Long selectedDiscountId
+) {
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.platform.modules.pricing.index;
+
+import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of the discounts that are active today or start later, grouped by product.
+ * Lookups go through a day bucket that holds only the discounts active on that day, with each
+ * product's best discount chosen up front. The bucket for a new day is derived from the stored
+ * discounts, so crossing midnight needs no database read; the maintainer still reloads nightly
+ * to drop expired entries and pick up out-of-band writes.
+ */
+@Component
+public class DiscountIndex {
+
+    private static final int MAX_BASIS_POINTS = 10_000;
+
+    private volatile Map<Long, List<ActiveDiscount>> discountsByProduct = Map.of();
+    private volatile DayBucket bucket = new DayBucket(LocalDate.MIN, Map.of());
+
+    public synchronized void replaceAll(Map<Long, List<CatalogDiscount>> discounts) {
+        Map<Long, List<ActiveDiscount>> indexed = new HashMap<>();
+        discounts.forEach((productId, productDiscounts) -> {
+            if (!productDiscounts.isEmpty()) {
+                indexed.put(productId, toActiveDiscounts(productDiscounts));
+            }
+        });
+        publish(indexed);
+    }
+
+    public synchronized void replace(Long productId, List<CatalogDiscount> discounts) {
+        Map<Long, List<ActiveDiscount>> indexed = new HashMap<>(discountsByProduct);
+        if (discounts.isEmpty()) {
+            indexed.remove(productId);
+        } else {
+            indexed.put(productId, toActiveDiscounts(discounts));
+        }
+        publish(indexed);
+    }
+
+    public DayBucket bucket(LocalDate day) {
+        DayBucket current = bucket;
+        if (current.day().equals(day)) {
+            return current;
+        }
+        if (day.isBefore(current.day())) {
+            return buildBucket(discountsByProduct, day);
+        }
+        synchronized (this) {
+            if (!bucket.day().equals(day)) {
+                bucket = buildBucket(discountsByProduct, day);
+            }
+            return bucket;
+        }
+    }
+
+    public int size() {
+        return discountsByProduct.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void publish(Map<Long, List<ActiveDiscount>> indexed) {
+        discountsByProduct = Map.copyOf(indexed);
+        LocalDate day = bucket.day();
+        bucket = day.equals(LocalDate.MIN) ? new DayBucket(LocalDate.MIN, Map.of()) : buildBucket(discountsByProduct, day);
+    }
+
+    private List<ActiveDiscount> toActiveDiscounts(List<CatalogDiscount> discounts) {
+        return discounts.stream()
+                .map(discount -> new ActiveDiscount(discount, toBasisPoints(discount.percentage())))
+                .toList();
+    }
+
+    private static DayBucket buildBucket(Map<Long, List<ActiveDiscount>> discountsByProduct, LocalDate day) {
+        Map<Long, ProductDiscounts> products = new HashMap<>();
+        discountsByProduct.forEach((productId, discounts) -> {
+            Map<Long, ActiveDiscount> active = new LinkedHashMap<>();
+            ActiveDiscount best = null;
+            for (ActiveDiscount discount : discounts) {
+                if (!isActiveOn(discount.discount(), day)) {
+                    continue;
+                }
+                active.put(discount.discount().id(), discount);
+                if (best == null || discount.basisPoints() > best.basisPoints()) {
+                    best = discount;
+                }
+            }
+            if (best != null) {
+                products.put(productId, new ProductDiscounts(best, Map.copyOf(active)));
+            }
+        });
+        return new DayBucket(day, Map.copyOf(products));
+    }
+
+    private static boolean isActiveOn(CatalogDiscount discount, LocalDate day) {
+        if (discount.startDate() != null && discount.startDate().isAfter(day)) {
+            return false;
+        }
+        return discount.endDate() == null || !discount.endDate().isBefore(day);
+    }
+
+    private static int toBasisPoints(BigDecimal percentage) {
+        if (percentage == null || percentage.signum() <= 0) {
+            return 0;
+        }
+        return Math.min(MAX_BASIS_POINTS, percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue());
+    }
+
+    public record ActiveDiscount(CatalogDiscount discount, int basisPoints) {
+    }
+
+    public record DayBucket(LocalDate day, Map<Long, ProductDiscounts> products) {
+
+        public ActiveDiscount best(Long productId) {
+            ProductDiscounts discounts = products.get(productId);
+            return discounts != null ? discounts.best() : null;
+        }
+
+        public ActiveDiscount active(Long productId, Long discountId) {
+            ProductDiscounts discounts = products.get(productId);
+            return discounts != null ? discounts.byId().get(discountId) : null;
+        }
+    }
+
+    public record ProductDiscounts(ActiveDiscount best, Map<Long, ActiveDiscount> byId) {
+    }
+}
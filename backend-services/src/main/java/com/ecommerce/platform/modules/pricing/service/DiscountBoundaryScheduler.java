@@ -0,0 +1,36 @@
+package com.ecommerce.platform.modules.pricing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Reloads the discount index at each day boundary, dropping discounts that ended and picking up
+ * ones written out of band. Priced responses need no eviction here: {@code userCart} keys carry
+ * the pricing day, so yesterday's carts are unreachable once the date changes. Every node runs
+ * it, since each keeps its own index.
+ */
+@Component
+public class DiscountBoundaryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DiscountBoundaryScheduler.class);
+
+    private final DiscountIndexMaintainer discountIndexMaintainer;
+
+    public DiscountBoundaryScheduler(DiscountIndexMaintainer discountIndexMaintainer) {
+        this.discountIndexMaintainer = discountIndexMaintainer;
+    }
+
+    @Scheduled(cron = "${app.pricing.boundary-cron:0 0 0 * * *}")
+    public void onDayBoundary() {
+        try {
+            discountIndexMaintainer.rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Discount index reload failed at day boundary {}, keeping the loaded discounts: {}",
+                    LocalDate.now(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.platform.modules.pricing.service;
+
+import com.ecommerce.platform.config.RedisPubSub;
+import com.ecommerce.platform.modules.catalog.api.CatalogApi;
+import com.ecommerce.platform.modules.catalog.api.ProductChangedEvent;
+import com.ecommerce.platform.modules.pricing.index.DiscountIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the {@link DiscountIndex} current: a full load at startup and from the nightly
+ * {@link DiscountBoundaryScheduler}, and a per-product reload after catalog writes, fanned out to
+ * other nodes over Redis pub/sub.
+ */
+@Component
+public class DiscountIndexMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(DiscountIndexMaintainer.class);
+
+    private final CatalogApi catalogApi;
+    private final DiscountIndex discountIndex;
+    private final RedisPubSub redisPubSub;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public DiscountIndexMaintainer(CatalogApi catalogApi,
+                                   DiscountIndex discountIndex,
+                                   RedisPubSub redisPubSub,
+                                   @Value("${app.pricing.index-channel:pricing:discount-index}") String channel) {
+        this.catalogApi = catalogApi;
+        this.discountIndex = discountIndex;
+        this.redisPubSub = redisPubSub;
+        this.channel = channel;
+        redisPubSub.subscribe(channel, this::onRemoteChange);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        discountIndex.replaceAll(catalogApi.getDiscountsEndingOnOrAfter(today));
+        discountIndex.bucket(today);
+        log.info("Discount index built with {} discounts for {}", discountIndex.size(), today);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.productId(), event.type());
+        redisPubSub.publish(channel, nodeId + "|" + event.productId() + "|" + event.type());
+    }
+
+    private void onRemoteChange(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            refresh(Long.valueOf(parts[1]), ProductChangedEvent.ChangeType.valueOf(parts[2]));
+        } catch (RuntimeException ex) {
+            log.warn("Discount index refresh failed for message={}: {}", message, ex.getMessage());
+        }
+    }
+
+    private void refresh(Long productId, ProductChangedEvent.ChangeType type) {
+        discountIndex.replace(productId, type == ProductChangedEvent.ChangeType.DELETED
+                ? List.of()
+                : catalogApi.getProductDiscounts(productId));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.platform.modules.pricing.service;
+
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+import com.ecommerce.platform.modules.pricing.api.PricedLine;
+import com.ecommerce.platform.modules.pricing.api.PricingEngine;
+import com.ecommerce.platform.modules.pricing.api.PricingLine;
+import com.ecommerce.platform.modules.pricing.index.DiscountIndex;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link PricingEngine} backed by the in-memory {@link DiscountIndex}. All arithmetic is done on
+ * cents and basis points, so a whole cart is priced in one pass without database reads.
+ */
+@Service
+public class IndexedPricingEngine implements PricingEngine {
+
+    private static final int EMPLOYEE_DISCOUNT_BASIS_POINTS = 1_500;
+    private static final int FULL_DISCOUNT_BASIS_POINTS = 10_000;
+
+    private final DiscountIndex discountIndex;
+
+    public IndexedPricingEngine(DiscountIndex discountIndex) {
+        this.discountIndex = discountIndex;
+    }
+
+    @Override
+    public List<PricedLine> priceCart(AuthenticatedUser user, List<PricingLine> lines) {
+        LocalDate today = LocalDate.now();
+        DiscountIndex.DayBucket discounts = discountIndex.bucket(today);
+        int userBasisPoints = activeUserDiscountBasisPoints(user, today);
+        int employeeBasisPoints = user.hasRole("ROLE_EMPLOYEE") ? EMPLOYEE_DISCOUNT_BASIS_POINTS : 0;
+
+        List<PricedLine> priced = new ArrayList<>(lines.size());
+        for (PricingLine line : lines) {
+            DiscountIndex.ActiveDiscount productDiscount = line.selectedDiscountId() != null
+                    ? discounts.active(line.productId(), line.selectedDiscountId())
+                    : null;
+            int productBasisPoints = productDiscount != null ? productDiscount.basisPoints() : 0;
+            int totalBasisPoints = Math.clamp((long) productBasisPoints + userBasisPoints + employeeBasisPoints,
+                    0, FULL_DISCOUNT_BASIS_POINTS);
+            long unitPriceCents = toCents(line.unitPrice());
+
+            priced.add(new PricedLine(
+                    line.productId(),
+                    line.quantity(),
+                    unitPriceCents,
+                    applyDiscount(unitPriceCents, totalBasisPoints),
+                    productDiscount != null ? productDiscount.discount() : null,
+                    productBasisPoints,
+                    userBasisPoints,
+                    employeeBasisPoints,
+                    totalBasisPoints
+            ));
+        }
+        return priced;
+    }
+
+    @Override
+    public CatalogDiscount bestActiveDiscount(Long productId) {
+        DiscountIndex.ActiveDiscount best = discountIndex.bucket(LocalDate.now()).best(productId);
+        return best != null ? best.discount() : null;
+    }
+
+    @Override
+    public CatalogDiscount activeDiscount(Long productId, Long discountId) {
+        DiscountIndex.ActiveDiscount discount = discountIndex.bucket(LocalDate.now()).active(productId, discountId);
+        return discount != null ? discount.discount() : null;
+    }
+
+    private int activeUserDiscountBasisPoints(AuthenticatedUser user, LocalDate today) {
+        BigDecimal percentage = user.getUserDiscountPercentage();
+        if (percentage == null || percentage.signum() <= 0) {
+            return 0;
+        }
+        LocalDate start = user.getUserDiscountStartDate();
+        LocalDate end = user.getUserDiscountEndDate();
+        if (start == null || start.isAfter(today) || (end != null && end.isBefore(today))) {
+            return 0;
+        }
+        return Math.min(FULL_DISCOUNT_BASIS_POINTS, percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValue());
+    }
+
+    private long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private long applyDiscount(long cents, int basisPoints) {
+        long scaled = cents * (FULL_DISCOUNT_BASIS_POINTS - basisPoints);
+        long rounded = Math.abs(scaled) + FULL_DISCOUNT_BASIS_POINTS / 2;
+        return Long.signum(scaled) * (rounded / FULL_DISCOUNT_BASIS_POINTS);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.platform.modules.reviews.config;
+
+import com.ecommerce.platform.common.dto.PageResponse;
+import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.CompactCacheSchema;
+import com.ecommerce.platform.modules.reviews.dto.response.ReviewResponse;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReviewCacheSchemas {
+
+    @Bean
+    public CompactCacheSchema productReviewsCacheSchema() {
+        return CompactCacheSchema.of(
+                CacheNames.PRODUCT_REVIEWS,
+                TypeFactory.defaultInstance().constructParametricType(PageResponse.class, ReviewResponse.class)
+        );
+    }
+}
@@ -1,11 +1,13 @@
 package com.ecommerce.platform.modules.reviews.repository;
 
 import com.ecommerce.platform.modules.reviews.model.Review;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    Page<Review> findByProductId(Long productId, Pageable pageable);
+    Slice<Review> findByProductId(Long productId, Pageable pageable);
+
+    long countByProductId(Long productId);
 }
 
@@ -1,6 +1,7 @@
 package com.ecommerce.platform.modules.reviews.service;
 
 import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.CountStore;
 import com.ecommerce.platform.common.dto.PageResponse;
 import com.ecommerce.platform.modules.catalog.api.CatalogApi;
 import com.ecommerce.platform.modules.reviews.dto.request.AddReviewRequest;
@@ -9,7 +10,7 @@ import com.ecommerce.platform.modules.reviews.model.Review;
 import com.ecommerce.platform.modules.reviews.repository.ReviewRepository;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -20,21 +21,23 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final CatalogApi catalogApi;
+    private final CountStore countStore;
 
-    public ReviewService(ReviewRepository reviewRepository, CatalogApi catalogApi) {
+    public ReviewService(ReviewRepository reviewRepository, CatalogApi catalogApi, CountStore countStore) {
         this.reviewRepository = reviewRepository;
         this.catalogApi = catalogApi;
+        this.countStore = countStore;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(cacheNames = CacheNames.PRODUCT_REVIEWS, key = "{#productId, #page, #size}")
+    @Cacheable(cacheNames = CacheNames.PRODUCT_REVIEWS, key = "{#productId, #page, #size}", sync = true)
     public PageResponse<ReviewResponse> getReviewsByProductId(Long productId, int page, int size) {
-        Page<ReviewResponse> reviews = reviewRepository.findByProductId(
-                        productId,
-                        PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"))
-                )
-                .map(this::toResponse);
-        return PageResponse.from(reviews, item -> item);
+        Slice<Review> reviews = reviewRepository.findByProductId(
+                productId,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+        );
+        long approximateTotal = countStore.get(reviewCounter(productId), () -> reviewRepository.countByProductId(productId));
+        return PageResponse.from(reviews, approximateTotal, this::toResponse);
     }
 
     @Transactional
@@ -48,7 +51,13 @@ public class ReviewService {
         review.setRating(request.rating());
         review.setComment(request.comment());
 
-        return toResponse(reviewRepository.save(review));
+        ReviewResponse response = toResponse(reviewRepository.save(review));
+        countStore.adjustAfterCommit(reviewCounter(productId), 1);
+        return response;
+    }
+
+    private String reviewCounter(Long productId) {
+        return "reviews:product:" + productId;
     }
 
     private ReviewResponse toResponse(Review review) {
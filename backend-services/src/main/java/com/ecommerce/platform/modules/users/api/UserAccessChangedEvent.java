@@ -0,0 +1,10 @@
+package com.ecommerce.platform.modules.users.api;
+
+/**
+ * Published when a change to the user invalidates claims carried by their issued access tokens:
+ * roles, the personal discount, the locked flag, or the account itself.
+ */
+public record UserAccessChangedEvent(
+        Long userId
+) {
+}
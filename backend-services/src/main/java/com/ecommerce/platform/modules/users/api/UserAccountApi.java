@@ -1,10 +1,13 @@
 package com.ecommerce.platform.modules.users.api;
 
+import com.ecommerce.platform.config.CountStore;
 import com.ecommerce.platform.modules.users.dto.UserAdminDto;
 import com.ecommerce.platform.modules.users.model.Role;
 import com.ecommerce.platform.modules.users.model.User;
 import com.ecommerce.platform.modules.users.repository.RoleRepository;
 import com.ecommerce.platform.modules.users.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,16 +20,24 @@ import java.util.Set;
 @Service
 public class UserAccountApi {
 
+    /** {@link CountStore} counter of all users, shared with the admin user listing. */
+    public static final String USER_COUNTER = "users:all";
+
+    private static final Logger log = LoggerFactory.getLogger(UserAccountApi.class);
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CountStore countStore;
 
     public UserAccountApi(UserRepository userRepository,
                           RoleRepository roleRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          CountStore countStore) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.countStore = countStore;
     }
 
     @Transactional
@@ -42,7 +53,9 @@ public class UserAccountApi {
         user.setDisplayName(resolveDisplayName(request, request.email().split("@")[0]));
         user.setRoles(Set.of(getRole("ROLE_USER")));
 
-        return toIdentity(userRepository.save(user));
+        UserIdentity identity = toIdentity(userRepository.save(user));
+        countStore.adjustAfterCommit(USER_COUNTER, 1);
+        return identity;
     }
 
     @Transactional(readOnly = true)
@@ -52,6 +65,13 @@ public class UserAccountApi {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
     }
 
+    @Transactional(readOnly = true)
+    public UserIdentity loadByIdForRefresh(Long id) {
+        return userRepository.findByIdWithRoles(id)
+                .map(this::toIdentity)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+    }
+
     @Transactional
     public UserAdminDto createManager(UserRegistrationRequest request) {
         validateRegistration(request);
@@ -65,11 +85,27 @@ public class UserAccountApi {
         user.setDisplayName(resolveDisplayName(request, "Manager"));
         user.setRoles(Set.of(getRole("ROLE_MANAGER")));
 
-        return toAdminDto(userRepository.save(user));
+        UserAdminDto manager = toAdminDto(userRepository.save(user));
+        countStore.adjustAfterCommit(USER_COUNTER, 1);
+        return manager;
     }
 
+    /**
+     * Checks the password and, when it matches a hash weaker than the configured cost, rehashes
+     * it. The rehash is best effort: a failure is logged and does not fail the sign-in.
+     */
     public boolean passwordMatches(String rawPassword, UserIdentity identity) {
-        return passwordEncoder.matches(rawPassword, identity.passwordHash());
+        if (!passwordEncoder.matches(rawPassword, identity.passwordHash())) {
+            return false;
+        }
+        if (passwordEncoder.upgradeEncoding(identity.passwordHash())) {
+            try {
+                userRepository.replacePasswordHash(identity.id(), identity.passwordHash(), passwordEncoder.encode(rawPassword));
+            } catch (RuntimeException ex) {
+                log.warn("Password hash upgrade failed for userId={}: {}", identity.id(), ex.getMessage());
+            }
+        }
+        return true;
     }
 
     private void validateRegistration(UserRegistrationRequest request) {
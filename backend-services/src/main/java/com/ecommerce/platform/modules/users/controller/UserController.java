@@ -37,7 +37,7 @@ public class UserController {
             @RequestParam(name = "page", defaultValue = "0") @Min(0) int page,
             @RequestParam(name = "size", defaultValue = "20") @Min(1) @Max(100) int size
     ) {
-        return PageResponse.from(userService.getUsers(page, size), item -> item);
+        return userService.getUsers(page, size);
     }
 
     @PatchMapping("/{id}/flag")
@@ -1,7 +1,11 @@
 package com.ecommerce.platform.modules.users.service;
 
+import com.ecommerce.platform.common.dto.PageResponse;
 import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.CountStore;
 import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.users.api.UserAccessChangedEvent;
+import com.ecommerce.platform.modules.users.api.UserAccountApi;
 import com.ecommerce.platform.modules.users.dto.UserAdminDto;
 import com.ecommerce.platform.modules.users.dto.request.ToggleEmployeeRoleRequest;
 import com.ecommerce.platform.modules.users.dto.request.UpdateUserDiscountRequest;
@@ -11,7 +15,8 @@ import com.ecommerce.platform.modules.users.repository.RoleRepository;
 import com.ecommerce.platform.modules.users.repository.UserRepository;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
@@ -26,57 +31,69 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final CountStore countStore;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository) {
+    public UserService(UserRepository userRepository,
+                       RoleRepository roleRepository,
+                       CountStore countStore,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.countStore = countStore;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
-    public Page<UserAdminDto> getUsers(int page, int size) {
-        return userRepository.findAllWithRoles(PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id")))
-                .map(this::toAdminDto);
+    public PageResponse<UserAdminDto> getUsers(int page, int size) {
+        Slice<User> users = userRepository.findAllWithRoles(PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id")));
+        long approximateTotal = countStore.get(UserAccountApi.USER_COUNTER, userRepository::count);
+        return PageResponse.from(users, approximateTotal, this::toAdminDto);
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.USER_ROLES, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#id")
+            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "@userCartKeys.key(#id)")
     })
     public UserAdminDto flagUser(Long id, AuthenticatedUser actor) {
         var target = getExistingUser(id);
         enforceManagerTargetRestrictions(actor, target);
         target.setFlagged(true);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
         return toAdminDto(userRepository.save(target));
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.USER_ROLES, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#id")
+            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "@userCartKeys.key(#id)")
     })
     public UserAdminDto unflagUser(Long id) {
         var target = getExistingUser(id);
         target.setFlagged(false);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
         return toAdminDto(userRepository.save(target));
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.USER_ROLES, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#id")
+            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "@userCartKeys.key(#id)")
     })
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
+        countStore.adjustAfterCommit(UserAccountApi.USER_COUNTER, -1);
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.USER_ROLES, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#id")
+            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "@userCartKeys.key(#id)")
     })
     public UserAdminDto updateUserDiscount(Long id, UpdateUserDiscountRequest request, AuthenticatedUser actor) {
         var target = getExistingUser(id);
@@ -95,13 +112,14 @@ public class UserService {
             target.setUserDiscountEndDate(request.endDate());
         }
 
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
         return toAdminDto(userRepository.save(target));
     }
 
     @Transactional
     @Caching(evict = {
             @CacheEvict(cacheNames = CacheNames.USER_ROLES, key = "#id"),
-            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "#id")
+            @CacheEvict(cacheNames = CacheNames.USER_CART, key = "@userCartKeys.key(#id)")
     })
     public UserAdminDto setEmployeeRole(Long id, ToggleEmployeeRoleRequest request) {
         var target = getExistingUser(id);
@@ -114,6 +132,7 @@ public class UserService {
             target.getRoles().removeIf(role -> "ROLE_EMPLOYEE".equals(role.getName()));
         }
 
+        eventPublisher.publishEvent(new UserAccessChangedEvent(id));
         return toAdminDto(userRepository.save(target));
     }
 
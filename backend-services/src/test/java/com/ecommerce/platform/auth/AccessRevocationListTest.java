@@ -0,0 +1,123 @@
+package com.ecommerce.platform.auth;
+
+import com.ecommerce.platform.config.RedisPubSub;
+import com.ecommerce.platform.modules.auth.security.AccessRevocationList;
+import com.ecommerce.platform.modules.auth.security.JwtService;
+import com.ecommerce.platform.modules.auth.security.UserIdBloomFilter;
+import com.ecommerce.platform.modules.users.api.UserIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccessRevocationListTest {
+
+    private static final long TTL_MS = 300_000;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+    private final RedisPubSub redisPubSub = mock(RedisPubSub.class);
+
+    AccessRevocationListTest() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    }
+
+    @Test
+    void revocation_rejects_tokens_issued_before_the_cutoff_only() {
+        AccessRevocationList revocations = newList();
+        long before = System.currentTimeMillis() - 1_000;
+
+        revocations.revoke(7L);
+
+        assertThat(revocations.isRevoked(7L, before)).isTrue();
+        assertThat(revocations.isRevoked(7L, System.currentTimeMillis() + 1)).isFalse();
+        assertThat(revocations.isRevoked(8L, before)).isFalse();
+        verify(hashOperations).put(eq("auth:access-revocations"), eq("7"), any());
+        verify(redisPubSub).publish(eq("auth:access-revocations"), any());
+    }
+
+    @Test
+    void token_refreshed_in_the_same_second_as_the_revocation_is_accepted() {
+        AccessRevocationList revocations = newList();
+        JwtService jwtService = new JwtService("test-secret-test-secret-test-secret-123", TTL_MS, 2, 100,
+                new SimpleMeterRegistry());
+        UserIdentity identity = new UserIdentity(7L, "user@example.com", "User", "hash", List.of("ROLE_USER"),
+                true, true, BigDecimal.ZERO, null, null);
+        while (System.currentTimeMillis() % 1_000 > 900) {
+            Thread.onSpinWait();
+        }
+        long revokedAt = System.currentTimeMillis();
+        String stale = jwtService.generateToken(identity);
+
+        revocations.revoke(7L);
+        long revokeReturnedAt = System.currentTimeMillis();
+        while (System.currentTimeMillis() == revokeReturnedAt) {
+            Thread.onSpinWait();
+        }
+        JwtService.VerifiedToken refreshed = jwtService.verify(jwtService.generateToken(identity));
+
+        assertThat(refreshed.issuedAtMillis() / 1_000).isEqualTo(revokedAt / 1_000);
+        assertThat(revocations.isRevoked(7L, refreshed.issuedAtMillis())).isFalse();
+        assertThat(revocations.isRevoked(7L, jwtService.verify(stale).issuedAtMillis())).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void remote_revocations_and_redis_sync_are_applied_locally() {
+        AccessRevocationList revocations = newList();
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(redisPubSub).subscribe(eq("auth:access-revocations"), handler.capture());
+        long now = System.currentTimeMillis();
+
+        handler.getValue().accept("other-node|11|" + now);
+        assertThat(revocations.isRevoked(11L, now - 1_000)).isTrue();
+
+        when(hashOperations.entries("auth:access-revocations")).thenReturn(Map.of(
+                "12", Long.toString(now),
+                "13", Long.toString(now - TTL_MS - 1)
+        ));
+        revocations.sync();
+
+        assertThat(revocations.isRevoked(11L, now - 1_000)).isTrue();
+        assertThat(revocations.isRevoked(12L, now - 1_000)).isTrue();
+        assertThat(revocations.isRevoked(13L, now - TTL_MS - 10_000)).isFalse();
+        verify(hashOperations).delete("auth:access-revocations", "13");
+    }
+
+    @Test
+    void bloom_filter_has_no_false_negatives_and_few_false_positives() {
+        UserIdBloomFilter filter = new UserIdBloomFilter(1_000, 0.01);
+        for (long id = 1; id <= 1_000; id++) {
+            filter.add(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 1; id <= 1_000; id++) {
+            assertThat(filter.mightContain(id)).isTrue();
+        }
+        for (long id = 1_001; id <= 11_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    private AccessRevocationList newList() {
+        return new AccessRevocationList(redisTemplate, redisPubSub, "auth:access-revocations", TTL_MS, 1_000, 0.01);
+    }
+}
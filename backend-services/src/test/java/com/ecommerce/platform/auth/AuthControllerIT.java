@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -95,6 +96,53 @@ public class AuthControllerIT extends IntegrationTestBase {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void refresh_rotates_the_refresh_token_and_rejects_reuse() throws Exception {
+        User user = createUser("refresh@example.com", "secret123", "ROLE_USER");
+        String login = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                java.util.Map.of("email", user.getEmail(), "password", "secret123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = objectMapper.readTree(login).get("refreshToken").asText();
+        String refreshBody = objectMapper.writeValueAsString(java.util.Map.of("refreshToken", refreshToken));
+
+        String refreshed = mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", not(emptyString())))
+                .andExpect(jsonPath("$.refreshToken", not(refreshToken)))
+                .andReturn().getResponse().getContentAsString();
+        String rotated = objectMapper.readTree(refreshed).get("refreshToken").asText();
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshBody))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(java.util.Map.of("refreshToken", rotated))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void flagging_through_user_service_revokes_issued_access_tokens() throws Exception {
+        User admin = createUser("jwt-revoke-admin@example.com", "secret123", "ROLE_ADMIN");
+        User user = createUser("jwt-revoked@example.com", "secret123", "ROLE_USER");
+        String token = tokenFor(user);
+
+        mockMvc.perform(patch("/api/v1/users/{id}/flag", user.getId())
+                        .header("Authorization", "Bearer " + tokenFor(admin)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/cart")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void signup_validation_error_returns_standard_error() throws Exception {
         String body = """
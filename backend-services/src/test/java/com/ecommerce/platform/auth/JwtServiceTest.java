@@ -0,0 +1,91 @@
+package com.ecommerce.platform.auth;
+
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.auth.security.JwtService;
+import com.ecommerce.platform.modules.users.api.UserIdentity;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-123";
+    private static final UserIdentity IDENTITY = new UserIdentity(
+            7L, "user@example.com", "User", "hash", List.of("ROLE_USER", "ROLE_EMPLOYEE"), true, true,
+            new BigDecimal("5.00"), null, null);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 2, 100, meterRegistry);
+
+    @Test
+    void repeat_authentication_is_served_from_the_verified_token_cache() {
+        String token = jwtService.generateToken(IDENTITY);
+
+        AuthenticatedUser first = jwtService.authenticate(token);
+        AuthenticatedUser second = jwtService.authenticate(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getId()).isEqualTo(7L);
+        assertThat(first.hasRole("ROLE_EMPLOYEE")).isTrue();
+        assertThat(first.getUserDiscountPercentage()).isEqualByComparingTo("5.00");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwtVerifiedTokens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void compact_token_round_trips_every_claim() {
+        UserIdentity identity = new UserIdentity(
+                8L, "quote\"d@example.com", "Zoë \\ Tester", "hash", List.of("ROLE_ADMIN", "ROLE_EMPLOYEE"), true, false,
+                new BigDecimal("12.50"), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+
+        AuthenticatedUser user = jwtService.authenticate(jwtService.generateToken(identity));
+
+        assertThat(user.getId()).isEqualTo(8L);
+        assertThat(user.getEmail()).isEqualTo("quote\"d@example.com");
+        assertThat(user.getDisplayName()).isEqualTo("Zoë \\ Tester");
+        assertThat(user.getRoles()).containsExactly("ROLE_ADMIN", "ROLE_EMPLOYEE");
+        assertThat(user.getUserDiscountPercentage()).isEqualByComparingTo("12.50");
+        assertThat(user.getUserDiscountStartDate()).isEqualTo(LocalDate.of(2026, 1, 1));
+        assertThat(user.getUserDiscountEndDate()).isEqualTo(LocalDate.of(2026, 12, 31));
+        assertThat(user.isEnabled()).isTrue();
+        assertThat(user.isAccountNonLocked()).isFalse();
+    }
+
+    @Test
+    void v1_tokens_are_still_accepted_and_are_larger() {
+        JwtService v1Issuer = new JwtService(SECRET, 60_000, 1, 100, new SimpleMeterRegistry());
+        String v1Token = v1Issuer.generateToken(IDENTITY);
+
+        AuthenticatedUser user = jwtService.authenticate(v1Token);
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getRoles()).containsExactly("ROLE_USER", "ROLE_EMPLOYEE");
+        assertThat(user.getUserDiscountPercentage()).isEqualByComparingTo("5.00");
+        assertThat(jwtService.generateToken(IDENTITY).length()).isLessThan(v1Token.length());
+    }
+
+    @Test
+    void tampered_token_is_rejected_even_after_the_original_was_cached() {
+        String token = jwtService.generateToken(IDENTITY);
+        jwtService.authenticate(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.authenticate(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void expired_token_is_never_cached() {
+        JwtService expiring = new JwtService(SECRET, -1_000, 2, 100, new SimpleMeterRegistry());
+        String token = expiring.generateToken(IDENTITY);
+
+        assertThatThrownBy(() -> expiring.authenticate(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.platform.cart;
+
+import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.UserCartKeys;
+import com.ecommerce.platform.modules.cart.service.CartCacheInvalidator;
+import com.ecommerce.platform.modules.cart.service.CartProductIndex;
+import com.ecommerce.platform.modules.catalog.api.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CartCacheInvalidatorTest {
+
+    private final CartProductIndex cartProductIndex = mock(CartProductIndex.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.USER_CART);
+    private final UserCartKeys userCartKeys = new UserCartKeys();
+    private final CartCacheInvalidator invalidator = new CartCacheInvalidator(cartProductIndex, cacheManager, userCartKeys);
+
+    @Test
+    void product_update_evicts_only_carts_holding_the_product() {
+        Cache carts = cacheManager.getCache(CacheNames.USER_CART);
+        carts.put(userCartKeys.key(1L), "cart-1");
+        carts.put(userCartKeys.key(2L), "cart-2");
+        when(cartProductIndex.findUserIds(10L)).thenReturn(Set.of(1L));
+
+        invalidator.onProductChanged(new ProductChangedEvent(10L, ProductChangedEvent.ChangeType.UPDATED));
+
+        assertThat(carts.get(userCartKeys.key(1L))).isNull();
+        assertThat(carts.get(userCartKeys.key(2L))).isNotNull();
+        verify(cartProductIndex, never()).dropProductAfterCommit(10L);
+    }
+
+    @Test
+    void product_delete_also_drops_index_entry() {
+        when(cartProductIndex.findUserIds(11L)).thenReturn(Set.of());
+
+        invalidator.onProductChanged(new ProductChangedEvent(11L, ProductChangedEvent.ChangeType.DELETED));
+
+        verify(cartProductIndex).dropProductAfterCommit(11L);
+    }
+
+    @Test
+    void product_create_touches_no_carts() {
+        invalidator.onProductChanged(new ProductChangedEvent(12L, ProductChangedEvent.ChangeType.CREATED));
+
+        verifyNoInteractions(cartProductIndex);
+    }
+}
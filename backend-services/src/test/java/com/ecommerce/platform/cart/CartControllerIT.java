@@ -50,6 +50,63 @@ public class CartControllerIT extends IntegrationTestBase {
                 .andExpect(jsonPath("$.items", hasSize(0)));
     }
 
+    @Test
+    void batch_applies_operations_in_order_and_returns_one_cart() throws Exception {
+        User user = createUser("cartbatch@example.com", "secret123", "ROLE_USER");
+        String token = tokenFor(user);
+        Product phone = createProduct("Phone", 499.99, "Electronics");
+        Product case_ = createProduct("Case", 19.99, "Accessories");
+
+        String batchBody = """
+                {"operations": [
+                  {"type": "ADD", "productId": %d, "quantity": 1},
+                  {"type": "ADD", "productId": %d, "quantity": 2},
+                  {"type": "SET_QUANTITY", "productId": %d, "quantity": 4},
+                  {"type": "REMOVE", "productId": %d}
+                ]}
+                """.formatted(phone.getId(), case_.getId(), case_.getId(), phone.getId());
+
+        mockMvc.perform(post("/api/v1/cart/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(case_.getId().intValue())))
+                .andExpect(jsonPath("$.items[0].quantity", is(4)));
+
+        mockMvc.perform(get("/api/v1/cart")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].quantity", is(4)));
+    }
+
+    @Test
+    void batch_with_unknown_product_changes_nothing() throws Exception {
+        User user = createUser("cartbatch404@example.com", "secret123", "ROLE_USER");
+        String token = tokenFor(user);
+        Product phone = createProduct("Phone", 499.99, "Electronics");
+
+        String batchBody = """
+                {"operations": [
+                  {"type": "ADD", "productId": %d, "quantity": 1},
+                  {"type": "ADD", "productId": 999999, "quantity": 1}
+                ]}
+                """.formatted(phone.getId());
+
+        mockMvc.perform(post("/api/v1/cart/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/v1/cart")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+
     @Test
     void get_cart_requires_authentication() throws Exception {
         mockMvc.perform(get("/api/v1/cart"))
@@ -0,0 +1,124 @@
+package com.ecommerce.platform.cart;
+
+import com.ecommerce.platform.config.RedisLease;
+import com.ecommerce.platform.modules.cart.service.CartMutationSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartMutationSerializerTest {
+
+    private final RedisLease redisLease = mock(RedisLease.class);
+
+    @Test
+    void mutations_for_the_same_user_do_not_overlap() throws Exception {
+        CartMutationSerializer serializer = new CartMutationSerializer(redisLease, 16, false, 5_000, 5_000);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        CompletableFuture<?>[] mutations = new CompletableFuture<?>[8];
+        for (int i = 0; i < mutations.length; i++) {
+            mutations[i] = CompletableFuture.runAsync(() -> serializer.execute(7L, () -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                sleepQuietly();
+                return active.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(mutations).get(10, TimeUnit.SECONDS);
+
+        assertThat(maxActive).hasValue(1);
+    }
+
+    @Test
+    void caller_that_waits_past_the_timeout_gets_a_conflict() throws Exception {
+        CartMutationSerializer serializer = new CartMutationSerializer(redisLease, 16, false, 5_000, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> serializer.execute(7L, () -> {
+            holding.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> serializer.execute(7L, () -> "second"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lease_is_taken_and_released_around_the_mutation() {
+        when(redisLease.tryAcquire(eq("cart:mutation-lease:7"), any(Duration.class), any(Duration.class))).thenReturn("token");
+        CartMutationSerializer serializer = new CartMutationSerializer(redisLease, 16, true, 5_000, 1_000);
+
+        assertThat(serializer.execute(7L, () -> "done")).isEqualTo("done");
+
+        verify(redisLease).release("cart:mutation-lease:7", "token");
+    }
+
+    @Test
+    void waiting_for_a_lease_does_not_block_other_users_on_the_same_stripe() throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(redisLease.tryAcquire(eq("cart:mutation-lease:7"), any(Duration.class), any(Duration.class))).thenAnswer(call -> {
+            waiting.countDown();
+            awaitQuietly(released);
+            return "token-7";
+        });
+        when(redisLease.tryAcquire(eq("cart:mutation-lease:8"), any(Duration.class), any(Duration.class))).thenReturn("token-8");
+        CartMutationSerializer serializer = new CartMutationSerializer(redisLease, 1, true, 5_000, 1_000);
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> serializer.execute(7L, () -> "seven"));
+        assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(serializer.execute(8L, () -> "eight")).isEqualTo("eight");
+
+        released.countDown();
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("seven");
+    }
+
+    @Test
+    void redis_outage_falls_back_to_the_local_lock() {
+        when(redisLease.tryAcquire(anyString(), any(Duration.class), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        CartMutationSerializer serializer = new CartMutationSerializer(redisLease, 16, true, 5_000, 1_000);
+
+        assertThat(serializer.execute(7L, () -> "done")).isEqualTo("done");
+
+        verify(redisLease, never()).release(anyString(), anyString());
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
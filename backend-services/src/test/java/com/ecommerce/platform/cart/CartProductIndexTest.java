@@ -0,0 +1,71 @@
+package com.ecommerce.platform.cart;
+
+import com.ecommerce.platform.config.RedisLease;
+import com.ecommerce.platform.modules.cart.service.CartProductIndex;
+import com.ecommerce.platform.modules.cart.service.CartStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CartProductIndexTest {
+
+    private static final List<String> MARKERS = List.of("cart:product-index:ready", "cart:product-index:rebuild");
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final SetOperations<String, String> setOperations = mock(SetOperations.class);
+    private final CartStore cartStore = mock(CartStore.class);
+    private final RedisLease redisLease = mock(RedisLease.class);
+    private final CartProductIndex index = new CartProductIndex(redisTemplate, cartStore, redisLease);
+
+    CartProductIndexTest() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(cartStore.findUserIdsWithProduct(10L)).thenReturn(Set.of(7L));
+    }
+
+    @Test
+    void failed_add_drops_the_ready_marker_so_lookups_ask_the_cart_store() {
+        when(setOperations.add("cart:product-index:10", "7")).thenThrow(new RedisConnectionFailureException("timeout"));
+
+        index.add(10L, 7L);
+
+        verify(redisTemplate).delete(MARKERS);
+        when(redisTemplate.hasKey("cart:product-index:ready")).thenReturn(false);
+        assertThat(index.findUserIds(10L)).containsExactly(7L);
+    }
+
+    @Test
+    void node_that_cannot_drop_the_marker_ignores_the_index_until_it_can() {
+        when(setOperations.add("cart:product-index:10", "7")).thenThrow(new RedisConnectionFailureException("down"));
+        when(redisTemplate.delete(anyCollection())).thenThrow(new RedisConnectionFailureException("down")).thenReturn(2L);
+        when(redisTemplate.hasKey("cart:product-index:ready")).thenReturn(true);
+
+        index.add(10L, 7L);
+
+        assertThat(index.findUserIds(10L)).containsExactly(7L);
+        verify(setOperations, never()).members(anyString());
+
+        when(redisLease.tryAcquire(anyString(), any(), any())).thenReturn(null);
+        when(redisTemplate.hasKey("cart:product-index:ready")).thenReturn(false);
+        index.rebuildIfMissing();
+
+        verify(cartStore, never()).forEachCartProduct(anyInt(), any());
+        when(redisTemplate.hasKey("cart:product-index:ready")).thenReturn(true);
+        when(setOperations.members("cart:product-index:10")).thenReturn(Set.of("7", "8"));
+        assertThat(index.findUserIds(10L)).containsExactlyInAnyOrder(7L, 8L);
+    }
+}
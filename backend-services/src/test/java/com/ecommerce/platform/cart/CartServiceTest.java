@@ -0,0 +1,211 @@
+package com.ecommerce.platform.cart;
+
+import com.ecommerce.platform.config.CacheNames;
+import com.ecommerce.platform.config.RedisLease;
+import com.ecommerce.platform.config.UserCartKeys;
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.cart.dto.CartItemDto;
+import com.ecommerce.platform.modules.cart.dto.CartResponse;
+import com.ecommerce.platform.modules.cart.dto.request.CartBatchOperation;
+import com.ecommerce.platform.modules.cart.service.CartLine;
+import com.ecommerce.platform.modules.cart.service.CartMutationSerializer;
+import com.ecommerce.platform.modules.cart.service.CartProductIndex;
+import com.ecommerce.platform.modules.cart.service.CartService;
+import com.ecommerce.platform.modules.cart.service.CartStore;
+import com.ecommerce.platform.modules.catalog.api.CatalogApi;
+import com.ecommerce.platform.modules.catalog.api.CatalogCartProduct;
+import com.ecommerce.platform.modules.pricing.index.DiscountIndex;
+import com.ecommerce.platform.modules.pricing.service.IndexedPricingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CartServiceTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(
+            7L, "user@example.com", "User", List.of("ROLE_USER"), null, null, null, true, true);
+
+    private final CartStore cartStore = mock(CartStore.class);
+    private final CatalogApi catalogApi = mock(CatalogApi.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheNames.USER_CART);
+    private final UserCartKeys userCartKeys = mock(UserCartKeys.class);
+    private final CartService cartService = new CartService(
+            cartStore,
+            catalogApi,
+            new IndexedPricingEngine(new DiscountIndex()),
+            mock(CartProductIndex.class),
+            new CartMutationSerializer(mock(RedisLease.class), 16, false, 5_000, 1_000),
+            cacheManager,
+            userCartKeys,
+            mock(PlatformTransactionManager.class)
+    );
+
+    @BeforeEach
+    void setUp() {
+        when(userCartKeys.key(7L)).thenReturn("7:2026-10-18");
+        when(cartStore.loadForMutation(7L))
+                .thenReturn(new ArrayList<>(List.of(new CartLine(10L, 1, null), new CartLine(11L, 2, null))));
+    }
+
+    @Test
+    void quantity_change_patches_the_cached_cart_without_catalog_lookups() {
+        cacheManager.getCache(CacheNames.USER_CART).put("7:2026-10-18", new CartResponse(List.of(line(10L, 1), line(11L, 2))));
+
+        CartResponse response = cartService.setQuantity(USER, 10L, 3);
+
+        assertThat(response.items()).extracting(CartItemDto::id, CartItemDto::quantity)
+                .containsExactly(tuple(10L, 3), tuple(11L, 2));
+        verify(cartStore).saveLine(7L, new CartLine(10L, 1, null), new CartLine(10L, 3, null));
+        verifyNoInteractions(catalogApi);
+    }
+
+    @Test
+    void removing_an_item_drops_only_its_line() {
+        cacheManager.getCache(CacheNames.USER_CART).put("7:2026-10-18", new CartResponse(List.of(line(10L, 1), line(11L, 2))));
+
+        CartResponse response = cartService.removeItem(USER, 10L);
+
+        assertThat(response.items()).extracting(CartItemDto::id).containsExactly(11L);
+        verify(cartStore).removeLine(7L, 10L);
+        verifyNoInteractions(catalogApi);
+    }
+
+    @Test
+    void cached_cart_that_disagrees_with_the_rows_is_rebuilt() {
+        cacheManager.getCache(CacheNames.USER_CART).put("7:2026-10-18", new CartResponse(List.of(line(10L, 5), line(11L, 2))));
+        when(catalogApi.getProductsForCart(any())).thenReturn(Map.of(
+                10L, new CatalogCartProduct(10L, "Product 10", new BigDecimal("10.00")),
+                11L, new CatalogCartProduct(11L, "Product 11", new BigDecimal("10.00"))
+        ));
+
+        CartResponse response = cartService.setQuantity(USER, 10L, 3);
+
+        assertThat(response.items()).extracting(CartItemDto::quantity).containsExactly(3, 2);
+        verify(catalogApi).getProductsForCart(any());
+    }
+
+    @Test
+    void mutation_priced_across_midnight_is_cached_under_the_day_it_started() {
+        when(userCartKeys.key(7L)).thenReturn("7:2026-10-17", "7:2026-10-18");
+        when(catalogApi.getProductsForCart(any())).thenReturn(Map.of(
+                10L, new CatalogCartProduct(10L, "Product 10", new BigDecimal("10.00")),
+                11L, new CatalogCartProduct(11L, "Product 11", new BigDecimal("10.00"))
+        ));
+
+        CartResponse response = cartService.setQuantity(USER, 10L, 3);
+
+        assertThat(cacheManager.getCache(CacheNames.USER_CART).get("7:2026-10-17", CartResponse.class)).isSameAs(response);
+        assertThat(cacheManager.getCache(CacheNames.USER_CART).get("7:2026-10-18")).isNull();
+    }
+
+    @Test
+    void mutation_caches_its_response_before_releasing_the_cart_lease() {
+        RedisLease redisLease = mock(RedisLease.class);
+        when(redisLease.tryAcquire(eq("cart:mutation-lease:7"), any(Duration.class), any(Duration.class))).thenReturn("token");
+        Cache carts = spy(cacheManager.getCache(CacheNames.USER_CART));
+        CacheManager spiedCacheManager = mock(CacheManager.class);
+        when(spiedCacheManager.getCache(CacheNames.USER_CART)).thenReturn(carts);
+        CartService leasedCartService = leasedCartService(redisLease, spiedCacheManager);
+        carts.put("7:2026-10-18", new CartResponse(List.of(line(10L, 1), line(11L, 2))));
+
+        CartResponse response = leasedCartService.setQuantity(USER, 10L, 3);
+
+        InOrder inOrder = inOrder(carts, redisLease);
+        inOrder.verify(carts).put("7:2026-10-18", response);
+        inOrder.verify(redisLease).release("cart:mutation-lease:7", "token");
+    }
+
+    @Test
+    void clear_runs_under_the_cart_lease_and_caches_the_empty_cart() {
+        RedisLease redisLease = mock(RedisLease.class);
+        when(redisLease.tryAcquire(eq("cart:mutation-lease:7"), any(Duration.class), any(Duration.class))).thenReturn("token");
+        when(cartStore.clear(7L)).thenReturn(List.of(10L, 11L));
+        cacheManager.getCache(CacheNames.USER_CART).put("7:2026-10-18", new CartResponse(List.of(line(10L, 1), line(11L, 2))));
+
+        leasedCartService(redisLease, cacheManager).clear(USER);
+
+        InOrder inOrder = inOrder(redisLease, cartStore);
+        inOrder.verify(redisLease).tryAcquire(eq("cart:mutation-lease:7"), any(Duration.class), any(Duration.class));
+        inOrder.verify(cartStore).clear(7L);
+        inOrder.verify(redisLease).release("cart:mutation-lease:7", "token");
+        assertThat(cacheManager.getCache(CacheNames.USER_CART).get("7:2026-10-18", CartResponse.class).items()).isEmpty();
+    }
+
+    @Test
+    void checkout_clear_waits_for_the_payment_transaction_to_commit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cartService.clearByUserId(7L);
+
+            verify(cartStore, never()).clear(7L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cartStore).clear(7L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void batch_uses_one_catalog_lookup_and_writes_only_changed_lines() {
+        when(catalogApi.getProductsForCart(List.of(10L, 11L, 12L))).thenReturn(Map.of(
+                10L, product(10L),
+                11L, product(11L),
+                12L, product(12L)
+        ));
+        when(catalogApi.getPrimaryImagesByProductIds(any())).thenReturn(Map.of());
+
+        CartResponse response = cartService.applyBatch(USER, List.of(
+                new CartBatchOperation(CartBatchOperation.Type.ADD, 12L, 1, null),
+                new CartBatchOperation(CartBatchOperation.Type.SET_QUANTITY, 11L, 5, null),
+                new CartBatchOperation(CartBatchOperation.Type.REMOVE, 10L, null, null)
+        ));
+
+        assertThat(response.items()).extracting(CartItemDto::id, CartItemDto::quantity)
+                .containsExactly(tuple(11L, 5), tuple(12L, 1));
+        verify(cartStore).saveLine(7L, new CartLine(11L, 2, null), new CartLine(11L, 5, null));
+        verify(cartStore).saveLine(7L, null, new CartLine(12L, 1, null));
+        verify(cartStore).removeLine(7L, 10L);
+        verify(catalogApi).getProductsForCart(List.of(10L, 11L, 12L));
+        verify(catalogApi, never()).getProductForCart(any());
+    }
+
+    private CartService leasedCartService(RedisLease redisLease, CacheManager cacheManager) {
+        return new CartService(cartStore, catalogApi, new IndexedPricingEngine(new DiscountIndex()),
+                mock(CartProductIndex.class), new CartMutationSerializer(redisLease, 16, true, 15_000, 1_000),
+                cacheManager, userCartKeys, mock(PlatformTransactionManager.class));
+    }
+
+    private CatalogCartProduct product(Long productId) {
+        return new CatalogCartProduct(productId, "Product " + productId, new BigDecimal("10.00"));
+    }
+
+    private CartItemDto line(Long productId, int quantity) {
+        BigDecimal price = new BigDecimal("10.00");
+        return new CartItemDto(productId, "Product " + productId, price, price, null, quantity, null,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
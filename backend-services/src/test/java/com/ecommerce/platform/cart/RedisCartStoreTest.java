@@ -0,0 +1,133 @@
+package com.ecommerce.platform.cart;
+
+import com.ecommerce.platform.config.RedisLease;
+import com.ecommerce.platform.modules.cart.model.Cart;
+import com.ecommerce.platform.modules.cart.repository.CartItemRepository;
+import com.ecommerce.platform.modules.cart.repository.CartRepository;
+import com.ecommerce.platform.modules.cart.service.CartLine;
+import com.ecommerce.platform.modules.cart.service.CartMutationSerializer;
+import com.ecommerce.platform.modules.cart.service.JpaCartStore;
+import com.ecommerce.platform.modules.cart.service.RedisCartStore;
+import com.ecommerce.platform.modules.catalog.api.CatalogApi;
+import com.ecommerce.platform.modules.catalog.api.CatalogCartProduct;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisCartStoreTest {
+
+    private static final List<String> KEYS = List.of("cart:live:7", "cart:live:dirty", "cart:mutation-lease:7");
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+    @SuppressWarnings("unchecked")
+    private final SetOperations<String, String> setOperations = mock(SetOperations.class);
+    private final JpaCartStore jpaCartStore = mock(JpaCartStore.class);
+    private final CatalogApi catalogApi = mock(CatalogApi.class);
+    private final RedisCartStore store = new RedisCartStore(
+            redisTemplate, jpaCartStore, catalogApi, mock(PlatformTransactionManager.class), 168, 200);
+
+    RedisCartStoreTest() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(hashOperations.entries("cart:live:7")).thenReturn(Map.of("#seq", "1", "#ver", "4", "p:10", "1|3|"));
+        when(catalogApi.getProductsForCart(List.of(10L)))
+                .thenReturn(Map.of(10L, new CatalogCartProduct(10L, "Product 10", new BigDecimal("10.00"))));
+    }
+
+    @Test
+    void line_write_passes_the_line_it_replaces_and_rejects_a_concurrent_change() {
+        when(redisTemplate.execute(any(), anyList(), any(Object[].class))).thenReturn(0L);
+
+        assertThatThrownBy(() -> store.saveLine(7L, new CartLine(10L, 3, null), new CartLine(10L, 4, 5L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(redisTemplate).execute(any(), eq(KEYS), eq("p:10"), eq("3|"), eq("4|5"), any(), eq("7"), eq(""));
+    }
+
+    @Test
+    void line_write_inside_a_mutation_is_fenced_by_its_lease_token() {
+        RedisLease redisLease = mock(RedisLease.class);
+        when(redisLease.tryAcquire(eq("cart:mutation-lease:7"), any(Duration.class), any(Duration.class))).thenReturn("token");
+        when(redisTemplate.execute(any(), anyList(), any(Object[].class))).thenReturn(1L);
+        CartMutationSerializer serializer = new CartMutationSerializer(redisLease, 16, true, 15_000, 1_000);
+
+        serializer.execute(7L, () -> {
+            store.saveLine(7L, null, new CartLine(11L, 1, null));
+            return null;
+        });
+
+        verify(redisTemplate).execute(any(), eq(KEYS), eq("p:11"), eq(""), eq("1|"), any(), eq("7"), eq("token"));
+    }
+
+    @Test
+    void clear_removes_every_line_in_one_fenced_script() {
+        when(redisTemplate.execute(any(), eq(KEYS), any(Object[].class))).thenReturn(List.of("10", "12"));
+
+        assertThat(store.clear(7L)).containsExactly(10L, 12L);
+
+        verify(redisTemplate).execute(any(), eq(KEYS), eq("604800000"), eq("7"), eq(""));
+        verify(redisTemplate, never()).execute(any(), eq(KEYS), eq("p:10"), any(), any(), any());
+    }
+
+    @Test
+    void checkout_flush_writes_the_cart_even_when_a_scheduled_flush_already_has_it() {
+        when(jpaCartStore.replaceLines(7L, List.of(new CartLine(10L, 3, null)), 4)).thenReturn(true);
+
+        store.flush(7L);
+
+        verify(jpaCartStore).replaceLines(7L, List.of(new CartLine(10L, 3, null)), 4);
+        verify(redisTemplate).execute(any(), eq(KEYS.subList(0, 2)), eq("4"), eq("7"));
+        verify(setOperations, never()).remove(any(), any());
+    }
+
+    @Test
+    void failed_scheduled_flush_leaves_the_user_dirty() {
+        when(setOperations.distinctRandomMembers("cart:live:dirty", 200)).thenReturn(Set.of("7"));
+        when(jpaCartStore.replaceLines(eq(7L), anyList(), anyLong())).thenThrow(new IllegalStateException("db down"));
+
+        store.flushDirtyCarts();
+
+        verify(redisTemplate, never()).execute(any(), anyList(), any(Object[].class));
+        verify(setOperations, never()).remove(any(), any());
+    }
+
+    @Test
+    void mysql_skips_a_snapshot_older_than_the_one_it_holds() {
+        CartRepository cartRepository = mock(CartRepository.class);
+        CartItemRepository cartItemRepository = mock(CartItemRepository.class);
+        Cart cart = new Cart(7L);
+        cart.setFlushedVersion(5);
+        when(cartRepository.findByUserIdForUpdate(7L)).thenReturn(Optional.of(cart));
+        JpaCartStore mysql = new JpaCartStore(cartRepository, cartItemRepository);
+
+        assertThat(mysql.replaceLines(7L, List.of(new CartLine(10L, 3, null)), 4)).isFalse();
+
+        assertThat(cart.getFlushedVersion()).isEqualTo(5);
+        verify(cartItemRepository, never()).findByCartIdOrderById(any());
+        verify(cartItemRepository, never()).saveAll(anyList());
+    }
+}
@@ -40,6 +40,43 @@ public class ProductControllerIT extends IntegrationTestBase {
                 .andExpect(jsonPath("$.items", hasSize(greaterThanOrEqualTo(1))));
     }
 
+    @Test
+    void scroll_products_walks_pages_with_cursor() throws Exception {
+        createProduct("Tent", 199.99, "Outdoor");
+        createProduct("Stove", 49.99, "Outdoor");
+        createProduct("Lamp", 19.99, "Outdoor");
+
+        String response = mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("category", "Outdoor")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].name", is("Tent")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String nextCursor = objectMapper.readTree(response).path("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("category", "Outdoor")
+                        .param("cursor", nextCursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("Lamp")))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void scroll_products_rejects_malformed_cursor() throws Exception {
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void get_products_rejects_size_above_limit() throws Exception {
         mockMvc.perform(get("/api/v1/products")
@@ -113,4 +150,35 @@ public class ProductControllerIT extends IntegrationTestBase {
                         .header("Authorization", "Bearer " + token))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void search_finds_products_created_through_api() throws Exception {
+        User admin = createUser("search-admin@example.com", "secret123", "ROLE_ADMIN");
+        String token = tokenFor(admin);
+
+        String body = objectMapper.writeValueAsString(java.util.Map.of(
+                "name", "Trail Running Shoes",
+                "description", "Lightweight shoes with aggressive grip",
+                "category", "Footwear",
+                "price", 129.99,
+                "images", java.util.List.of("http://example.com/shoes.png")
+        ));
+
+        mockMvc.perform(post("/api/v1/products")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", "runn"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name", is("Trail Running Shoes")))
+                .andExpect(jsonPath("$.categoryFacets.Footwear", is(1)));
+    }
+
+    @Test
+    void search_requires_query() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,45 @@
+package com.ecommerce.platform.catalog;
+
+import com.ecommerce.platform.config.CacheTagGenerations;
+import com.ecommerce.platform.modules.catalog.service.ProductListCacheKeys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductListCacheKeysTest {
+
+    private final CacheTagGenerations tagGenerations = mock(CacheTagGenerations.class);
+    private final ProductListCacheKeys keys = new ProductListCacheKeys(tagGenerations);
+
+    @Test
+    void key_carries_the_category_generation() {
+        when(tagGenerations.current("productLists:category:Electronics")).thenReturn(4L);
+
+        assertThat(keys.key("Electronics", 0, 20)).containsExactly("Electronics", 4L, 0, 20);
+    }
+
+    @Test
+    void blank_category_maps_to_unfiltered_listing_tag() {
+        when(tagGenerations.current("productLists:category:*")).thenReturn(7L);
+
+        assertThat(keys.key(" ", 1, 10)).containsExactly("*", 7L, 1, 10);
+    }
+
+    @Test
+    void invalidation_bumps_only_edited_categories_and_unfiltered_listing() {
+        keys.invalidateCategoriesAfterCommit(Arrays.asList("Books", "Electronics", null));
+
+        verify(tagGenerations).bumpAfterCommit(List.of(
+                "productLists:category:*",
+                "productLists:category:Books",
+                "productLists:category:Electronics"
+        ));
+    }
+}
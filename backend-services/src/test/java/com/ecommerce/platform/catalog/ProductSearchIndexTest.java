@@ -0,0 +1,80 @@
+package com.ecommerce.platform.catalog;
+
+import com.ecommerce.platform.modules.catalog.dto.response.ProductListItemResponse;
+import com.ecommerce.platform.modules.catalog.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.index(product(1L, "Wireless Mouse", "Ergonomic mouse with USB receiver", "Electronics"));
+        index.index(product(2L, "Mechanical Keyboard", "Keyboard with wireless and wired modes", "Electronics"));
+        index.index(product(3L, "Mouse Pad", "Large cloth pad", "Accessories"));
+        index.index(product(4L, "Camping Tent", "Two person tent", "Outdoor"));
+    }
+
+    @Test
+    void name_matches_rank_above_description_matches() {
+        var result = index.search("wireless", null, 0, 10);
+
+        assertThat(result.items()).extracting(ProductListItemResponse::id).containsExactly(1L, 2L);
+        assertThat(result.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void prefix_terms_match_longer_words() {
+        var result = index.search("keyb", null, 0, 10);
+
+        assertThat(result.items()).extracting(ProductListItemResponse::id).containsExactly(2L);
+    }
+
+    @Test
+    void facets_count_all_matches_while_category_filter_narrows_items() {
+        var result = index.search("mouse", "Accessories", 0, 10);
+
+        assertThat(result.items()).extracting(ProductListItemResponse::id).containsExactly(3L);
+        assertThat(result.facets()).containsEntry("Electronics", 1L).containsEntry("Accessories", 1L);
+        assertThat(result.totalHits()).isEqualTo(1);
+    }
+
+    @Test
+    void page_far_past_the_last_match_is_empty_instead_of_overflowing() {
+        var result = index.search("mouse", null, Integer.MAX_VALUE / 10, 100);
+
+        assertThat(result.items()).isEmpty();
+        assertThat(result.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void reindex_and_remove_update_postings() {
+        index.index(product(4L, "Camping Stove", "Compact gas stove", "Outdoor"));
+        assertThat(index.search("tent", null, 0, 10).items()).isEmpty();
+        assertThat(index.search("stove", null, 0, 10).items()).hasSize(1);
+
+        index.remove(4L);
+        assertThat(index.search("stove", null, 0, 10).items()).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void accents_and_case_are_folded() {
+        index.index(product(5L, "Crème Brûlée Torch", "Kitchen torch", "Kitchen"));
+
+        assertThat(index.search("CREME brulee", null, 0, 10).items())
+                .extracting(ProductListItemResponse::id)
+                .containsExactly(5L);
+    }
+
+    private ProductListItemResponse product(Long id, String name, String description, String category) {
+        return new ProductListItemResponse(id, name, description, category, BigDecimal.TEN, List.of());
+    }
+}
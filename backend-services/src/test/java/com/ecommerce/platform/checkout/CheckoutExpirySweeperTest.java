@@ -0,0 +1,73 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
+import com.ecommerce.platform.modules.checkout.repository.CheckoutOrderRepository;
+import com.ecommerce.platform.modules.checkout.repository.ExpiringTransactionRow;
+import com.ecommerce.platform.modules.checkout.repository.PaymentTransactionRepository;
+import com.ecommerce.platform.modules.checkout.service.CheckoutExpirySweeper;
+import com.ecommerce.platform.modules.checkout.service.CheckoutStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutExpirySweeperTest {
+
+    private static final Instant T1 = Instant.parse("2026-10-18T10:00:00Z");
+    private static final Instant T2 = Instant.parse("2026-10-18T10:05:00Z");
+
+    private final PaymentTransactionRepository transactionRepository = mock(PaymentTransactionRepository.class);
+    private final CheckoutOrderRepository orderRepository = mock(CheckoutOrderRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> publishedEvents = new ArrayList<>();
+    private final CheckoutExpirySweeper sweeper = new CheckoutExpirySweeper(transactionRepository, orderRepository,
+            mock(PlatformTransactionManager.class), publishedEvents::add, meterRegistry, 300_000, 2, 10);
+
+    @Test
+    void sweep_walks_the_keyset_and_expires_each_page_in_bulk() {
+        when(transactionRepository.findExpiredAfter(eq(PaymentStatus.PENDING), any(), eq(Instant.EPOCH), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(new ExpiringTransactionRow(11L, T1), new ExpiringTransactionRow(12L, T2)));
+        when(transactionRepository.findExpiredAfter(eq(PaymentStatus.PENDING), any(), eq(T2), eq(12L), any(Limit.class)))
+                .thenReturn(List.of(new ExpiringTransactionRow(9L, T2.plusSeconds(1))));
+        when(transactionRepository.expirePending(eq(List.of(11L, 12L)), any())).thenReturn(2);
+        when(transactionRepository.expirePending(eq(List.of(9L)), any())).thenReturn(0);
+        when(orderRepository.findAwaitingPaymentWithExpiredTransaction(List.of(11L, 12L))).thenReturn(List.of(101L));
+        when(orderRepository.findAwaitingPaymentWithExpiredTransaction(List.of(9L))).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verify(transactionRepository).expirePending(eq(List.of(9L)), any());
+        verify(orderRepository).expireAwaitingPayment(eq(List.of(101L)), any());
+        verify(orderRepository, never()).expireAwaitingPayment(eq(List.of()), any());
+        assertThat(publishedEvents).containsExactly(new CheckoutStatusChangedEvent(
+                new CheckoutStatusResponse(101L, "EXPIRED", "EXPIRED", "Checkout session expired")));
+        assertThat(meterRegistry.get("checkout.expiry.expired").tag("entity", "transaction").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("checkout.expiry.expired").tag("entity", "order").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("checkout.expiry.sweep").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_without_expired_rows_updates_nothing() {
+        when(transactionRepository.findExpiredAfter(any(), any(), any(), any(), any(Limit.class))).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verify(transactionRepository, never()).expirePending(anyList(), any());
+        verify(orderRepository, never()).expireAwaitingPayment(anyList(), any());
+        assertThat(publishedEvents).isEmpty();
+    }
+}
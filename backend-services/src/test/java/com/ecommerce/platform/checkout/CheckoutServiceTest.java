@@ -0,0 +1,202 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.cart.dto.CartItemDto;
+import com.ecommerce.platform.modules.cart.dto.CartResponse;
+import com.ecommerce.platform.modules.cart.service.CartService;
+import com.ecommerce.platform.modules.catalog.api.CatalogApi;
+import com.ecommerce.platform.modules.catalog.api.CatalogCartProduct;
+import com.ecommerce.platform.modules.checkout.dto.CheckoutResponse;
+import com.ecommerce.platform.modules.checkout.model.CheckoutOrder;
+import com.ecommerce.platform.modules.checkout.model.OrderStatus;
+import com.ecommerce.platform.modules.checkout.model.PaymentProvider;
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
+import com.ecommerce.platform.modules.checkout.model.PaymentTransaction;
+import com.ecommerce.platform.modules.checkout.payment.core.PaymentResponse;
+import com.ecommerce.platform.modules.checkout.payment.core.PaymentService;
+import com.ecommerce.platform.modules.checkout.payment.core.PaymentServiceResolver;
+import com.ecommerce.platform.modules.checkout.repository.CheckoutOrderRepository;
+import com.ecommerce.platform.modules.checkout.repository.PaymentTransactionRepository;
+import com.ecommerce.platform.modules.checkout.repository.WebhookEventLogRepository;
+import com.ecommerce.platform.modules.checkout.service.CheckoutService;
+import com.ecommerce.platform.modules.checkout.service.CheckoutStatusChangedEvent;
+import com.ecommerce.platform.modules.checkout.service.WebhookInbox;
+import com.ecommerce.platform.modules.pricing.index.DiscountIndex;
+import com.ecommerce.platform.modules.pricing.service.IndexedPricingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CheckoutServiceTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(
+            7L, "user@example.com", "User", List.of("ROLE_USER"), null, null, null, true, true);
+
+    private final CartService cartService = mock(CartService.class);
+    private final CatalogApi catalogApi = mock(CatalogApi.class);
+    private final CheckoutOrderRepository orderRepository = mock(CheckoutOrderRepository.class);
+    private final PaymentTransactionRepository transactionRepository = mock(PaymentTransactionRepository.class);
+    private final PaymentServiceResolver resolver = mock(PaymentServiceResolver.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final List<Object> publishedEvents = new CopyOnWriteArrayList<>();
+    private final CheckoutService checkoutService = new CheckoutService(
+            cartService,
+            catalogApi,
+            new IndexedPricingEngine(new DiscountIndex()),
+            orderRepository,
+            transactionRepository,
+            mock(WebhookEventLogRepository.class),
+            resolver,
+            mock(WebhookInbox.class),
+            transactionManager,
+            publishedEvents::add,
+            "usd"
+    );
+
+    private PaymentTransaction savedTransaction;
+
+    @BeforeEach
+    void setUp() {
+        when(cartService.getCart(USER)).thenReturn(new CartResponse(List.of(new CartItemDto(
+                10L, "Item", new BigDecimal("12.50"), new BigDecimal("12.50"), null, 2, null, null, null, null))));
+        when(catalogApi.getProductsForCart(List.of(10L)))
+                .thenReturn(Map.of(10L, new CatalogCartProduct(10L, "Item", new BigDecimal("12.50"))));
+        when(resolver.resolveConfigured()).thenReturn(paymentService);
+        when(paymentService.getProvider()).thenReturn(PaymentProvider.LOADTEST);
+        when(orderRepository.save(any(CheckoutOrder.class))).thenAnswer(invocation -> {
+            CheckoutOrder order = invocation.getArgument(0);
+            ReflectionTestUtils.setField(order, "id", 100L);
+            return order;
+        });
+        when(transactionRepository.save(any(PaymentTransaction.class))).thenAnswer(invocation -> {
+            PaymentTransaction transaction = invocation.getArgument(0);
+            if (transaction.getId() == null) {
+                ReflectionTestUtils.setField(transaction, "id", 200L);
+                savedTransaction = transaction;
+            }
+            return transaction;
+        });
+        when(transactionRepository.findLockedById(200L)).thenAnswer(invocation -> Optional.ofNullable(savedTransaction));
+    }
+
+    @Test
+    void provider_is_called_between_two_committed_transactions() {
+        AtomicBoolean transactionOpenDuringCall = new AtomicBoolean();
+        when(paymentService.createPayment(any())).thenAnswer(invocation -> {
+            transactionOpenDuringCall.set(transactionManager.active);
+            return new PaymentResponse(PaymentProvider.LOADTEST, PaymentStatus.PENDING, "http://pay/lt_session_1",
+                    "lt_session_1", "lt_payment_1", Instant.now().plusSeconds(1800), "created");
+        });
+
+        CheckoutResponse response = checkoutService.createCheckoutSession(USER);
+
+        assertThat(transactionOpenDuringCall).isFalse();
+        assertThat(transactionManager.commits).hasValue(2);
+        assertThat(response.orderId()).isEqualTo(100L);
+        assertThat(response.checkoutUrl()).isEqualTo("http://pay/lt_session_1");
+        assertThat(savedTransaction.getProviderSessionId()).isEqualTo("lt_session_1");
+        assertThat(savedTransaction.getPaymentIntentId()).isEqualTo("lt_payment_1");
+    }
+
+    @Test
+    void order_is_priced_from_the_current_catalog_price_not_the_cached_cart() {
+        when(catalogApi.getProductsForCart(List.of(10L)))
+                .thenReturn(Map.of(10L, new CatalogCartProduct(10L, "Item v2", new BigDecimal("14.00"))));
+        when(paymentService.createPayment(any())).thenReturn(new PaymentResponse(PaymentProvider.LOADTEST,
+                PaymentStatus.PENDING, "http://pay/lt_session_1", "lt_session_1", "lt_payment_1",
+                Instant.now().plusSeconds(1800), "created"));
+
+        checkoutService.createCheckoutSession(USER);
+
+        CheckoutOrder order = savedTransaction.getOrder();
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("28.00");
+        assertThat(order.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getUnitPrice()).isEqualByComparingTo("14.00");
+            assertThat(item.getTitle()).isEqualTo("Item v2");
+        });
+    }
+
+    @Test
+    void provider_failure_marks_the_committed_checkout_failed() {
+        when(paymentService.createPayment(any()))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Load-test payment failure"));
+
+        assertThatThrownBy(() -> checkoutService.createCheckoutSession(USER))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(transactionManager.commits).hasValue(2);
+        assertThat(savedTransaction.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(savedTransaction.getFailureReason()).isEqualTo("Load-test payment failure");
+        assertThat(savedTransaction.getOrder().getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(publishedEvents).singleElement()
+                .isInstanceOfSatisfying(CheckoutStatusChangedEvent.class, event -> {
+                    assertThat(event.status().orderId()).isEqualTo(100L);
+                    assertThat(event.status().status()).isEqualTo("FAILED");
+                    assertThat(event.status().paymentStatus()).isEqualTo("FAILED");
+                });
+    }
+
+    @Test
+    void confirmation_after_the_recovery_sweep_is_rejected() {
+        when(paymentService.createPayment(any())).thenAnswer(invocation -> {
+            checkoutService.failUnconfirmedCheckout(200L, "swept");
+            return new PaymentResponse(PaymentProvider.LOADTEST, PaymentStatus.PENDING, "http://pay/lt_session_2",
+                    "lt_session_2", "lt_payment_2", null, "created");
+        });
+
+        assertThatThrownBy(() -> checkoutService.createCheckoutSession(USER))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        assertThat(savedTransaction.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(savedTransaction.getProviderSessionId()).isNull();
+        assertThat(transactionManager.rollbacks).hasValue(1);
+    }
+
+    private static final class RecordingTransactionManager implements PlatformTransactionManager {
+
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        private volatile boolean active;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            active = true;
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            active = false;
+            commits.incrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            active = false;
+            rollbacks.incrementAndGet();
+        }
+    }
+}
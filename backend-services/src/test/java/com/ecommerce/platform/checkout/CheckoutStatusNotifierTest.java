@@ -0,0 +1,114 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.common.error.ServiceBusyException;
+import com.ecommerce.platform.config.RedisPubSub;
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.checkout.dto.CheckoutStatusResponse;
+import com.ecommerce.platform.modules.checkout.service.CheckoutService;
+import com.ecommerce.platform.modules.checkout.service.CheckoutStatusChangedEvent;
+import com.ecommerce.platform.modules.checkout.service.CheckoutStatusNotifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutStatusNotifierTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(
+            7L, "user@example.com", "User", List.of("ROLE_USER"), null, null, null, true, true);
+    private static final CheckoutStatusResponse PENDING =
+            new CheckoutStatusResponse(100L, "PENDING_PAYMENT", "PENDING", "Awaiting payment");
+    private static final CheckoutStatusResponse PAID =
+            new CheckoutStatusResponse(100L, "PAID", "SUCCEEDED", "Payment completed");
+
+    private final CheckoutService checkoutService = mock(CheckoutService.class);
+    private final RedisPubSub redisPubSub = mock(RedisPubSub.class);
+    private CheckoutStatusNotifier notifier;
+    private Consumer<String> remoteHandler;
+
+    @BeforeEach
+    void setUp() {
+        when(checkoutService.getOrderStatus(100L, USER)).thenReturn(PENDING);
+        notifier = new CheckoutStatusNotifier(checkoutService, redisPubSub, new ObjectMapper(), new SimpleMeterRegistry(),
+                "checkout:status", 25_000, 55_000, 2);
+        remoteHandler = subscribedHandler(redisPubSub);
+    }
+
+    @Test
+    void long_poll_answers_at_once_when_the_client_is_behind() {
+        DeferredResult<ResponseEntity<CheckoutStatusResponse>> result = notifier.awaitChange(100L, USER, null);
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(PENDING));
+    }
+
+    @Test
+    void parked_long_poll_is_answered_from_a_local_change_and_fanned_out() {
+        DeferredResult<ResponseEntity<CheckoutStatusResponse>> result =
+                notifier.awaitChange(100L, USER, "PENDING_PAYMENT");
+        assertThat(result.hasResult()).isFalse();
+
+        notifier.onStatusChanged(new CheckoutStatusChangedEvent(PAID));
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(PAID));
+        verify(redisPubSub).publish(eq("checkout:status"), any());
+    }
+
+    @Test
+    void parked_long_poll_is_answered_from_another_node_but_not_from_its_own_echo() {
+        DeferredResult<ResponseEntity<CheckoutStatusResponse>> result =
+                notifier.awaitChange(100L, USER, "PENDING_PAYMENT");
+
+        remoteHandler.accept("""
+                {"nodeId":"other-node","status":{"orderId":100,"status":"PAID","paymentStatus":"SUCCEEDED","message":"Payment completed"}}
+                """);
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(PAID));
+    }
+
+    @Test
+    void null_fields_reach_other_nodes_as_null() {
+        CheckoutStatusResponse expired = new CheckoutStatusResponse(100L, "EXPIRED", null, null);
+        RedisPubSub otherPubSub = mock(RedisPubSub.class);
+        CheckoutStatusNotifier otherNode = new CheckoutStatusNotifier(checkoutService, otherPubSub, new ObjectMapper(),
+                new SimpleMeterRegistry(), "checkout:status", 25_000, 55_000, 2);
+        DeferredResult<ResponseEntity<CheckoutStatusResponse>> result =
+                otherNode.awaitChange(100L, USER, "PENDING_PAYMENT");
+
+        notifier.onStatusChanged(new CheckoutStatusChangedEvent(expired));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisPubSub).publish(eq("checkout:status"), published.capture());
+        subscribedHandler(otherPubSub).accept(published.getValue());
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(expired));
+    }
+
+    @Test
+    void waiters_beyond_the_cap_are_shed() {
+        notifier.awaitChange(100L, USER, "PENDING_PAYMENT");
+        notifier.awaitChange(100L, USER, "PENDING_PAYMENT");
+
+        assertThatThrownBy(() -> notifier.awaitChange(100L, USER, "PENDING_PAYMENT"))
+                .isInstanceOf(ServiceBusyException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<String> subscribedHandler(RedisPubSub pubSub) {
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(pubSub).subscribe(eq("checkout:status"), handler.capture());
+        return handler.getValue();
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.common.error.ServiceBusyException;
+import com.ecommerce.platform.modules.checkout.payment.core.ProviderHttpClients;
+import com.ecommerce.platform.modules.checkout.payment.core.ProviderHttpSettings;
+import com.ecommerce.platform.modules.checkout.payment.stripe.StripeCheckoutLineItem;
+import com.ecommerce.platform.modules.checkout.payment.stripe.StripeCheckoutSession;
+import com.ecommerce.platform.modules.checkout.payment.stripe.StripeCheckoutSessionGateway;
+import com.ecommerce.platform.modules.checkout.payment.stripe.StripeProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the gateway against a local stub standing in for {@code app.stripe.api-base-url}.
+ */
+class StripeCheckoutSessionGatewayTest {
+
+    private static final String SESSION_JSON = """
+            {"id":"cs_test_1","url":"https://checkout.test/cs_test_1","payment_intent":"pi_test_1","expires_at":1893456000}
+            """;
+
+    private final Queue<Integer> scriptedStatuses = new ConcurrentLinkedQueue<>();
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private final ProviderHttpClients httpClients = new ProviderHttpClients(new SimpleMeterRegistry());
+    private HttpServer server;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/checkout/sessions", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        httpClients.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void sessions_are_created_over_one_kept_alive_connection() {
+        StripeCheckoutSessionGateway gateway = gateway(new ProviderHttpSettings(4, 30_000, 1_000, 4, 250, 0, 10, 5, 30_000));
+
+        StripeCheckoutSession first = gateway.createHostedCheckoutSession(1L, "usd", items(), "key-1");
+        gateway.createHostedCheckoutSession(2L, "usd", items(), "key-2");
+
+        assertThat(first.sessionId()).isEqualTo("cs_test_1");
+        assertThat(first.paymentIntentId()).isEqualTo("pi_test_1");
+        assertThat(idempotencyKeys).containsExactly("key-1", "key-2");
+        assertThat(clientPorts).hasSize(2).containsOnly(clientPorts.get(0));
+    }
+
+    @Test
+    void server_errors_are_retried_with_the_same_idempotency_key_within_the_budget() {
+        scriptedStatuses.add(503);
+        StripeCheckoutSessionGateway gateway = gateway(new ProviderHttpSettings(4, 30_000, 1_000, 4, 250, 2_000, 10, 5, 30_000));
+
+        StripeCheckoutSession session = gateway.createHostedCheckoutSession(1L, "usd", items(), "key-1");
+
+        assertThat(session.sessionId()).isEqualTo("cs_test_1");
+        assertThat(idempotencyKeys).containsExactly("key-1", "key-1");
+    }
+
+    @Test
+    void client_errors_are_not_retried() {
+        scriptedStatuses.add(400);
+        StripeCheckoutSessionGateway gateway = gateway(new ProviderHttpSettings(4, 30_000, 1_000, 4, 250, 2_000, 10, 5, 30_000));
+
+        assertThatThrownBy(() -> gateway.createHostedCheckoutSession(1L, "usd", items(), "key-1"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY));
+        assertThat(idempotencyKeys).hasSize(1);
+    }
+
+    @Test
+    void repeated_failures_open_the_circuit_and_shed_calls_without_reaching_the_provider() {
+        scriptedStatuses.add(500);
+        scriptedStatuses.add(500);
+        StripeCheckoutSessionGateway gateway = gateway(new ProviderHttpSettings(4, 30_000, 1_000, 4, 250, 0, 10, 2, 30_000));
+
+        for (long orderId = 1; orderId <= 2; orderId++) {
+            long id = orderId;
+            assertThatThrownBy(() -> gateway.createHostedCheckoutSession(id, "usd", items(), "key-" + id))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY));
+        }
+
+        assertThatThrownBy(() -> gateway.createHostedCheckoutSession(3L, "usd", items(), "key-3"))
+                .isInstanceOf(ServiceBusyException.class);
+        assertThat(idempotencyKeys).hasSize(2);
+    }
+
+    private StripeCheckoutSessionGateway gateway(ProviderHttpSettings http) {
+        StripeProperties properties = new StripeProperties(
+                "sk_test_stub",
+                "",
+                "",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1",
+                "http://localhost:5173/checkout/success",
+                "http://localhost:5173/checkout/cancel",
+                "usd",
+                1_000,
+                2_000,
+                http
+        );
+        return new StripeCheckoutSessionGateway(properties, new ObjectMapper(), httpClients);
+    }
+
+    private List<StripeCheckoutLineItem> items() {
+        return List.of(new StripeCheckoutLineItem("Camera", new BigDecimal("299.99"), 1));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        idempotencyKeys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+
+        Integer status = scriptedStatuses.poll();
+        byte[] body = (status == null ? SESSION_JSON : "{\"error\":{\"message\":\"stub\"}}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status == null ? 200 : status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
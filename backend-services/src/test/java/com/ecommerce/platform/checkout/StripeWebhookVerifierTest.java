@@ -1,6 +1,7 @@
 package com.ecommerce.platform.checkout;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.platform.modules.checkout.payment.core.ProviderHttpSettings;
 import com.ecommerce.platform.modules.checkout.payment.stripe.StripeProperties;
 import com.ecommerce.platform.modules.checkout.payment.stripe.StripeWebhookEvent;
 import com.ecommerce.platform.modules.checkout.payment.stripe.StripeWebhookVerifier;
@@ -34,7 +35,7 @@ class StripeWebhookVerifierTest {
                 "usd",
                 3000,
                 10000,
-                2
+                new ProviderHttpSettings(20, 30000, 1000, 16, 250, 3000, 100, 5, 30000)
         );
         verifier = new StripeWebhookVerifier(properties, new ObjectMapper());
     }
@@ -55,7 +56,7 @@ class StripeWebhookVerifierTest {
                 """;
         String header = buildSignatureHeader(payload, Instant.now().getEpochSecond());
 
-        StripeWebhookEvent event = verifier.verifyAndParse(payload, header);
+        StripeWebhookEvent event = verifier.verifyAndParse(bytes(payload), header);
 
         assertEquals("evt_123", event.eventId());
         assertEquals("checkout.session.completed", event.type());
@@ -68,7 +69,7 @@ class StripeWebhookVerifierTest {
                 {"id":"evt_123","type":"checkout.session.completed","data":{"object":{"id":"cs_test_123"}}}
                 """;
         ResponseStatusException ex = assertThrows(ResponseStatusException.class,
-                () -> verifier.verifyAndParse(payload, null));
+                () -> verifier.verifyAndParse(bytes(payload), null));
         assertEquals(400, ex.getStatusCode().value());
     }
 
@@ -80,10 +81,29 @@ class StripeWebhookVerifierTest {
         String badHeader = "t=" + Instant.now().getEpochSecond() + ",v1=bad_signature";
 
         ResponseStatusException ex = assertThrows(ResponseStatusException.class,
-                () -> verifier.verifyAndParse(payload, badHeader));
+                () -> verifier.verifyAndParse(bytes(payload), badHeader));
         assertEquals(400, ex.getStatusCode().value());
     }
 
+    @Test
+    void accept_any_v1_signature_while_the_secret_is_rolled() {
+        String payload = """
+                {"id":"evt_124","type":"checkout.session.completed","data":{"object":{"id":"cs_test_124"}}}
+                """;
+        long timestamp = Instant.now().getEpochSecond();
+        String header = "t=" + timestamp
+                + ",v1=" + hmacSha256Hex("whsec_retired_secret", timestamp + "." + payload)
+                + ",v1=" + hmacSha256Hex(WEBHOOK_SECRET, timestamp + "." + payload);
+
+        StripeWebhookEvent event = verifier.verifyAndParse(bytes(payload), header);
+
+        assertEquals("evt_124", event.eventId());
+    }
+
+    private byte[] bytes(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+
     private String buildSignatureHeader(String payload, long timestamp) {
         String signedPayload = timestamp + "." + payload;
         String signature = hmacSha256Hex(WEBHOOK_SECRET, signedPayload);
@@ -0,0 +1,86 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.modules.checkout.model.PaymentProvider;
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxEvent;
+import com.ecommerce.platform.modules.checkout.payment.core.PaymentVerifyResponse;
+import com.ecommerce.platform.modules.checkout.repository.WebhookInboxRepository;
+import com.ecommerce.platform.modules.checkout.service.WebhookInbox;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebhookInboxTest {
+
+    private final WebhookInboxRepository repository = mock(WebhookInboxRepository.class);
+    private final WebhookInbox inbox = new WebhookInbox(repository, mock(PlatformTransactionManager.class),
+            60_000, 3, 1_000, 10_000);
+
+    @Test
+    void append_partitions_by_provider_reference_and_skips_known_events() {
+        PaymentVerifyResponse event = new PaymentVerifyResponse(PaymentProvider.LOADTEST, "evt_1",
+                "checkout.session.completed", true, "lt_session_1", "lt_payment_1", null, PaymentStatus.SUCCEEDED, null);
+        when(repository.existsByEventId("LOADTEST:evt_2")).thenReturn(true);
+
+        assertThat(inbox.append("LOADTEST:evt_1", PaymentProvider.LOADTEST, event, "{}")).isTrue();
+        assertThat(inbox.append("LOADTEST:evt_2", PaymentProvider.LOADTEST, event, "{}")).isFalse();
+
+        ArgumentCaptor<WebhookInboxEvent> saved = ArgumentCaptor.forClass(WebhookInboxEvent.class);
+        verify(repository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getPartitionKey()).isEqualTo("LOADTEST:lt_session_1");
+        assertThat(saved.getValue().getEventId()).isEqualTo("LOADTEST:evt_1");
+    }
+
+    @Test
+    void session_and_payment_intent_events_of_one_order_share_a_partition() {
+        PaymentVerifyResponse expired = new PaymentVerifyResponse(PaymentProvider.STRIPE, "evt_1",
+                "checkout.session.expired", true, "cs_1", null, "42", PaymentStatus.EXPIRED, null);
+        PaymentVerifyResponse failed = new PaymentVerifyResponse(PaymentProvider.STRIPE, "evt_2",
+                "payment_intent.payment_failed", true, null, "pi_1", "42", PaymentStatus.FAILED, null);
+
+        inbox.append("STRIPE:evt_1", PaymentProvider.STRIPE, expired, "{}");
+        inbox.append("STRIPE:evt_2", PaymentProvider.STRIPE, failed, "{}");
+
+        ArgumentCaptor<WebhookInboxEvent> saved = ArgumentCaptor.forClass(WebhookInboxEvent.class);
+        verify(repository, times(2)).saveAndFlush(saved.capture());
+        assertThat(saved.getAllValues()).extracting(WebhookInboxEvent::getPartitionKey)
+                .containsOnly("STRIPE:order:42");
+    }
+
+    @Test
+    void failures_back_off_exponentially_and_park_after_the_last_attempt() {
+        WebhookInboxEvent event = claimed(2);
+        Instant before = Instant.now();
+
+        assertThat(inbox.markFailed(event, "boom")).isFalse();
+
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).reschedule(eq(7L), next.capture(), eq("boom"));
+        assertThat(next.getValue()).isBetween(before.plusMillis(1_000), Instant.now().plusMillis(2_000));
+        verify(repository, never()).markDead(any(), anyString());
+
+        assertThat(inbox.markFailed(claimed(3), "boom")).isTrue();
+        verify(repository).markDead(7L, "boom");
+    }
+
+    private WebhookInboxEvent claimed(int attempts) {
+        WebhookInboxEvent event = new WebhookInboxEvent("LOADTEST:evt_1", PaymentProvider.LOADTEST,
+                "checkout.session.completed", "LOADTEST:lt_session_1", "lt_session_1", null, PaymentStatus.SUCCEEDED, null, "{}");
+        ReflectionTestUtils.setField(event, "id", 7L);
+        event.setAttempts(attempts);
+        return event;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.modules.checkout.model.PaymentProvider;
+import com.ecommerce.platform.modules.checkout.model.PaymentStatus;
+import com.ecommerce.platform.modules.checkout.model.WebhookInboxEvent;
+import com.ecommerce.platform.modules.checkout.service.CheckoutService;
+import com.ecommerce.platform.modules.checkout.service.WebhookInbox;
+import com.ecommerce.platform.modules.checkout.service.WebhookInboxWorkerPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebhookInboxWorkerPoolTest {
+
+    private final WebhookInbox inbox = mock(WebhookInbox.class);
+    private final CheckoutService checkoutService = mock(CheckoutService.class);
+    private final WebhookInboxWorkerPool pool = new WebhookInboxWorkerPool(
+            inbox, checkoutService, new SimpleMeterRegistry(), 4, 16, 50, 500, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        pool.destroy();
+    }
+
+    @Test
+    void events_for_one_payment_apply_in_claim_order() {
+        WebhookInboxEvent first = event(1L, "LOADTEST:lt_session_1");
+        WebhookInboxEvent second = event(2L, "LOADTEST:lt_session_1");
+        WebhookInboxEvent other = event(3L, "LOADTEST:lt_session_2");
+        when(inbox.claimDue(anyInt())).thenReturn(List.of(first, second, other));
+        List<Long> applied = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            WebhookInboxEvent event = invocation.getArgument(0);
+            if (event == first) {
+                Thread.sleep(50);
+            }
+            applied.add(event.getId());
+            return null;
+        }).when(checkoutService).applyPaymentEvent(any());
+
+        pool.drain();
+
+        verify(inbox, timeout(2_000)).markProcessed(first);
+        verify(inbox, timeout(2_000)).markProcessed(second);
+        verify(inbox, timeout(2_000)).markProcessed(other);
+        assertThat(applied.indexOf(1L)).isLessThan(applied.indexOf(2L));
+    }
+
+    @Test
+    void failed_events_are_retried_and_events_behind_a_pending_one_are_deferred() {
+        WebhookInboxEvent failing = event(1L, "LOADTEST:lt_session_1");
+        WebhookInboxEvent behind = event(2L, "LOADTEST:lt_session_2");
+        when(inbox.claimDue(anyInt())).thenReturn(List.of(failing, behind));
+        when(inbox.hasEarlierPending(behind)).thenReturn(true);
+        doThrow(new IllegalStateException("unknown transaction")).when(checkoutService).applyPaymentEvent(failing);
+
+        pool.drain();
+
+        verify(inbox, timeout(2_000)).markFailed(failing, "unknown transaction");
+        verify(inbox, timeout(2_000)).release(behind, Duration.ofMillis(500));
+        verify(checkoutService, never()).applyPaymentEvent(behind);
+        verify(inbox, never()).markProcessed(any());
+    }
+
+    private WebhookInboxEvent event(Long id, String partitionKey) {
+        WebhookInboxEvent event = new WebhookInboxEvent("LOADTEST:evt_" + id, PaymentProvider.LOADTEST,
+                "checkout.session.completed", partitionKey, null, null, PaymentStatus.SUCCEEDED, null, "{}");
+        ReflectionTestUtils.setField(event, "id", id);
+        return event;
+    }
+}
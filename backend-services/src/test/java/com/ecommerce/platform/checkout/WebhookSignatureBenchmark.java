@@ -0,0 +1,88 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.modules.checkout.payment.core.WebhookSignatureVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook signature check per request: the per-provider code this replaced (new {@link Mac} per
+ * call, {@code String.format} hex, compare on hex bytes) against {@link WebhookSignatureVerifier}.
+ * Not a unit test; run with {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args=WebhookSignature}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class WebhookSignatureBenchmark {
+
+    private static final String SECRET = "whsec_benchmark_secret";
+
+    @Param({"512", "8192"})
+    public int payloadBytes;
+
+    private String payload;
+    private byte[] payloadRaw;
+    private String signature;
+    private WebhookSignatureVerifier verifier;
+    private WebhookSignatureVerifier rotatingVerifier;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        char[] body = new char[payloadBytes];
+        Arrays.fill(body, 'x');
+        payload = "{\"eventId\":\"evt_1\",\"pad\":\"" + new String(body) + "\"}";
+        payloadRaw = payload.getBytes(StandardCharsets.UTF_8);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        signature = HexFormat.of().formatHex(mac.doFinal(payloadRaw));
+        verifier = WebhookSignatureVerifier.fromSecrets(SECRET);
+        rotatingVerifier = WebhookSignatureVerifier.fromSecrets("whsec_next_secret," + SECRET);
+    }
+
+    @Benchmark
+    public boolean legacyPerCallMac() {
+        String expected = legacyHmacSha256Hex(SECRET, payload);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public boolean sharedVerifier() {
+        return verifier.matches(payloadRaw, signature);
+    }
+
+    @Benchmark
+    public boolean sharedVerifierTwoSecrets() {
+        return rotatingVerifier.matches(payloadRaw, signature);
+    }
+
+    private static String legacyHmacSha256Hex(String secret, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.platform.checkout;
+
+import com.ecommerce.platform.modules.checkout.payment.core.WebhookSignatureVerifier;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookSignatureVerifierTest {
+
+    private static final byte[] PAYLOAD = "{\"eventId\":\"evt_1\",\"amount\":\"12.50\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void matches_lower_and_upper_case_hex_of_the_expected_digest() {
+        WebhookSignatureVerifier verifier = WebhookSignatureVerifier.fromSecrets("secret-a");
+        String signature = hmacHex("secret-a", PAYLOAD);
+
+        assertThat(verifier.matches(PAYLOAD, signature)).isTrue();
+        assertThat(verifier.matches(PAYLOAD, signature.toUpperCase())).isTrue();
+        assertThat(verifier.matches(PAYLOAD, hmacHex("secret-b", PAYLOAD))).isFalse();
+    }
+
+    @Test
+    void accepts_every_listed_secret_during_rotation() {
+        WebhookSignatureVerifier verifier = WebhookSignatureVerifier.fromSecrets("secret-new, secret-old");
+
+        assertThat(verifier.matches(PAYLOAD, hmacHex("secret-new", PAYLOAD))).isTrue();
+        assertThat(verifier.matches(PAYLOAD, hmacHex("secret-old", PAYLOAD))).isTrue();
+        assertThat(verifier.matches(PAYLOAD, hmacHex("secret-retired", PAYLOAD))).isFalse();
+    }
+
+    @Test
+    void rejects_malformed_signatures_and_unconfigured_secrets() {
+        WebhookSignatureVerifier verifier = WebhookSignatureVerifier.fromSecrets("secret-a");
+        String signature = hmacHex("secret-a", PAYLOAD);
+
+        assertThat(verifier.matches(PAYLOAD, signature.substring(2))).isFalse();
+        assertThat(verifier.matches(PAYLOAD, "zz" + signature.substring(2))).isFalse();
+        assertThat(verifier.matches(PAYLOAD, null)).isFalse();
+        assertThat(WebhookSignatureVerifier.fromSecrets(" ").isConfigured()).isFalse();
+        assertThat(WebhookSignatureVerifier.fromSecrets(" ").matches(PAYLOAD, signature)).isFalse();
+    }
+
+    @Test
+    void signed_prefix_is_hashed_ahead_of_the_payload() {
+        WebhookSignatureVerifier verifier = WebhookSignatureVerifier.fromSecrets("secret-a");
+        byte[] prefix = "1700000000.".getBytes(StandardCharsets.UTF_8);
+        byte[] signed = new byte[prefix.length + PAYLOAD.length];
+        System.arraycopy(prefix, 0, signed, 0, prefix.length);
+        System.arraycopy(PAYLOAD, 0, signed, prefix.length, PAYLOAD.length);
+
+        assertThat(verifier.matches(prefix, PAYLOAD, hmacHex("secret-a", signed))).isTrue();
+        assertThat(verifier.matches(PAYLOAD, hmacHex("secret-a", signed))).isFalse();
+    }
+
+    private static String hmacHex(String secret, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(payload));
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
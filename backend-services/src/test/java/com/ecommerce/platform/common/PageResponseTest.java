@@ -0,0 +1,45 @@
+package com.ecommerce.platform.common;
+
+import com.ecommerce.platform.common.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageResponseTest {
+
+    @Test
+    void slice_page_uses_maintained_total_while_more_pages_exist() {
+        var slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true);
+
+        PageResponse<String> response = PageResponse.from(slice, 9, item -> item);
+
+        assertThat(response.totalItems()).isEqualTo(9);
+        assertThat(response.totalPages()).isEqualTo(5);
+        assertThat(response.hasNext()).isTrue();
+    }
+
+    @Test
+    void slice_page_never_reports_fewer_items_than_it_has_seen() {
+        var slice = new SliceImpl<>(List.of("c", "d"), PageRequest.of(3, 2), true);
+
+        PageResponse<String> response = PageResponse.from(slice, 4, item -> item);
+
+        assertThat(response.totalItems()).isEqualTo(9);
+        assertThat(response.totalPages()).isEqualTo(5);
+    }
+
+    @Test
+    void last_slice_page_reports_exact_total() {
+        var slice = new SliceImpl<>(List.of("e"), PageRequest.of(2, 2), false);
+
+        PageResponse<String> response = PageResponse.from(slice, 42, item -> item);
+
+        assertThat(response.totalItems()).isEqualTo(5);
+        assertThat(response.totalPages()).isEqualTo(3);
+        assertThat(response.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.platform.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheTagGenerationsTest {
+
+    private static final String KEY = "cache:tag-generation:productLists:global";
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private final CacheTagGenerations generations = new CacheTagGenerations(redisTemplate, 60_000);
+
+    CacheTagGenerationsTest() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void failed_bump_keeps_the_shared_generation_and_is_retried() {
+        when(valueOperations.get(KEY)).thenReturn("4");
+        when(valueOperations.increment(KEY))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(5L);
+
+        generations.bumpAfterCommit(List.of("productLists:global"));
+        assertThat(generations.current("productLists:global")).isEqualTo(4L);
+
+        generations.retryPendingBumps();
+        generations.retryPendingBumps();
+
+        assertThat(generations.current("productLists:global")).isEqualTo(5L);
+        verify(valueOperations, times(2)).increment(KEY);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.platform.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ConcurrentMapCache remote = new ConcurrentMapCache("products");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrent_misses_share_one_load() throws Exception {
+        CoalescingCache cache = cache(1.0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            releaseLoader.await();
+            return "camera";
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        while (meterRegistry.counter("cache.coalesced.waiters", "cache", "products").count() < 1) {
+            Thread.onSpinWait();
+        }
+        releaseLoader.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("camera");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("camera");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void waiter_loads_directly_when_the_shared_load_outlasts_the_wait_timeout() throws Exception {
+        CoalescingCache cache = new CoalescingCache(remote, Duration.ofMinutes(10), 1.0, Duration.ofMillis(50),
+                Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loaderStarted.countDown();
+            releaseLoader.await();
+            return "camera";
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(cache.get(1L, () -> "direct")).isEqualTo("direct");
+        assertThat(meterRegistry.counter("cache.coalesced.timeouts", "cache", "products").count()).isEqualTo(1.0);
+        releaseLoader.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("camera");
+    }
+
+    @Test
+    void loader_failure_reaches_the_caller_and_is_not_cached() {
+        CoalescingCache cache = cache(1.0);
+
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(1L, () -> "camera")).isEqualTo("camera");
+    }
+
+    @Test
+    void entries_are_enveloped_but_read_back_unwrapped() {
+        CoalescingCache cache = cache(1.0);
+        cache.put(1L, "camera");
+
+        assertThat(remote.get(1L).get()).isEqualTo(new CacheEnvelope("camera", NOW.plus(Duration.ofMinutes(10)).toEpochMilli(), 0L));
+        assertThat(cache.get(1L, String.class)).isEqualTo("camera");
+        assertThat(cache.get(1L, () -> "reloaded")).isEqualTo("camera");
+    }
+
+    @Test
+    void legacy_entries_without_envelope_are_still_served() {
+        remote.put(1L, "camera");
+
+        assertThat(cache(1.0).get(1L, () -> "reloaded")).isEqualTo("camera");
+    }
+
+    @Test
+    void entry_close_to_expiry_with_expensive_load_is_refreshed_early() {
+        CoalescingCache cache = cache(1.0);
+        remote.put(1L, new CacheEnvelope("stale", NOW.toEpochMilli() + 1, 60_000L));
+
+        assertThat(cache.get(1L, () -> "fresh")).isEqualTo("fresh");
+        assertThat(meterRegistry.counter("cache.early.refreshes", "cache", "products").count()).isEqualTo(1.0);
+        assertThat(cache.get(1L, String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    void early_refresh_is_disabled_with_zero_beta() {
+        CoalescingCache cache = cache(0.0);
+        CacheEnvelope envelope = new CacheEnvelope("stale", NOW.toEpochMilli() + 1, 60_000L);
+
+        assertThat(cache.shouldRefreshEarly(envelope)).isFalse();
+    }
+
+    private CoalescingCache cache(double beta) {
+        return new CoalescingCache(remote, Duration.ofMinutes(10), beta, Duration.ofSeconds(5),
+                Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+    }
+}
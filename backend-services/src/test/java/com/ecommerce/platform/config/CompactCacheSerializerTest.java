@@ -0,0 +1,107 @@
+package com.ecommerce.platform.config;
+
+import com.ecommerce.platform.common.dto.PageResponse;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactCacheSerializerTest {
+
+    private static final JavaType PAGE_OF_ITEMS =
+            TypeFactory.defaultInstance().constructParametricType(PageResponse.class, Item.class);
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(smileMapper, List.of(PAGE_OF_ITEMS), 512);
+
+    @Test
+    void enveloped_page_round_trips_with_its_generic_type() {
+        CacheEnvelope envelope = new CacheEnvelope(page(3), 1_000L, 12L);
+
+        Object read = serializer.deserialize(serializer.serialize(envelope));
+
+        assertThat(read).isEqualTo(envelope);
+    }
+
+    @Test
+    void large_payloads_are_compressed() {
+        byte[] bytes = serializer.serialize(page(100));
+
+        assertThat(bytes[0]).isEqualTo(CompactCacheSerializer.MAGIC);
+        assertThat(bytes[2] & 1).isEqualTo(1);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(page(100));
+    }
+
+    @Test
+    void json_entries_written_before_the_switch_read_as_a_miss() {
+        byte[] legacy = "{\"@class\":\"com.ecommerce.platform.common.dto.PageResponse\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(serializer.deserialize(legacy)).isNull();
+    }
+
+    @Test
+    void entries_for_a_type_no_longer_declared_read_as_a_miss() {
+        JavaType otherType = TypeFactory.defaultInstance().constructParametricType(PageResponse.class, String.class);
+        byte[] bytes = new CompactCacheSerializer(smileMapper, List.of(otherType), 512)
+                .serialize(new PageResponse<>(List.of("a"), 0, 1, 1, 1, false));
+
+        assertThat(serializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void same_class_with_a_different_property_shape_gets_a_different_fingerprint() {
+        ObjectMapper renamed = smileMapper.copy().addMixIn(Item.class, RenamedCategory.class);
+        ObjectMapper trimmed = smileMapper.copy().addMixIn(Item.class, WithoutPrice.class);
+
+        int original = CompactCacheSerializer.fingerprint(smileMapper, PAGE_OF_ITEMS);
+
+        assertThat(CompactCacheSerializer.fingerprint(smileMapper.copy(), PAGE_OF_ITEMS)).isEqualTo(original);
+        assertThat(CompactCacheSerializer.fingerprint(renamed, PAGE_OF_ITEMS)).isNotEqualTo(original);
+        assertThat(CompactCacheSerializer.fingerprint(trimmed, PAGE_OF_ITEMS)).isNotEqualTo(original);
+    }
+
+    @Test
+    void entries_written_for_an_older_shape_of_the_same_class_read_as_a_miss() {
+        ObjectMapper olderShape = smileMapper.copy().addMixIn(Item.class, WithoutPrice.class);
+        byte[] bytes = new CompactCacheSerializer(olderShape, List.of(PAGE_OF_ITEMS), 512).serialize(page(2));
+
+        assertThat(serializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void values_outside_the_schema_are_rejected_on_write() {
+        assertThatThrownBy(() -> serializer.serialize("not a page")).isInstanceOf(SerializationException.class);
+    }
+
+    private PageResponse<Item> page(int count) {
+        List<Item> items = IntStream.range(0, count)
+                .mapToObj(i -> new Item((long) i, "Product " + i, "electronics", BigDecimal.valueOf(1999, 2)))
+                .toList();
+        return new PageResponse<>(items, 0, count, 1_000, 10, true);
+    }
+
+    record Item(Long id, String name, String category, BigDecimal price) {
+    }
+
+    abstract static class RenamedCategory {
+        @JsonProperty("section")
+        abstract String category();
+    }
+
+    abstract static class WithoutPrice {
+        @JsonIgnore
+        abstract BigDecimal price();
+    }
+}
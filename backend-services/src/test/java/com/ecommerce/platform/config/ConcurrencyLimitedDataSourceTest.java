@@ -0,0 +1,45 @@
+package com.ecommerce.platform.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void connections_beyond_the_permit_count_wait_and_then_time_out() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        when(target.getConnection()).thenReturn(first, second);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(
+                target, 1, Duration.ofMillis(50), meterRegistry);
+
+        Connection held = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(meterRegistry.get("db.connection.permit.timeouts").counter().count()).isEqualTo(1.0);
+
+        held.close();
+        held.close();
+        verify(first, times(2)).close();
+
+        Connection next = dataSource.getConnection();
+        assertThat(next.unwrap(Connection.class)).isSameAs(next);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        next.close();
+        verify(second).close();
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.platform.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TwoLevelCacheManagerTest {
+
+    private static final String CHANNEL = "cache:near-invalidation";
+
+    private final ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+    private final RedisPubSub redisPubSub = mock(RedisPubSub.class);
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TwoLevelCacheManager(
+                remote,
+                Map.of("products", new NearCacheSpec(100, Duration.ofMinutes(1))),
+                Map.of(),
+                Duration.ofMinutes(10),
+                1.0,
+                Duration.ofSeconds(5),
+                redisPubSub,
+                CHANNEL,
+                null
+        );
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    void near_tier_serves_reads_without_touching_remote() {
+        Cache cache = cacheManager.getCache("products");
+        cache.put(1L, "camera");
+
+        remote.getCache("products").clear();
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("camera");
+    }
+
+    @Test
+    void caches_without_spec_are_remote_only() {
+        Cache cache = cacheManager.getCache("productReviews");
+        cache.put(1L, "review");
+
+        remote.getCache("productReviews").clear();
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void put_and_evict_are_broadcast_to_other_nodes() {
+        Cache cache = cacheManager.getCache("products");
+        cache.put(7L, "camera");
+        cache.evict(7L);
+
+        assertThat(cache.get(7L)).isNull();
+        verify(redisPubSub, times(2)).publish(eq(CHANNEL), eq(cacheManager.getNodeId() + "|products|k:7"));
+    }
+
+    @Test
+    void put_if_absent_fills_near_without_broadcasting() {
+        Cache cache = cacheManager.getCache("products");
+        cache.putIfAbsent(8L, "flash");
+
+        remote.getCache("products").clear();
+
+        assertThat(cache.get(8L, String.class)).isEqualTo("flash");
+        verify(redisPubSub, never()).publish(eq(CHANNEL), any());
+    }
+
+    @Test
+    void loaded_values_fill_near_without_broadcasting() {
+        Cache cache = cacheManager.getCache("products");
+
+        assertThat(cache.get(6L, () -> "lens")).isEqualTo("lens");
+
+        remote.getCache("products").clear();
+        assertThat(cache.get(6L, String.class)).isEqualTo("lens");
+        verify(redisPubSub, never()).publish(eq(CHANNEL), any());
+    }
+
+    @Test
+    void evict_drops_near_entry_and_broadcasts_even_when_remote_fails() {
+        Cache failingRemote = mock(Cache.class);
+        doThrow(new IllegalStateException("redis down")).when(failingRemote).evict(9L);
+        doThrow(new IllegalStateException("redis down")).when(failingRemote).clear();
+        com.github.benmanes.caffeine.cache.Cache<String, Object> near = Caffeine.newBuilder().build();
+        List<String> published = new ArrayList<>();
+        TwoLevelCache cache = new TwoLevelCache(failingRemote, near, published::add);
+        near.put("9", "strap");
+
+        assertThatThrownBy(() -> cache.evict(9L)).isInstanceOf(IllegalStateException.class);
+        assertThat(near.getIfPresent("9")).isNull();
+        near.put("10", "bag");
+        assertThatThrownBy(cache::clear).isInstanceOf(IllegalStateException.class);
+        assertThat(near.estimatedSize()).isZero();
+        assertThat(published).containsExactly("9", null);
+    }
+
+    @Test
+    void remote_invalidation_drops_near_entry() {
+        Cache cache = cacheManager.getCache("products");
+        cache.put(3L, "lens");
+        remote.getCache("products").put(3L, "lens v2");
+
+        cacheManager.onInvalidation("other-node|products|k:3");
+
+        assertThat(cache.get(3L, String.class)).isEqualTo("lens v2");
+    }
+
+    @Test
+    void own_invalidation_messages_are_ignored() {
+        Cache cache = cacheManager.getCache("products");
+        cache.put(4L, "tripod");
+        remote.getCache("products").clear();
+
+        cacheManager.onInvalidation(cacheManager.getNodeId() + "|products|*");
+
+        assertThat(cache.get(4L, String.class)).isEqualTo("tripod");
+    }
+
+    @Test
+    void weigher_counts_collection_elements() {
+        record Page(List<String> items, int page) {
+        }
+
+        assertThat(CacheValueWeigher.weightOf(new Page(List.of("a", "b", "c"), 0))).isEqualTo(4);
+        assertThat(CacheValueWeigher.weightOf(List.of("a", "b"))).isEqualTo(3);
+        assertThat(CacheValueWeigher.weightOf("single")).isEqualTo(1);
+    }
+}
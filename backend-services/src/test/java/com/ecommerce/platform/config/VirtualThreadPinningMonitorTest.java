@@ -0,0 +1,69 @@
+package com.ecommerce.platform.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(10, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void blocking_under_a_reentrant_lock_does_not_pin() throws Exception {
+        monitor.start();
+        ReentrantLock lock = new ReentrantLock();
+
+        Thread.ofVirtual().start(() -> {
+            lock.lock();
+            try {
+                sleep(50);
+            } finally {
+                lock.unlock();
+            }
+        }).join();
+
+        assertThat(awaitPinned(2_000)).isZero();
+    }
+
+    @Test
+    void blocking_inside_synchronized_is_reported_where_the_jdk_pins() throws Exception {
+        assumeTrue(Runtime.version().feature() < 24, "synchronized no longer pins from JDK 24");
+        monitor.start();
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        }).join();
+
+        assertThat(awaitPinned(10_000)).isEqualTo(1.0);
+    }
+
+    private double awaitPinned(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (monitor.pinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        return monitor.pinnedCount();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
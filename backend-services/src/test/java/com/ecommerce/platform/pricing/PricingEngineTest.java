@@ -0,0 +1,90 @@
+package com.ecommerce.platform.pricing;
+
+import com.ecommerce.platform.modules.auth.security.AuthenticatedUser;
+import com.ecommerce.platform.modules.catalog.api.CatalogDiscount;
+import com.ecommerce.platform.modules.pricing.api.PricedLine;
+import com.ecommerce.platform.modules.pricing.api.PricingEngine;
+import com.ecommerce.platform.modules.pricing.api.PricingLine;
+import com.ecommerce.platform.modules.pricing.index.DiscountIndex;
+import com.ecommerce.platform.modules.pricing.service.IndexedPricingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricingEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final DiscountIndex discountIndex = new DiscountIndex();
+    private final PricingEngine pricingEngine = new IndexedPricingEngine(discountIndex);
+
+    @BeforeEach
+    void setUp() {
+        discountIndex.replaceAll(Map.of(10L, List.of(
+                discount(1L, "10.00", TODAY.minusDays(1), TODAY.plusDays(1)),
+                discount(2L, "25.00", TODAY, TODAY),
+                discount(3L, "50.00", TODAY.plusDays(1), null),
+                discount(4L, "40.00", TODAY.minusDays(5), TODAY.minusDays(1))
+        )));
+    }
+
+    @Test
+    void best_discount_considers_only_discounts_active_today() {
+        assertThat(pricingEngine.bestActiveDiscount(10L).id()).isEqualTo(2L);
+        assertThat(pricingEngine.activeDiscount(10L, 3L)).isNull();
+        assertThat(pricingEngine.activeDiscount(10L, 4L)).isNull();
+        assertThat(pricingEngine.bestActiveDiscount(11L)).isNull();
+    }
+
+    @Test
+    void day_bucket_follows_the_date_without_a_reload() {
+        DiscountIndex.DayBucket tomorrow = discountIndex.bucket(TODAY.plusDays(1));
+
+        assertThat(tomorrow.best(10L).discount().id()).isEqualTo(3L);
+        assertThat(tomorrow.active(10L, 2L)).isNull();
+    }
+
+    @Test
+    void stacks_product_user_and_employee_discounts_in_cents() {
+        AuthenticatedUser employee = new AuthenticatedUser(7L, "e@example.com", "E", List.of("ROLE_EMPLOYEE"),
+                new BigDecimal("5.00"), TODAY.minusDays(1), null, true, true);
+
+        List<PricedLine> priced = pricingEngine.priceCart(employee, List.of(
+                new PricingLine(10L, new BigDecimal("19.99"), 3, 1L),
+                new PricingLine(11L, new BigDecimal("0.05"), 1, null)
+        ));
+
+        PricedLine discounted = priced.get(0);
+        assertThat(discounted.totalDiscountBasisPoints()).isEqualTo(3_000);
+        assertThat(discounted.finalUnitPrice()).isEqualByComparingTo("13.99");
+        assertThat(discounted.lineTotalCents()).isEqualTo(4_197);
+        assertThat(discounted.productDiscount().id()).isEqualTo(1L);
+        assertThat(priced.get(1).finalUnitPriceCents()).isEqualTo(4);
+    }
+
+    @Test
+    void total_discount_is_capped_and_inactive_selection_is_ignored() {
+        AuthenticatedUser user = new AuthenticatedUser(8L, "u@example.com", "U", List.of("ROLE_EMPLOYEE"),
+                new BigDecimal("90.00"), TODAY.minusDays(1), TODAY.plusDays(1), true, true);
+
+        List<PricedLine> priced = pricingEngine.priceCart(user, List.of(
+                new PricingLine(10L, new BigDecimal("10.00"), 1, 2L),
+                new PricingLine(10L, new BigDecimal("10.00"), 1, 4L)
+        ));
+
+        assertThat(priced.get(0).totalDiscountBasisPoints()).isEqualTo(10_000);
+        assertThat(priced.get(0).finalUnitPriceCents()).isZero();
+        assertThat(priced.get(1).productDiscount()).isNull();
+        assertThat(priced.get(1).productDiscountBasisPoints()).isZero();
+    }
+
+    private CatalogDiscount discount(Long id, String percentage, LocalDate start, LocalDate end) {
+        return new CatalogDiscount(id, "Discount " + id, new BigDecimal(percentage), start, end);
+    }
+}
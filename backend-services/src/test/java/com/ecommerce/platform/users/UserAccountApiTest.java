@@ -1,17 +1,29 @@
 package com.ecommerce.platform.users;
 
+import com.ecommerce.platform.config.CountStore;
 import com.ecommerce.platform.modules.users.api.UserAccountApi;
+import com.ecommerce.platform.modules.users.api.UserIdentity;
 import com.ecommerce.platform.modules.users.api.UserRegistrationRequest;
 import com.ecommerce.platform.modules.users.repository.RoleRepository;
 import com.ecommerce.platform.modules.users.repository.UserRepository;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserAccountApiTest {
@@ -21,7 +33,7 @@ class UserAccountApiTest {
         UserRepository userRepository = mock(UserRepository.class);
         RoleRepository roleRepository = mock(RoleRepository.class);
         PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
-        UserAccountApi api = new UserAccountApi(userRepository, roleRepository, passwordEncoder);
+        UserAccountApi api = new UserAccountApi(userRepository, roleRepository, passwordEncoder, mock(CountStore.class));
 
         when(userRepository.existsByEmail("missing-role@example.com")).thenReturn(false);
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.empty());
@@ -34,4 +46,23 @@ class UserAccountApiTest {
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("500 INTERNAL_SERVER_ERROR");
     }
+
+    @Test
+    void matching_login_rehashes_passwords_below_the_configured_cost() {
+        UserRepository userRepository = mock(UserRepository.class);
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(5);
+        UserAccountApi api = new UserAccountApi(userRepository, mock(RoleRepository.class), passwordEncoder, mock(CountStore.class));
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret123");
+        UserIdentity identity = new UserIdentity(3L, "weak@example.com", "Weak", weakHash, List.of("ROLE_USER"),
+                true, true, BigDecimal.ZERO, null, null);
+
+        assertThat(api.passwordMatches("wrong", identity)).isFalse();
+        verify(userRepository, never()).replacePasswordHash(anyLong(), anyString(), anyString());
+
+        assertThat(api.passwordMatches("secret123", identity)).isTrue();
+        ArgumentCaptor<String> upgraded = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).replacePasswordHash(eq(3L), eq(weakHash), upgraded.capture());
+        assertThat(upgraded.getValue()).startsWith("$2a$05$");
+        assertThat(passwordEncoder.matches("secret123", upgraded.getValue())).isTrue();
+    }
 }
@@ -1,4 +1,4 @@
-﻿import axios, { type AxiosError } from "axios";
+﻿import axios, { type AxiosError, type InternalAxiosRequestConfig } from "axios";
 import type {
     AuthResponse,
     CartItem,
@@ -16,6 +16,8 @@ import type {
 
 const API_PREFIX = import.meta.env.VITE_API_PREFIX || "/api/v1";
 const AUTH_PREFIX = import.meta.env.VITE_AUTH_PREFIX || "/auth";
+const REFRESH_TOKEN_KEY = "refreshToken";
+const REFRESH_LOCK = "auth-refresh";
 
 const api = axios.create({
     baseURL: API_PREFIX,
@@ -38,8 +40,12 @@ interface ApiErrorResponse {
 }
 
 type UnauthorizedHandler = () => void;
+type SessionRefreshedHandler = (session: AuthResponse) => void;
+type RetriableRequest = InternalAxiosRequestConfig & { _retried?: boolean };
 
 let unauthorizedHandler: UnauthorizedHandler | null = null;
+let sessionRefreshedHandler: SessionRefreshedHandler | null = null;
+let pendingRefresh: Promise<string | null> | null = null;
 
 function asError(error: unknown): AxiosError<ApiErrorResponse> | null {
     if (axios.isAxiosError(error)) {
@@ -48,11 +54,57 @@ function asError(error: unknown): AxiosError<ApiErrorResponse> | null {
     return null;
 }
 
+// Each refresh token can be presented only once, and tabs share it through localStorage. Concurrent
+// 401s in a tab share one refresh call, and tabs take turns through a Web Lock, reading the token
+// only once they hold it, so no tab presents a token another tab has already rotated.
+function refreshSession(): Promise<string | null> {
+    if (!pendingRefresh) {
+        pendingRefresh = withRefreshLock(presentRefreshToken)
+            .catch(() => null)
+            .finally(() => {
+                pendingRefresh = null;
+            });
+    }
+    return pendingRefresh;
+}
+
+async function presentRefreshToken(): Promise<string | null> {
+    const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+    if (!refreshToken) {
+        return null;
+    }
+    const { data } = await authApi.post<AuthResponse>("/refresh", { refreshToken });
+    localStorage.setItem(REFRESH_TOKEN_KEY, data.refreshToken);
+    setAuthToken(data.token);
+    sessionRefreshedHandler?.(data);
+    return data.token;
+}
+
+async function withRefreshLock<T>(task: () => Promise<T>): Promise<T> {
+    if (typeof navigator === "undefined" || !navigator.locks) {
+        return task();
+    }
+    let result!: T;
+    await navigator.locks.request(REFRESH_LOCK, async () => {
+        result = await task();
+    });
+    return result;
+}
+
 api.interceptors.response.use(
     (response) => response,
-    (error: unknown) => {
+    async (error: unknown) => {
         const axiosError = asError(error);
         if (axiosError?.response?.status === 401) {
+            const request = axiosError.config as RetriableRequest | undefined;
+            if (request && !request._retried) {
+                request._retried = true;
+                const token = await refreshSession();
+                if (token) {
+                    request.headers.Authorization = `Bearer ${token}`;
+                    return api(request);
+                }
+            }
             unauthorizedHandler?.();
         }
         return Promise.reject(error);
@@ -63,6 +115,10 @@ function setUnauthorizedHandler(handler: UnauthorizedHandler | null): void {
     unauthorizedHandler = handler;
 }
 
+function setSessionRefreshedHandler(handler: SessionRefreshedHandler | null): void {
+    sessionRefreshedHandler = handler;
+}
+
 export async function fetchCategories(): Promise<string[]> {
     try {
         const { data } = await api.get<unknown>("/products/categories");
@@ -210,6 +266,15 @@ async function getCheckoutStatus(orderId: number | string): Promise<CheckoutStat
     return data;
 }
 
+// Long poll: the server holds the request until the order status differs from knownStatus or ~25s pass.
+async function awaitCheckoutStatus(orderId: number | string, knownStatus?: string): Promise<CheckoutStatusResponse> {
+    const { data } = await api.get<CheckoutStatusResponse>(`/checkout/${orderId}/await`, {
+        params: knownStatus ? { status: knownStatus } : undefined,
+        timeout: 35000,
+    });
+    return data;
+}
+
 export async function addProduct(productData: ProductPayload): Promise<Product> {
     const { data } = await api.post<Product>("/products", productData);
     return data;
@@ -302,6 +367,7 @@ export default {
     setAuthToken,
     clearAuthToken,
     setUnauthorizedHandler,
+    setSessionRefreshedHandler,
     login,
     signup,
     getCart,
@@ -312,6 +378,7 @@ export default {
     clearCart,
     startCheckout,
     getCheckoutStatus,
+    awaitCheckoutStatus,
     fetchCategories,
     fetchProducts,
     fetchProduct,
@@ -6,7 +6,7 @@ import type { User } from "../types/models";
 interface AuthContextValue {
     isAuthenticated: boolean;
     user: User | null;
-    login: (token: string, userData: User) => void;
+    login: (token: string, userData: User, refreshToken?: string) => void;
     logout: () => void;
 }
 
@@ -43,6 +43,7 @@ export function AuthProvider({ children }: PropsWithChildren) {
                 } catch (error) {
                     console.error("Corrupted auth data found, clearing...", error);
                     localStorage.removeItem("token");
+                    localStorage.removeItem("refreshToken");
                     localStorage.removeItem("user");
                     ApiService.clearAuthToken();
                 }
@@ -55,16 +56,20 @@ export function AuthProvider({ children }: PropsWithChildren) {
         initializeAuth();
     }, []);
 
-    const login = useCallback((token: string, userData: User) => {
+    const login = useCallback((token: string, userData: User, refreshToken?: string) => {
         localStorage.setItem("token", token);
         localStorage.setItem("user", JSON.stringify(userData));
         ApiService.setAuthToken(token);
+        if (refreshToken) {
+            localStorage.setItem("refreshToken", refreshToken);
+        }
         setIsAuthenticated(true);
         setUser(userData);
     }, []);
 
     const logout = useCallback(() => {
         localStorage.removeItem("token");
+        localStorage.removeItem("refreshToken");
         localStorage.removeItem("user");
         ApiService.clearAuthToken();
         setIsAuthenticated(false);
@@ -76,6 +81,11 @@ export function AuthProvider({ children }: PropsWithChildren) {
         return () => ApiService.setUnauthorizedHandler(null);
     }, [logout]);
 
+    useEffect(() => {
+        ApiService.setSessionRefreshedHandler((session) => login(session.token, session.user, session.refreshToken));
+        return () => ApiService.setSessionRefreshedHandler(null);
+    }, [login]);
+
     const value = useMemo<AuthContextValue>(
         () => ({ isAuthenticated, user, login, logout }),
         [isAuthenticated, user, login, logout],
@@ -5,12 +5,8 @@ import ApiService from "../api/ApiService";
 import { useCart } from "../global_component/CartContext";
 
 const PENDING_CHECKOUT_ORDER_KEY = "pendingCheckoutOrderId";
-const MAX_STATUS_POLLS = 20;
-const STATUS_POLL_INTERVAL_MS = 1000;
-
-function sleep(ms: number): Promise<void> {
-    return new Promise((resolve) => window.setTimeout(resolve, ms));
-}
+const STATUS_WAIT_BUDGET_MS = 60000;
+const TERMINAL_PAYMENT_STATUSES = ["SUCCEEDED", "FAILED", "EXPIRED"];
 
 export default function CheckoutSuccess() {
     const { reload } = useCart();
@@ -24,15 +20,15 @@ export default function CheckoutSuccess() {
 
             try {
                 if (orderId) {
-                    for (let attempt = 0; attempt < MAX_STATUS_POLLS; attempt += 1) {
-                        const status = await ApiService.getCheckoutStatus(orderId);
-                        if (status.paymentStatus === "SUCCEEDED") {
-                            break;
-                        }
-                        if (status.paymentStatus === "FAILED" || status.paymentStatus === "EXPIRED") {
+                    // Each call parks on the server until the webhook moves the order on, so there is no poll interval.
+                    const deadline = Date.now() + STATUS_WAIT_BUDGET_MS;
+                    let knownStatus: string | undefined;
+                    while (!cancelled && Date.now() < deadline) {
+                        const status = await ApiService.awaitCheckoutStatus(orderId, knownStatus);
+                        if (TERMINAL_PAYMENT_STATUSES.includes(status.paymentStatus)) {
                             break;
                         }
-                        await sleep(STATUS_POLL_INTERVAL_MS);
+                        knownStatus = status.status;
                     }
                 }
             } finally {
@@ -33,7 +33,7 @@ export default function Login() {
                 throw new Error("Invalid server response: Missing token or user data.");
             }
 
-            login(response.token, response.user);
+            login(response.token, response.user, response.refreshToken);
             const redirectPath = decodeURIComponent(from);
             navigate(redirectPath, { replace: true });
         } catch (err) {
@@ -37,6 +37,7 @@ export interface User {
 
 export interface AuthResponse {
     token: string;
+    refreshToken: string;
     user: User;
 }
 
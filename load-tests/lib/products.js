@@ -4,14 +4,17 @@ import { BASE_URL, randomItem } from './config.js';
 
 export function fetchProducts(maxPages = 5, pageSize = 100) {
   const products = [];
+  let cursor = null;
   for (let page = 0; page < maxPages; page++) {
-    const response = http.get(`${BASE_URL}/api/v1/products?page=${page}&size=${pageSize}`);
+    const cursorParam = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+    const response = http.get(`${BASE_URL}/api/v1/products/scroll?size=${pageSize}${cursorParam}`);
     if (response.status !== 200) {
       break;
     }
     const items = response.json('items') || [];
     products.push(...items.map((item) => ({ id: item.id, category: item.category })));
-    if (!response.json('hasNext')) {
+    cursor = response.json('nextCursor');
+    if (!response.json('hasNext') || !cursor) {
       break;
     }
   }
@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Runs checkout.js against a platform-thread backend and a virtual-thread backend with the same
+# load shape and prints the headline numbers side by side.
+#
+# Start two backends against the same MySQL/Redis and the same APP_LOADTEST_PAYMENT_DELAY_MS,
+# one of them with SPRING_PROFILES_ACTIVE=virtual-threads, then:
+#   PLATFORM_URL=http://localhost:8080 VIRTUAL_URL=http://localhost:8081 ./compare-runtimes.sh
+# Extra k6 -e options (CHECKOUT_VUS, CHECKOUT_DURATION, ...) are passed through from the environment.
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PLATFORM_URL="${PLATFORM_URL:?set PLATFORM_URL to the platform-thread backend}"
+VIRTUAL_URL="${VIRTUAL_URL:?set VIRTUAL_URL to the virtual-thread backend}"
+RESULTS_DIR="${RESULTS_DIR:-${SCRIPT_DIR}/../results/$(date +%Y%m%d-%H%M%S)}"
+TREND_STATS="avg,med,p(95),p(99),max"
+
+command -v k6 >/dev/null 2>&1 || { echo "k6 is required" >&2; exit 1; }
+command -v jq >/dev/null 2>&1 || { echo "jq is required" >&2; exit 1; }
+mkdir -p "${RESULTS_DIR}"
+
+passthrough=()
+for name in CREATE_USERS CHECKOUT_VUS CHECKOUT_RAMP_UP CHECKOUT_DURATION CHECKOUT_RAMP_DOWN LOADTEST_WEBHOOK_SECRET; do
+  if [[ -n "${!name:-}" ]]; then
+    passthrough+=(-e "${name}=${!name}")
+  fi
+done
+
+run() {
+  local label="$1" url="$2"
+  echo "==> checkout.js against ${label} (${url})"
+  (cd "${SCRIPT_DIR}" && k6 run --quiet \
+    --summary-trend-stats "${TREND_STATS}" \
+    --summary-export "${RESULTS_DIR}/${label}.json" \
+    -e BASE_URL="${url}" ${passthrough[@]+"${passthrough[@]}"} checkout.js) || echo "    thresholds failed for ${label}, reporting anyway"
+}
+
+run platform "${PLATFORM_URL}"
+run virtual "${VIRTUAL_URL}"
+
+row() {
+  local label="$1" filter="$2"
+  printf '%-28s %14s %14s\n' "${label}" \
+    "$(jq -r "${filter}" "${RESULTS_DIR}/platform.json")" \
+    "$(jq -r "${filter}" "${RESULTS_DIR}/virtual.json")"
+}
+
+echo
+printf '%-28s %14s %14s\n' "metric" "platform" "virtual"
+row "checkout p95 (ms)" '.metrics.checkout_latency["p(95)"] | floor'
+row "checkout p99 (ms)" '.metrics.checkout_latency["p(99)"] | floor'
+row "http_req_duration p95 (ms)" '.metrics.http_req_duration["p(95)"] | floor'
+row "requests/s" '.metrics.http_reqs.rate * 100 | floor / 100'
+row "failed request rate" '.metrics.http_req_failed.value * 10000 | floor / 10000'
+echo
+echo "Summaries: ${RESULTS_DIR}"